@@ -0,0 +1,55 @@
+-- Before/after benchmark of the headquarter branch lookup on 1M SWIFT codes.
+-- Run with: psql -d <database> -f benchmarks/sql/bank-code-index.sql
+-- Uses its own tables, the application tables are not touched.
+
+DROP TABLE IF EXISTS bench_swift_model;
+DROP TABLE IF EXISTS bench_country_model;
+
+CREATE TABLE bench_country_model (iso2code VARCHAR(255) PRIMARY KEY, name VARCHAR(255), time_zone VARCHAR(255));
+CREATE TABLE bench_swift_model (
+    swift_code     VARCHAR(255) PRIMARY KEY,
+    bank_name      VARCHAR(255),
+    address        VARCHAR(255),
+    town_name      VARCHAR(255),
+    iso2code       VARCHAR(255),
+    is_headquarter BOOLEAN NOT NULL
+);
+
+INSERT INTO bench_country_model
+SELECT chr(65 + i / 26) || chr(65 + i % 26), 'COUNTRY ' || i, 'Europe/Warsaw'
+FROM generate_series(0, 199) AS i;
+
+-- 100 000 banks with 10 codes each: the headquarter (XXX) and 9 branches
+INSERT INTO bench_swift_model
+SELECT upper(substr(md5(bank::text), 1, 6)) || chr(65 + (bank % 200) / 26) || chr(65 + (bank % 200) % 26)
+           || CASE WHEN branch = 0 THEN 'XXX' ELSE lpad(branch::text, 3, '0') END,
+       'BANK ' || bank, 'ADDRESS ' || bank || '/' || branch, 'TOWN ' || (bank % 5000),
+       chr(65 + (bank % 200) / 26) || chr(65 + (bank % 200) % 26),
+       branch = 0
+FROM generate_series(1, 100000) AS bank, generate_series(0, 9) AS branch
+ON CONFLICT DO NOTHING;
+
+ANALYZE bench_swift_model;
+ANALYZE bench_country_model;
+
+-- Before: the prefix is computed from the code, so no index can be used
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT s.swift_code, s.bank_name, s.address, c.iso2code, s.is_headquarter
+FROM bench_swift_model s JOIN bench_country_model c ON s.iso2code = c.iso2code
+WHERE substring(s.swift_code, 1, 8) = substring((SELECT min(swift_code) FROM bench_swift_model WHERE swift_code LIKE '%XXX'), 1, 8)
+  AND s.swift_code <> (SELECT min(swift_code) FROM bench_swift_model WHERE swift_code LIKE '%XXX');
+
+-- After: the prefix is stored in an indexed column (SwiftModel.bankCode)
+ALTER TABLE bench_swift_model ADD COLUMN bank_code VARCHAR(8);
+UPDATE bench_swift_model SET bank_code = substring(swift_code, 1, 8);
+CREATE INDEX idx_bench_swift_model_bank_code ON bench_swift_model (bank_code);
+ANALYZE bench_swift_model;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT s.swift_code, s.bank_name, s.address, c.iso2code, s.is_headquarter
+FROM bench_swift_model s JOIN bench_country_model c ON s.iso2code = c.iso2code
+WHERE s.bank_code = substring((SELECT min(swift_code) FROM bench_swift_model WHERE swift_code LIKE '%XXX'), 1, 8)
+  AND s.swift_code <> (SELECT min(swift_code) FROM bench_swift_model WHERE swift_code LIKE '%XXX');
+
+DROP TABLE bench_swift_model;
+DROP TABLE bench_country_model;
@@ -0,0 +1,158 @@
+package com.example.swiftcodes.benchmarks;
+
+import com.example.swiftcodes.config.SwiftProperties;
+import com.example.swiftcodes.importer.DelimitedRowReader;
+import com.example.swiftcodes.importer.XlsxRowReader;
+import com.example.swiftcodes.metrics.SwiftMetrics;
+import com.example.swiftcodes.model.SwiftModel;
+import com.example.swiftcodes.repository.SwiftCursorRepository;
+import com.example.swiftcodes.repository.SwiftRepository;
+import com.example.swiftcodes.service.ExcelImportService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Embedded PostgreSQL instance, or the H2 file of the {@code embedded} profile, together with the part of the
+ * application context used by the benchmarks: the JPA repository and the Excel import. The schema is created by
+ * Hibernate from the entities, like in the application.
+ */
+public class BenchmarkDatabase implements AutoCloseable {
+
+    /**
+     * Storage the benchmarks run against.
+     */
+    public enum Storage {
+        POSTGRES,
+        // Same settings as application-embedded.properties, in a temporary directory
+        H2
+    }
+
+    private final EmbeddedPostgres postgres;
+    private final Path h2Directory;
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkDatabase(EmbeddedPostgres postgres, Path h2Directory, ConfigurableApplicationContext context) {
+        this.postgres = postgres;
+        this.h2Directory = h2Directory;
+        this.context = context;
+    }
+
+    /**
+     * Starts an empty PostgreSQL database and the application context connected to it.
+     *
+     * @param properties additional application properties, e.g. {@code swift.importer.writer-threads=4}
+     * @return the started database
+     * @throws IOException if PostgreSQL cannot be started
+     */
+    public static BenchmarkDatabase start(String... properties) throws IOException {
+        return start(Storage.POSTGRES, properties);
+    }
+
+    /**
+     * Starts an empty database of the given storage and the application context connected to it.
+     *
+     * @param storage    PostgreSQL, or a new H2 database file
+     * @param properties additional application properties, e.g. {@code swift.importer.writer-threads=4}
+     * @return the started database
+     * @throws IOException if the database cannot be started
+     */
+    public static BenchmarkDatabase start(Storage storage, String... properties) throws IOException {
+        EmbeddedPostgres postgres = null;
+        Path h2Directory = null;
+        String[] connection;
+        if (storage == Storage.H2) {
+            h2Directory = Files.createTempDirectory("swift-h2");
+            connection = new String[]{
+                    "spring.datasource.url=jdbc:h2:" + h2Directory.resolve("swift")
+                            + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+                    "spring.datasource.username=sa"};
+        } else {
+            postgres = EmbeddedPostgres.builder().start();
+            connection = new String[]{
+                    "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                    "spring.datasource.username=postgres"};
+        }
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Config.class)
+                .web(WebApplicationType.NONE)
+                .properties(connection)
+                .properties(
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "spring.jpa.open-in-view=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .properties(properties)
+                .run();
+        return new BenchmarkDatabase(postgres, h2Directory, context);
+    }
+
+    public SwiftRepository swiftRepository() {
+        return context.getBean(SwiftRepository.class);
+    }
+
+    public SwiftCursorRepository swiftCursorRepository() {
+        return context.getBean(SwiftCursorRepository.class);
+    }
+
+    public ExcelImportService excelImportService() {
+        return context.getBean(ExcelImportService.class);
+    }
+
+    public JdbcTemplate jdbcTemplate() {
+        return context.getBean(JdbcTemplate.class);
+    }
+
+    /**
+     * Removes all imported rows.
+     */
+    public void truncate() {
+        if (postgres == null) {
+            // H2 truncates one table at a time, and not one referenced by a foreign key
+            jdbcTemplate().execute("TRUNCATE TABLE swift_model");
+            jdbcTemplate().execute("DELETE FROM country_model");
+        } else {
+            jdbcTemplate().execute("TRUNCATE swift_model, country_model");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        if (postgres != null) {
+            postgres.close();
+        } else {
+            try (Stream<Path> files = Files.walk(h2Directory)) {
+                for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Minimal configuration: entities, repositories, the cursor reads and the import service, without the web layer.
+     */
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = SwiftModel.class)
+    @EnableJpaRepositories(basePackageClasses = SwiftRepository.class)
+    @EnableConfigurationProperties(SwiftProperties.class)
+    @Import({ExcelImportService.class, XlsxRowReader.class, DelimitedRowReader.class, SwiftMetrics.class,
+            SwiftCursorRepository.class})
+    static class Config {
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.swiftcodes.benchmarks;
+
+import com.example.swiftcodes.importer.ImportFormat;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Deterministic synthetic SWIFT directory: every bank has one headquarter ({@code XXX}) and
+ * {@value #BRANCHES_PER_BANK} - 1 branches, and banks are spread evenly over {@value #COUNTRY_COUNT} countries.
+ * Row {@code i} always describes the same SWIFT code, so benchmarks can pick codes without querying the database.
+ */
+public final class Dataset {
+
+    public static final int BRANCHES_PER_BANK = 10;
+    public static final int COUNTRY_COUNT = 50;
+    public static final int REVISED_EVERY = 100;
+
+    private static final String[] HEADER = {"COUNTRY ISO2 CODE", "SWIFT CODE", "CODE TYPE", "NAME", "ADDRESS",
+            "TOWN NAME", "COUNTRY NAME", "TIME ZONE"};
+    private static final String[] COUNTRIES = Arrays.copyOf(Locale.getISOCountries(), COUNTRY_COUNT);
+
+    private Dataset() {
+    }
+
+    /**
+     * Returns the SWIFT code of the given row.
+     *
+     * @param row the row index
+     * @return the SWIFT code, e.g. {@code AAAAADAAXXX} for the headquarter of the first bank
+     */
+    public static String swiftCode(int row) {
+        int bank = row / BRANCHES_PER_BANK;
+        int branch = row % BRANCHES_PER_BANK;
+        String letters = letters(bank);
+        return letters.substring(0, 4) + country(row) + letters.substring(4)
+                + (branch == 0 ? "XXX" : String.format("%03d", branch));
+    }
+
+    /**
+     * Returns the SWIFT code of the headquarter of the bank of the given row.
+     *
+     * @param row the row index
+     * @return the headquarter SWIFT code
+     */
+    public static String headquarter(int row) {
+        return swiftCode(row - row % BRANCHES_PER_BANK);
+    }
+
+    /**
+     * Returns the ISO2 code of the country of the given row.
+     *
+     * @param row the row index
+     * @return the ISO2 country code
+     */
+    public static String country(int row) {
+        return COUNTRIES[(row / BRANCHES_PER_BANK) % COUNTRY_COUNT];
+    }
+
+    /**
+     * Returns a workbook with the given number of rows, generating it on first use.
+     *
+     * @param rows the number of data rows
+     * @return path of the workbook
+     * @throws IOException if the file cannot be written
+     */
+    public static Path workbook(int rows) throws IOException {
+        return file(rows, ImportFormat.XLSX);
+    }
+
+    /**
+     * Returns a file in the given format with the given number of rows, generating it on first use.
+     * Files are kept in {@code target/workbooks}, so repeated runs do not regenerate them.
+     *
+     * @param rows   the number of data rows
+     * @param format the format of the file
+     * @return path of the file
+     * @throws IOException if the file cannot be written
+     */
+    public static Path file(int rows, ImportFormat format) throws IOException {
+        return file(rows, format, 0);
+    }
+
+    /**
+     * Returns the next revision of the file with the given number of rows: the address of every
+     * {@value #REVISED_EVERY}th row has changed, all other rows are the same.
+     *
+     * @param rows   the number of data rows
+     * @param format the format of the file
+     * @return path of the file
+     * @throws IOException if the file cannot be written
+     */
+    public static Path revisedFile(int rows, ImportFormat format) throws IOException {
+        return file(rows, format, REVISED_EVERY);
+    }
+
+    private static Path file(int rows, ImportFormat format, int revisedEvery) throws IOException {
+        String name = "swift-" + rows + (revisedEvery > 0 ? "-revised" : "") + format.getExtension();
+        Path file = Path.of("target", "workbooks", name);
+        if (!Files.exists(file)) {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), "swift-", format.getExtension());
+            switch (format) {
+                case XLSX -> writeWorkbook(temp, rows, revisedEvery);
+                case CSV -> writeDelimited(temp, rows, ',', revisedEvery);
+                case TSV -> writeDelimited(temp, rows, '\t', revisedEvery);
+            }
+            Files.move(temp, file);
+        }
+        return file;
+    }
+
+    /**
+     * Writes the first {@code rows} rows to an XLSX file in the layout of the SWIFT directory export.
+     * The workbook is streamed, so even a million rows need little memory.
+     *
+     * @param file the file to write
+     * @param rows the number of data rows
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeWorkbook(Path file, int rows) throws IOException {
+        writeWorkbook(file, rows, 0);
+    }
+
+    private static void writeWorkbook(Path file, int rows, int revisedEvery) throws IOException {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet();
+            writeRow(sheet, 0, HEADER);
+            for (int i = 0; i < rows; i++) {
+                writeRow(sheet, i + 1, values(i, revisedEvery));
+            }
+            workbook.write(out);
+            workbook.dispose();
+        }
+    }
+
+    /**
+     * Writes the first {@code rows} rows to a UTF-8 CSV or TSV file with the same columns as the workbook.
+     * Fields containing the delimiter are quoted.
+     *
+     * @param file      the file to write
+     * @param rows      the number of data rows
+     * @param delimiter the field delimiter
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeDelimited(Path file, int rows, char delimiter) throws IOException {
+        writeDelimited(file, rows, delimiter, 0);
+    }
+
+    private static void writeDelimited(Path file, int rows, char delimiter, int revisedEvery) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writeLine(out, delimiter, HEADER);
+            for (int i = 0; i < rows; i++) {
+                writeLine(out, delimiter, values(i, revisedEvery));
+            }
+        }
+    }
+
+    private static String[] values(int row, int revisedEvery) {
+        String country = country(row);
+        String street = revisedEvery > 0 && row % revisedEvery == 0 ? "AVENUE " : "STREET ";
+        return new String[]{country, swiftCode(row), "BIC11", "BANK " + (row / BRANCHES_PER_BANK),
+                street + row + ", TOWN " + (row % 1000), "TOWN " + (row % 1000),
+                new Locale("", country).getDisplayCountry(Locale.ENGLISH).toUpperCase(Locale.ROOT),
+                "Europe/Warsaw"};
+    }
+
+    private static void writeLine(Writer out, char delimiter, String... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(delimiter);
+            }
+            String value = values[i];
+            if (value.indexOf(delimiter) >= 0 || value.indexOf('"') >= 0) {
+                out.write('"' + value.replace("\"", "\"\"") + '"');
+            } else {
+                out.write(value);
+            }
+        }
+        out.write('\n');
+    }
+
+    private static void writeRow(Sheet sheet, int index, String... values) {
+        Row row = sheet.createRow(index);
+        for (int i = 0; i < values.length; i++) {
+            row.createCell(i).setCellValue(values[i]);
+        }
+    }
+
+    private static String letters(int value) {
+        char[] letters = new char[6];
+        for (int i = letters.length - 1; i >= 0; i--) {
+            letters[i] = (char) ('A' + value % 26);
+            value /= 26;
+        }
+        return new String(letters);
+    }
+}
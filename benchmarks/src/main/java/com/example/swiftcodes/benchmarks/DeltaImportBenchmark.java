@@ -0,0 +1,73 @@
+package com.example.swiftcodes.benchmarks;
+
+import com.example.swiftcodes.dto.ImportSummaryDto;
+import com.example.swiftcodes.importer.ImportFormat;
+import com.example.swiftcodes.importer.ImportProgress;
+import com.example.swiftcodes.service.ExcelImportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time of re-importing the next revision of the directory, in which {@value Dataset#REVISED_EVERY}th of the rows changed,
+ * into a database already holding the previous revision: the plain import sends every row to the database,
+ * the delta import only the changed ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class DeltaImportBenchmark {
+
+    @Param({"100000"})
+    public int rows;
+
+    private BenchmarkDatabase database;
+    private ExcelImportService excelImportService;
+    private Path file;
+    private Path revisedFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        file = Dataset.file(rows, ImportFormat.CSV);
+        revisedFile = Dataset.revisedFile(rows, ImportFormat.CSV);
+        database = BenchmarkDatabase.start();
+        excelImportService = database.excelImportService();
+    }
+
+    @Setup(Level.Iteration)
+    public void loadPreviousRevision() throws Exception {
+        database.truncate();
+        excelImportService.importData(file, ImportFormat.CSV, new ImportProgress());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+    }
+
+    @Benchmark
+    public ImportSummaryDto plainImport() throws Exception {
+        return excelImportService.importData(revisedFile, ImportFormat.CSV, new ImportProgress());
+    }
+
+    @Benchmark
+    public ImportSummaryDto deltaImport() throws Exception {
+        return excelImportService.importDelta(revisedFile, ImportFormat.CSV, new ImportProgress());
+    }
+}
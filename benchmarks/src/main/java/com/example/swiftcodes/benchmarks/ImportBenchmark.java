@@ -0,0 +1,81 @@
+package com.example.swiftcodes.benchmarks;
+
+import com.example.swiftcodes.dto.ImportSummaryDto;
+import com.example.swiftcodes.importer.ImportFormat;
+import com.example.swiftcodes.importer.ImportProgress;
+import com.example.swiftcodes.service.ExcelImportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time of a full {@link ExcelImportService} import of a generated file into an empty embedded PostgreSQL.
+ * Rows per second are {@code rows / score}; run with {@code -prof gc} to compare the allocation rate of the formats.
+ * {@code writers} is {@code swift.importer.writer-threads}: 0 parses and writes on one thread.
+ * {@code copy} switches to the COPY bulk load ({@code swift.importer.copy-enabled}), which has no writer threads.
+ * With {@code storage} H2 the file is imported into the H2 database of the {@code embedded} profile, where COPY
+ * falls back to batches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ImportBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"XLSX", "CSV"})
+    public ImportFormat format;
+
+    @Param({"0", "1", "2", "4"})
+    public int writers;
+
+    @Param({"false", "true"})
+    public boolean copy;
+
+    @Param({"POSTGRES", "H2"})
+    public BenchmarkDatabase.Storage storage;
+
+    private BenchmarkDatabase database;
+    private ExcelImportService excelImportService;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        file = Dataset.file(rows, format);
+        database = BenchmarkDatabase.start(storage, "swift.importer.writer-threads=" + writers,
+                "swift.importer.copy-enabled=" + copy);
+        excelImportService = database.excelImportService();
+    }
+
+    @Setup(Level.Iteration)
+    public void clear() {
+        database.truncate();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+    }
+
+    @Benchmark
+    public ImportSummaryDto importFile() throws Exception {
+        return excelImportService.importData(file, format, new ImportProgress());
+    }
+}
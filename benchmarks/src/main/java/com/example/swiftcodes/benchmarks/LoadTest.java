@@ -0,0 +1,238 @@
+package com.example.swiftcodes.benchmarks;
+
+import com.example.swiftcodes.SwiftApplication;
+import com.example.swiftcodes.importer.ImportFormat;
+import com.example.swiftcodes.importer.ImportProgress;
+import com.example.swiftcodes.model.SwiftModel;
+import com.example.swiftcodes.repository.SwiftRepository;
+import com.example.swiftcodes.service.ExcelImportService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load test of the read endpoints, comparing request handling on platform and on virtual threads.
+ *
+ * <p>The whole application is started on an embedded PostgreSQL with the lookup cache and the country index disabled,
+ * so every request blocks on JDBC. Each of the {@code clients} clients sends its next request as soon as the previous
+ * one is answered: 20 % country pages of 50 codes, {@code listings} % listings of a whole country and SWIFT code
+ * lookups for the rest. The throughput and latency percentiles are measured after a warm-up, for all requests and for
+ * the lookups alone; rejected requests count as errors. The client runs in the same JVM, so compare the runs with each
+ * other, not with production.</p>
+ *
+ * <p>Arguments are {@code name=value} pairs: {@code clients} (1000), {@code seconds} (30), {@code warmup} (10),
+ * {@code rows} (100000), {@code listings} (0), {@code bulkhead} ({@code true}; whether the endpoint groups are limited
+ * by {@code swift.bulkhead.*}) and {@code modes} ({@code platform,virtual}; the virtual mode needs Java 21).</p>
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            options.put(option[0], option[1]);
+        }
+        int clients = Integer.parseInt(options.getOrDefault("clients", "1000"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "30"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int rows = Integer.parseInt(options.getOrDefault("rows", "100000"));
+        int listings = Integer.parseInt(options.getOrDefault("listings", "0"));
+        boolean bulkhead = Boolean.parseBoolean(options.getOrDefault("bulkhead", "true"));
+        List<String> modes = List.of(options.getOrDefault("modes", "platform,virtual").split(","));
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            boolean loaded = false;
+            System.out.printf("%-9s %8s %10s %10s %9s %9s %9s %8s %15s%n",
+                    "mode", "clients", "requests", "req/s", "p50 ms", "p99 ms", "max ms", "errors", "lookup p99 ms");
+            for (String mode : modes) {
+                boolean virtual = mode.equals("virtual");
+                if (virtual && !JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)) {
+                    System.out.printf("%-9s skipped, virtual threads require Java 21 (running %s)%n",
+                            mode, JavaVersion.getJavaVersion());
+                    continue;
+                }
+                try (ConfigurableApplicationContext context = start(postgres, virtual, bulkhead)) {
+                    if (!loaded) {
+                        context.getBean(ExcelImportService.class)
+                                .importData(Dataset.file(rows, ImportFormat.CSV), ImportFormat.CSV, new ImportProgress());
+                        context.getBean(JdbcTemplate.class).execute("ANALYZE");
+                        loaded = true;
+                    }
+                    int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                    Result[] results = run("http://localhost:" + port + "/v1/swift-codes/", clients, rows, listings, warmup, seconds);
+                    Result result = results[0];
+                    System.out.printf("%-9s %8d %10d %10.0f %9.1f %9.1f %9.1f %8d %15.1f%n", mode, clients,
+                            result.requests(), result.requests() / (double) seconds, result.percentile(0.50),
+                            result.percentile(0.99), result.percentile(1.0), result.errors(), results[1].percentile(0.99));
+                }
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(EmbeddedPostgres postgres, boolean virtual, boolean bulkhead) {
+        return new SpringApplicationBuilder(Config.class)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "spring.datasource.username=postgres",
+                        "spring.datasource.hikari.maximum-pool-size=20",
+                        "spring.jpa.hibernate.ddl-auto=update",
+                        "spring.jpa.open-in-view=false",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        "server.port=0",
+                        "server.tomcat.max-connections=20000",
+                        "swift.cache.max-size=0",
+                        "swift.country.index-enabled=false",
+                        "swift.bulkhead.enabled=" + bulkhead,
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    /**
+     * @return the results of all requests and of the lookups alone
+     */
+    private static Result[] run(String baseUrl, int clients, int rows, int listings, int warmup, int seconds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(executor)
+                .build();
+        try {
+            long measureFrom = System.nanoTime() + Duration.ofSeconds(warmup).toNanos();
+            long end = measureFrom + Duration.ofSeconds(seconds).toNanos();
+            Recorder[] recorders = new Recorder[clients];
+            Recorder[] lookupRecorders = new Recorder[clients];
+            CompletableFuture<?>[] loops = new CompletableFuture<?>[clients];
+            for (int i = 0; i < clients; i++) {
+                recorders[i] = new Recorder(measureFrom);
+                lookupRecorders[i] = new Recorder(measureFrom);
+                loops[i] = loop(client, baseUrl, rows, listings, end, recorders[i], lookupRecorders[i]);
+            }
+            CompletableFuture.allOf(loops).join();
+            return new Result[]{Result.of(recorders), Result.of(lookupRecorders)};
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static CompletableFuture<Void> loop(HttpClient client, String baseUrl, int rows, int listings, long end,
+                                                Recorder recorder, Recorder lookupRecorder) {
+        long start = System.nanoTime();
+        if (start >= end) {
+            return CompletableFuture.completedFuture(null);
+        }
+        int row = ThreadLocalRandom.current().nextInt(rows);
+        int kind = ThreadLocalRandom.current().nextInt(100);
+        boolean lookup = kind >= 20 + listings;
+        String path = kind < 20 ? "country/" + Dataset.country(row) + "?limit=50&after=" + Dataset.swiftCode(row)
+                : !lookup ? "country/" + Dataset.country(row)
+                : Dataset.swiftCode(row);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    long now = System.nanoTime();
+                    boolean success = error == null && response.statusCode() == 200;
+                    recorder.record(start, now, success);
+                    if (lookup) {
+                        lookupRecorder.record(start, now, success);
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> loop(client, baseUrl, rows, listings, end, recorder, lookupRecorder));
+    }
+
+    /**
+     * Latencies of one client, recorded from the end of the warm-up. Used by one request at a time.
+     */
+    private static final class Recorder {
+
+        private final long measureFrom;
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        private Recorder(long measureFrom) {
+            this.measureFrom = measureFrom;
+        }
+
+        private void record(long start, long end, boolean success) {
+            if (start < measureFrom) {
+                return;
+            }
+            if (!success) {
+                errors++;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = end - start;
+        }
+    }
+
+    private record Result(long[] latencies, long errors) {
+
+        static Result of(Recorder[] recorders) {
+            AtomicLong errors = new AtomicLong();
+            long[] all = Arrays.stream(recorders)
+                    .peek(recorder -> errors.addAndGet(recorder.errors))
+                    .flatMapToLong(recorder -> Arrays.stream(recorder.latencies, 0, recorder.count))
+                    .sorted()
+                    .toArray();
+            return new Result(all, errors.get());
+        }
+
+        long requests() {
+            return latencies.length;
+        }
+
+        double percentile(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * latencies.length) - 1;
+            return latencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+
+    /**
+     * The application configuration, without the benchmark classes that live in a sub-package of the application.
+     */
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = SwiftModel.class)
+    @EnableJpaRepositories(basePackageClasses = SwiftRepository.class)
+    @ConfigurationPropertiesScan(basePackageClasses = SwiftApplication.class)
+    @ComponentScan(basePackageClasses = SwiftApplication.class, excludeFilters = {
+            @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = SwiftApplication.class),
+            @ComponentScan.Filter(type = FilterType.REGEX, pattern = "com\\.example\\.swiftcodes\\.benchmarks\\..*")})
+    static class Config {
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.swiftcodes.benchmarks;
+
+import com.example.swiftcodes.cache.SwiftCodeFilter;
+import com.example.swiftcodes.config.SwiftProperties;
+import com.example.swiftcodes.dto.SwiftResponseDto;
+import com.example.swiftcodes.importer.ImportFormat;
+import com.example.swiftcodes.importer.ImportProgress;
+import com.example.swiftcodes.metrics.SwiftMetrics;
+import com.example.swiftcodes.repository.SwiftRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup of a SWIFT code that does not exist on a generated directory of {@code rows} codes: rejected by
+ * {@link SwiftCodeFilter} vs. the query it saves. The measured false-positive rate of the filter is printed in the setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LookupFilterBenchmark {
+
+    @Param({"100000"})
+    public int rows;
+
+    @Param({"0.01"})
+    public double falsePositiveRate;
+
+    private BenchmarkDatabase database;
+    private SwiftRepository swiftRepository;
+    private SwiftCodeFilter swiftCodeFilter;
+    private final String[] unknownCodes = new String[4096];
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.start();
+        database.excelImportService().importData(Dataset.file(rows, ImportFormat.CSV), ImportFormat.CSV, new ImportProgress());
+        swiftRepository = database.swiftRepository();
+
+        SwiftProperties properties = new SwiftProperties();
+        properties.getLookup().setFilterFalsePositiveRate(falsePositiveRate);
+        swiftCodeFilter = new SwiftCodeFilter(database.jdbcTemplate(), database.swiftCursorRepository(), properties, new SwiftMetrics(new SimpleMeterRegistry()));
+        swiftCodeFilter.rebuild();
+
+        int lookups = 1_000_000;
+        int passed = 0;
+        for (int i = 0; i < lookups; i++) {
+            if (swiftCodeFilter.mightContain(unknownCode(i))) {
+                passed++;
+            }
+        }
+        System.out.printf("%nFalse-positive rate: %.4f%n", (double) passed / lookups);
+        for (int i = 0; i < unknownCodes.length; i++) {
+            unknownCodes[i] = unknownCode(ThreadLocalRandom.current().nextInt(rows));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        swiftCodeFilter.shutdown();
+        database.close();
+    }
+
+    @Benchmark
+    public boolean filterUnknownCode() {
+        return swiftCodeFilter.mightContain(randomUnknownCode());
+    }
+
+    @Benchmark
+    public List<SwiftResponseDto> queryUnknownCode() {
+        return swiftRepository.findBySwiftCodeWithBranches(randomUnknownCode());
+    }
+
+    private String randomUnknownCode() {
+        return unknownCodes[ThreadLocalRandom.current().nextInt(unknownCodes.length)];
+    }
+
+    /**
+     * A code of an existing bank and country with a branch suffix the dataset never generates.
+     */
+    private static String unknownCode(int i) {
+        return Dataset.swiftCode(i).substring(0, 8) + String.format("U%02d", i % 100);
+    }
+}
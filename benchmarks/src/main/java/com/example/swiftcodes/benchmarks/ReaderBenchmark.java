@@ -0,0 +1,57 @@
+package com.example.swiftcodes.benchmarks;
+
+import com.example.swiftcodes.importer.DelimitedRowReader;
+import com.example.swiftcodes.importer.ImportFormat;
+import com.example.swiftcodes.importer.XlsxRowReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing cost of the import formats without the database: the rows are only consumed.
+ * Rows per second are {@code rows / score}; run with {@code -prof gc} to see the allocation per file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReaderBenchmark {
+
+    @Param({"100000"})
+    public int rows;
+
+    @Param({"XLSX", "CSV", "TSV"})
+    public ImportFormat format;
+
+    private final XlsxRowReader xlsxRowReader = new XlsxRowReader();
+    private final DelimitedRowReader delimitedRowReader = new DelimitedRowReader();
+    private Path file;
+
+    @Setup
+    public void setUp() throws Exception {
+        file = Dataset.file(rows, format);
+    }
+
+    @Benchmark
+    public void read(Blackhole blackhole) throws Exception {
+        switch (format) {
+            case XLSX -> xlsxRowReader.read(file, blackhole::consume);
+            case CSV -> delimitedRowReader.read(file, ',', blackhole::consume);
+            case TSV -> delimitedRowReader.read(file, '\t', blackhole::consume);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.swiftcodes.benchmarks;
+
+import com.example.swiftcodes.dto.BranchDto;
+import com.example.swiftcodes.dto.SwiftResponseDto;
+import com.example.swiftcodes.repository.SwiftRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the {@link SwiftRepository} queries behind the read endpoints, against an embedded PostgreSQL
+ * or the H2 file of the {@code embedded} profile ({@code storage}), filled with a generated directory of {@code rows}
+ * SWIFT codes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    /**
+     * Size of the bulk lookup, the default limit of a request is 1000 codes.
+     */
+    private static final int BULK_SIZE = 100;
+
+    @Param({"100000"})
+    public int rows;
+
+    @Param({"POSTGRES", "H2"})
+    public BenchmarkDatabase.Storage storage;
+
+    private BenchmarkDatabase database;
+    private SwiftRepository swiftRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.start(storage);
+        database.excelImportService().importExcelData(Dataset.workbook(rows));
+        swiftRepository = database.swiftRepository();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+    }
+
+    @Benchmark
+    public SwiftResponseDto findBySwiftCodeWithCountry() {
+        return swiftRepository.findBySwiftCodeWithCountry(Dataset.swiftCode(randomRow()));
+    }
+
+    @Benchmark
+    public List<BranchDto> findBranchesBySwiftPrefix() {
+        return swiftRepository.findBranchesBySwiftPrefix(Dataset.headquarter(randomRow()));
+    }
+
+    @Benchmark
+    public List<BranchDto> headquarterWithBranchesInTwoQueries() {
+        String headquarter = Dataset.headquarter(randomRow());
+        swiftRepository.findBySwiftCodeWithCountry(headquarter);
+        return swiftRepository.findBranchesBySwiftPrefix(headquarter);
+    }
+
+    @Benchmark
+    public List<SwiftResponseDto> findBySwiftCodeWithBranches() {
+        return swiftRepository.findBySwiftCodeWithBranches(Dataset.headquarter(randomRow()));
+    }
+
+    @Benchmark
+    public List<BranchDto> findSwiftCodesByCountryISO2() {
+        return swiftRepository.findSwiftCodesByCountryISO2(Dataset.country(randomRow()));
+    }
+
+    @Benchmark
+    public List<SwiftResponseDto> findAllBySwiftCodesWithCountry() {
+        List<String> swiftCodes = new ArrayList<>(BULK_SIZE);
+        for (int i = 0; i < BULK_SIZE; i++) {
+            swiftCodes.add(Dataset.swiftCode(randomRow()));
+        }
+        return swiftRepository.findAllBySwiftCodesWithCountry(swiftCodes);
+    }
+
+    private int randomRow() {
+        return ThreadLocalRandom.current().nextInt(rows);
+    }
+}
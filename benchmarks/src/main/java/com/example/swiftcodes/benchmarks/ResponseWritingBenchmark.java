@@ -0,0 +1,93 @@
+package com.example.swiftcodes.benchmarks;
+
+import com.example.swiftcodes.dto.BranchDto;
+import com.example.swiftcodes.dto.SwiftCodeRequestDto;
+import com.example.swiftcodes.dto.SwiftResponseDto;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request work of the JSON endpoints: writing a lookup response that is serialized on every request
+ * versus writing its cached bytes, and parsing an add request with a new mapper versus a shared reader.
+ * Run with {@code -prof gc} to compare the garbage per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseWritingBenchmark {
+
+    private static final String ADD_REQUEST = """
+            {"address": "STREET 1", "bankName": "BANK 0", "countryISO2": "AD", "countryName": "ANDORRA",
+             "isHeadquarter": false, "swiftCode": "AAAAADAA001"}""";
+
+    @Param({"0", "10", "1000"})
+    public int branches;
+
+    // Reused like the response buffer of the servlet container, so the copy of the bytes is measured as well
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 20);
+    private ObjectMapper objectMapper;
+    private ObjectReader requestReader;
+    private SwiftResponseDto response;
+    private byte[] cachedResponse;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        requestReader = objectMapper.readerFor(SwiftCodeRequestDto.class)
+                .with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        List<BranchDto> branchList = new ArrayList<>(branches);
+        for (int i = 1; i <= branches; i++) {
+            branchList.add(new BranchDto(Dataset.swiftCode(i), "BANK 0", "STREET " + i + ", TOWN " + i,
+                    Dataset.country(0), false));
+        }
+        response = new SwiftResponseDto(Dataset.swiftCode(0), "BANK 0", "STREET 0, TOWN 0",
+                Dataset.country(0), "ANDORRA", true, branchList);
+        cachedResponse = objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public void writeSerializedResponse() throws IOException {
+        out.reset();
+        objectMapper.writeValue(out, response);
+    }
+
+    @Benchmark
+    public void writeCachedResponse() throws IOException {
+        out.reset();
+        out.write(cachedResponse);
+    }
+
+    @Benchmark
+    public SwiftCodeRequestDto parseRequestWithNewMapper() throws IOException {
+        return new ObjectMapper().readValue(ADD_REQUEST, SwiftCodeRequestDto.class);
+    }
+
+    @Benchmark
+    public SwiftCodeRequestDto parseRequestWithSharedReader() throws IOException {
+        return requestReader.readValue(ADD_REQUEST);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.swiftcodes.benchmarks;
+
+import com.example.swiftcodes.cache.SwiftSearchIndex;
+import com.example.swiftcodes.config.SwiftProperties;
+import com.example.swiftcodes.dto.SwiftSearchResultDto;
+import com.example.swiftcodes.importer.ImportFormat;
+import com.example.swiftcodes.importer.ImportProgress;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search by bank name and town on a generated directory of {@code rows} SWIFT codes: the in-memory
+ * {@link SwiftSearchIndex} vs. the {@code ILIKE} scan it replaces.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    private static final int LIMIT = 20;
+
+    @Param({"100000"})
+    public int rows;
+
+    private BenchmarkDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private SwiftSearchIndex searchIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.start();
+        database.excelImportService().importData(Dataset.file(rows, ImportFormat.CSV), ImportFormat.CSV, new ImportProgress());
+        jdbcTemplate = database.jdbcTemplate();
+        searchIndex = new SwiftSearchIndex(jdbcTemplate, new SwiftProperties());
+        searchIndex.reload();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+    }
+
+    /**
+     * A bank name and a town, e.g. {@code "bank 1234 town 56"}.
+     */
+    @Benchmark
+    public List<SwiftSearchResultDto> indexBankAndTown() {
+        return searchIndex.search(bankAndTown(), null, LIMIT);
+    }
+
+    /**
+     * The start of a word matching about a tenth of the directory, ranked and cut to the limit.
+     */
+    @Benchmark
+    public List<SwiftSearchResultDto> indexCommonPrefix() {
+        return searchIndex.search("town " + ThreadLocalRandom.current().nextInt(1, 10), null, LIMIT);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> likeBankAndTown() {
+        int row = ThreadLocalRandom.current().nextInt(rows);
+        return jdbcTemplate.queryForList("SELECT swift_code, bank_name, address, town_name, iso2code, is_headquarter"
+                        + " FROM swift_model WHERE bank_name ILIKE ? AND town_name ILIKE ? LIMIT " + LIMIT,
+                "%BANK " + row / Dataset.BRANCHES_PER_BANK + "%", "%TOWN " + row % 1000 + "%");
+    }
+
+    private String bankAndTown() {
+        int row = ThreadLocalRandom.current().nextInt(rows);
+        return "bank " + row / Dataset.BRANCHES_PER_BANK + " town " + row % 1000;
+    }
+}
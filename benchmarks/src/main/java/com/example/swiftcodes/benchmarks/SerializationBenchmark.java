@@ -0,0 +1,68 @@
+package com.example.swiftcodes.benchmarks;
+
+import com.example.swiftcodes.dto.BranchDto;
+import com.example.swiftcodes.dto.CountrySwiftResponseDto;
+import com.example.swiftcodes.dto.SwiftResponseDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the responses with large branch lists, using the same mapper configuration
+ * as Spring MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int branches;
+
+    private ObjectMapper objectMapper;
+    private SwiftResponseDto headquarter;
+    private CountrySwiftResponseDto country;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<BranchDto> branchList = new ArrayList<>(branches);
+        for (int i = 1; i <= branches; i++) {
+            branchList.add(new BranchDto(Dataset.swiftCode(i), "BANK 0", "STREET " + i + ", TOWN " + i,
+                    Dataset.country(0), false));
+        }
+        headquarter = new SwiftResponseDto(Dataset.swiftCode(0), "BANK 0", "STREET 0, TOWN 0",
+                Dataset.country(0), "ANDORRA", true, branchList);
+        country = new CountrySwiftResponseDto(Dataset.country(0), "ANDORRA", branchList);
+    }
+
+    @Benchmark
+    public byte[] serializeHeadquarter() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(headquarter);
+    }
+
+    @Benchmark
+    public byte[] serializeCountry() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(country);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.swiftcodes.benchmarks;
+
+import com.example.swiftcodes.dto.BranchDto;
+import com.example.swiftcodes.dto.SwiftResponseDto;
+import com.example.swiftcodes.snapshot.SwiftSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups and country pages from a {@link SwiftSnapshot} of {@code rows} generated SWIFT codes, materialized from its
+ * off-heap records. The setup prints the memory of the snapshot next to the heap taken by the same rows as DTOs
+ * in a map, the smallest heap representation of the directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g", "-XX:MaxDirectMemorySize=2g"})
+public class SnapshotBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"1000000"})
+    public int rows;
+
+    private SwiftSnapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, String> countryNames = new HashMap<>();
+        for (int i = 0; i < Dataset.COUNTRY_COUNT * Dataset.BRANCHES_PER_BANK; i += Dataset.BRANCHES_PER_BANK) {
+            String country = Dataset.country(i);
+            countryNames.put(country, new Locale("", country).getDisplayCountry(Locale.ENGLISH).toUpperCase(Locale.ROOT));
+        }
+
+        long empty = usedHeap();
+        List<BranchDto> codes = generate(rows);
+        Map<String, BranchDto> byCode = new HashMap<>();
+        codes.forEach(code -> byCode.put(code.getSwiftCode(), code));
+        codes = null;
+        long heapMap = usedHeap() - empty;
+        byCode.clear();
+
+        long beforeSnapshot = usedHeap();
+        snapshot = SwiftSnapshot.of(generate(rows), countryNames);
+        long snapshotHeap = usedHeap() - beforeSnapshot;
+        System.out.printf("%nDTOs in a HashMap: %d MB of heap; snapshot: %d MB off-heap, %d MB of heap%n",
+                heapMap >> 20, snapshot.offHeapBytes() >> 20, snapshotHeap >> 20);
+    }
+
+    @Benchmark
+    public SwiftResponseDto findHeadquarterWithBranches() {
+        return snapshot.findSwiftDetails(Dataset.headquarter(randomRow()));
+    }
+
+    @Benchmark
+    public SwiftResponseDto findBranch() {
+        return snapshot.findSwiftDetails(Dataset.swiftCode(randomRow()));
+    }
+
+    @Benchmark
+    public void readCountryPage(Blackhole blackhole) {
+        // Reading the page materializes its codes, as writing the response does
+        for (BranchDto code : snapshot.findPageByCountry(Dataset.country(randomRow()), Dataset.swiftCode(randomRow()), PAGE_SIZE)) {
+            blackhole.consume(code);
+        }
+    }
+
+    private int randomRow() {
+        return ThreadLocalRandom.current().nextInt(rows);
+    }
+
+    /**
+     * Rows as they come from the database: every value is a separate string.
+     */
+    private static List<BranchDto> generate(int rows) {
+        List<BranchDto> codes = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++) {
+            String swiftCode = Dataset.swiftCode(row);
+            codes.add(new BranchDto(swiftCode, "BANK " + (row / Dataset.BRANCHES_PER_BANK),
+                    "STREET " + row + ", TOWN " + (row % 1000), new String(Dataset.country(row)),
+                    swiftCode.equals(Dataset.headquarter(row))));
+        }
+        return codes;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
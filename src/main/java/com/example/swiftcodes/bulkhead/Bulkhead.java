@@ -0,0 +1,22 @@
+package com.example.swiftcodes.bulkhead;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a controller method whose requests are counted against the concurrency limit of an endpoint group
+ * by the {@link BulkheadInterceptor}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+
+    /**
+     * @return the group whose limit the requests share
+     */
+    EndpointGroup value();
+}
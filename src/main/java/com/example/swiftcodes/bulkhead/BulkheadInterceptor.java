@@ -0,0 +1,96 @@
+package com.example.swiftcodes.bulkhead;
+
+import com.example.swiftcodes.config.SwiftProperties;
+import com.example.swiftcodes.dto.MessageResponse;
+import com.example.swiftcodes.metrics.SwiftMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Limits the concurrent requests of the controller methods marked with {@link Bulkhead}, each endpoint group to its
+ * own {@code swift.bulkhead.*} limit. A request that finds no free slot within the configured wait is answered with
+ * 429 before the controller method runs, so an upload is rejected before its file is received.
+ *
+ * <p>The slot is held until the response is complete, including the asynchronous writing of a streamed response,
+ * and released in {@link #afterCompletion}.</p>
+ */
+@Component
+public class BulkheadInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkheadInterceptor.class);
+
+    // The bulkhead whose slot the request holds; request attributes are kept across the dispatches of a request
+    private static final String SLOT_ATTRIBUTE = BulkheadInterceptor.class.getName() + ".slot";
+
+    private final Map<EndpointGroup, EndpointBulkhead> bulkheads = new EnumMap<>(EndpointGroup.class);
+    private final SwiftMetrics metrics;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructor for BulkheadInterceptor.
+     *
+     * @param properties   the application settings, providing the limit of every endpoint group
+     * @param metrics      the metrics, publishing the occupancy, waits and rejections of every group
+     * @param objectMapper the JSON mapper writing the rejection message
+     */
+    public BulkheadInterceptor(SwiftProperties properties, SwiftMetrics metrics, ObjectMapper objectMapper) {
+        this.metrics = metrics;
+        this.objectMapper = objectMapper;
+        SwiftProperties.Bulkhead settings = properties.getBulkhead();
+        if (settings.isEnabled()) {
+            for (EndpointGroup group : EndpointGroup.values()) {
+                EndpointBulkhead bulkhead = new EndpointBulkhead(group.limit(settings));
+                bulkheads.put(group, bulkhead);
+                metrics.registerBulkhead(group.getTag(), bulkhead);
+            }
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        // A streamed response is dispatched again once written, still holding the slot taken by the first dispatch
+        if (!(handler instanceof HandlerMethod method) || request.getAttribute(SLOT_ATTRIBUTE) != null) {
+            return true;
+        }
+        Bulkhead annotation = method.getMethodAnnotation(Bulkhead.class);
+        EndpointBulkhead bulkhead = annotation != null ? bulkheads.get(annotation.value()) : null;
+        if (bulkhead == null) {
+            return true;
+        }
+        String group = annotation.value().getTag();
+        long start = System.nanoTime();
+        if (bulkhead.tryAcquire()) {
+            metrics.bulkheadAdmitted(group, System.nanoTime() - start);
+            request.setAttribute(SLOT_ATTRIBUTE, bulkhead);
+            return true;
+        }
+        metrics.bulkheadRejected(group);
+        logger.debug("Rejected {} {}: all {} slots of the {} group are taken",
+                request.getMethod(), request.getRequestURI(), bulkhead.getMaxConcurrent(), group);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new MessageResponse("Too many concurrent requests, try again later."));
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(SLOT_ATTRIBUTE) instanceof EndpointBulkhead bulkhead) {
+            request.removeAttribute(SLOT_ATTRIBUTE);
+            bulkhead.release();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.swiftcodes.bulkhead;
+
+import com.example.swiftcodes.config.SwiftProperties;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit of one endpoint group: a fixed number of slots, and a bounded number of requests that may wait
+ * a limited time for one. Waiting requests are served in arrival order.
+ */
+public class EndpointBulkhead {
+
+    private final int maxConcurrent;
+    private final long maxWaitNanos;
+    private final int maxWaiting;
+    private final Semaphore slots;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    /**
+     * Constructor for EndpointBulkhead.
+     *
+     * @param limit the number of slots, the longest wait and the number of waiting requests
+     */
+    public EndpointBulkhead(SwiftProperties.Limit limit) {
+        if (limit.getMaxConcurrent() < 1) {
+            throw new IllegalArgumentException("Bulkhead needs at least one slot, got " + limit.getMaxConcurrent());
+        }
+        this.maxConcurrent = limit.getMaxConcurrent();
+        this.maxWaitNanos = Math.max(limit.getMaxWait().toNanos(), 0);
+        this.maxWaiting = Math.max(limit.getMaxWaiting(), 0);
+        this.slots = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Takes a slot, waiting for one if all are taken and fewer than the maximum number of requests are already waiting.
+     * A successful call must be followed by {@link #release()}.
+     *
+     * @return {@code true} if a slot was taken, {@code false} if the request has to be rejected
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        // Unlike tryAcquire(), the timed variant does not take a slot ahead of the waiting requests
+        if (slots.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+            return true;
+        }
+        if (maxWaitNanos == 0) {
+            return false;
+        }
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            return false;
+        }
+        try {
+            return slots.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    /**
+     * Frees a slot taken by {@link #tryAcquire()}.
+     */
+    public void release() {
+        slots.release();
+    }
+
+    /**
+     * @return the maximum number of requests handled at the same time
+     */
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * @return the number of requests being handled
+     */
+    public int getActive() {
+        return maxConcurrent - slots.availablePermits();
+    }
+
+    /**
+     * @return the number of requests waiting for a slot
+     */
+    public int getWaiting() {
+        return waiting.get();
+    }
+}
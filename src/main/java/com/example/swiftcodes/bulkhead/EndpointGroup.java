@@ -0,0 +1,44 @@
+package com.example.swiftcodes.bulkhead;
+
+import com.example.swiftcodes.config.SwiftProperties;
+
+import java.util.function.Function;
+
+/**
+ * Groups of endpoints that get their own concurrency limit, so that a burst of one kind of request cannot take the
+ * server threads and database connections needed by the others.
+ */
+public enum EndpointGroup {
+
+    IMPORTS("imports", SwiftProperties.Bulkhead::getImports),
+    EXPORTS("exports", SwiftProperties.Bulkhead::getExports),
+    COUNTRY("country", SwiftProperties.Bulkhead::getCountry),
+    BULK_LOOKUPS("bulk-lookups", SwiftProperties.Bulkhead::getBulkLookups),
+    SEARCH("search", SwiftProperties.Bulkhead::getSearch),
+    LOOKUPS("lookups", SwiftProperties.Bulkhead::getLookups);
+
+    private final String tag;
+    private final Function<SwiftProperties.Bulkhead, SwiftProperties.Limit> limit;
+
+    EndpointGroup(String tag, Function<SwiftProperties.Bulkhead, SwiftProperties.Limit> limit) {
+        this.tag = tag;
+        this.limit = limit;
+    }
+
+    /**
+     * @return the name of the group in the metric tags, as in the {@code swift.bulkhead.*} properties
+     */
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * Reads the limit of the group.
+     *
+     * @param settings the bulkhead settings
+     * @return the limit configured for the group
+     */
+    public SwiftProperties.Limit limit(SwiftProperties.Bulkhead settings) {
+        return limit.apply(settings);
+    }
+}
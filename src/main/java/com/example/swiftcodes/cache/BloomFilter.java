@@ -0,0 +1,106 @@
+package com.example.swiftcodes.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of strings: answers whether a value may have been added, with no false negatives and a false-positive
+ * rate chosen when the filter is created. Values can be added concurrently with lookups.
+ *
+ * <p>The {@code k} bit positions of a value are derived from one 64-bit FNV-1a hash with double hashing
+ * ({@code h1 + i * h2}), so a lookup reads the value once.</p>
+ */
+public final class BloomFilter {
+
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * Creates a filter sized for the given number of values.
+     *
+     * @param expectedValues    the number of values the filter is sized for; adding more raises the false-positive rate
+     * @param falsePositiveRate the wanted probability that a value never added is reported as present, e.g. 0.01
+     */
+    public BloomFilter(long expectedValues, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False-positive rate must be between 0 and 1: " + falsePositiveRate);
+        }
+        long values = Math.max(1, expectedValues);
+        long bits = Math.max(64, (long) Math.ceil(-values * Math.log(falsePositiveRate) / (LN2 * LN2)));
+        this.words = new AtomicLongArray(Math.toIntExact((bits + 63) / 64));
+        this.bitCount = words.length() * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / values * LN2));
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value the value
+     */
+    public void add(String value) {
+        long hash = hash(value);
+        long h1 = hash;
+        long h2 = hash >>> 32 | hash << 32;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    /**
+     * Tells whether a value may have been added.
+     *
+     * @param value the value
+     * @return {@code false} if the value was certainly never added
+     */
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        long h1 = hash;
+        long h2 = hash >>> 32 | hash << 32;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & 1L << bit) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the size of the filter.
+     *
+     * @return the number of bits
+     */
+    public long bitCount() {
+        return bitCount;
+    }
+
+    /**
+     * Returns the number of bits set per value.
+     *
+     * @return the number of hash functions
+     */
+    public int hashCount() {
+        return hashCount;
+    }
+
+    private static long hash(String value) {
+        long hash = OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * PRIME;
+        }
+        // FNV-1a mixes the last characters poorly into the high bits, which h2 is taken from
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        return hash ^ hash >>> 33;
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.swiftcodes.cache;
+
+import com.example.swiftcodes.config.SwiftProperties;
+import com.example.swiftcodes.dto.BranchDto;
+import com.example.swiftcodes.dto.CountrySwiftResponseDto;
+import com.example.swiftcodes.event.SwiftDataChangedEvent;
+import com.example.swiftcodes.repository.SwiftCursorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of the SWIFT codes of every country, keyed by ISO2 code ({@code swift.country.index-enabled}).
+ *
+ * <p>Every country is an immutable bucket holding its name and its codes sorted by SWIFT code. The codes are sorted
+ * in Java, in the order used by the lookups, and not by the database, whose collation may order them differently.
+ * The index is loaded once at startup, through a cursor; after a {@link SwiftDataChangedEvent} only the buckets of the affected countries are reloaded
+ * from the database and swapped in, so readers never take a lock and never see a half-updated country.</p>
+ */
+@Component
+public class CountryIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CountryIndex.class);
+
+    private static final String SELECT_SWIFT_CODES =
+            "SELECT swift_code, bank_name, address, iso2code, is_headquarter FROM swift_model";
+
+    private static final RowMapper<BranchDto> BRANCH_MAPPER = (rs, rowNum) -> new BranchDto(
+            rs.getString("swift_code"), rs.getString("bank_name"), rs.getString("address"),
+            rs.getString("iso2code"), rs.getBoolean("is_headquarter"));
+
+    private static final Comparator<BranchDto> BY_SWIFT_CODE = Comparator.comparing(BranchDto::getSwiftCode);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SwiftCursorRepository swiftCursorRepository;
+    private final boolean enabled;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    /**
+     * The name and the sorted SWIFT codes of one country.
+     *
+     * @param name       the country name
+     * @param swiftCodes the SWIFT codes of the country, sorted by SWIFT code
+     */
+    private record Bucket(String name, BranchDto[] swiftCodes) {
+    }
+
+    /**
+     * Constructor for CountryIndex.
+     *
+     * @param jdbcTemplate          the JdbcTemplate used to reload single countries
+     * @param swiftCursorRepository the cursor reads used to load the whole index
+     * @param properties            the application settings, telling whether the index is enabled
+     */
+    public CountryIndex(JdbcTemplate jdbcTemplate, SwiftCursorRepository swiftCursorRepository, SwiftProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.swiftCursorRepository = swiftCursorRepository;
+        this.enabled = properties.getCountry().isIndexEnabled() && !properties.getSnapshot().isEnabled();
+    }
+
+    /**
+     * Tells whether the index is loaded and can answer country listings.
+     *
+     * @return {@code true} once the index has been loaded
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Returns all SWIFT codes of a country.
+     *
+     * @param countryISO2 the ISO2 code of the country
+     * @return the country with its SWIFT codes, or {@code null} if the country does not exist
+     */
+    public CountrySwiftResponseDto findByCountry(String countryISO2) {
+        Bucket bucket = buckets.get(countryISO2);
+        return bucket == null ? null
+                : new CountrySwiftResponseDto(countryISO2, bucket.name(), Collections.unmodifiableList(Arrays.asList(bucket.swiftCodes())));
+    }
+
+    /**
+     * Returns the name of a country.
+     *
+     * @param countryISO2 the ISO2 code of the country
+     * @return the country name, or {@code null} if the country does not exist
+     */
+    public String findCountryName(String countryISO2) {
+        Bucket bucket = buckets.get(countryISO2);
+        return bucket == null ? null : bucket.name();
+    }
+
+    /**
+     * Returns up to {@code limit} SWIFT codes of a country following the given code, in SWIFT code order.
+     *
+     * @param countryISO2 the ISO2 code of the country
+     * @param after       the SWIFT code after which the page starts, {@code null} for the first page
+     * @param limit       the maximum number of codes
+     * @return the codes of the page, or {@code null} if the country does not exist
+     */
+    public List<BranchDto> findPageByCountry(String countryISO2, String after, int limit) {
+        Bucket bucket = buckets.get(countryISO2);
+        if (bucket == null) {
+            return null;
+        }
+        BranchDto[] swiftCodes = bucket.swiftCodes();
+        int from = after == null ? 0 : indexAfter(swiftCodes, after);
+        int to = (int) Math.min(swiftCodes.length, (long) from + limit);
+        return Collections.unmodifiableList(Arrays.asList(swiftCodes).subList(from, to));
+    }
+
+    /**
+     * Loads the index once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    /**
+     * Reloads the buckets of the countries affected by a data change.
+     * The countries of changed SWIFT codes are the ones currently holding them and the ones the database now assigns to them.
+     *
+     * @param event the event describing the change
+     */
+    @EventListener
+    @Order(0) // Before DatasetVersion, see its description
+    public synchronized void onDataChanged(SwiftDataChangedEvent event) {
+        if (!loaded) {
+            return;
+        }
+        if (event.isFullRefresh() && event.getCountryISO2Codes().isEmpty()) {
+            reload();
+            return;
+        }
+
+        Set<String> countries = new HashSet<>(event.getCountryISO2Codes());
+        if (!event.getSwiftCodes().isEmpty()) {
+            for (Map.Entry<String, Bucket> entry : buckets.entrySet()) {
+                BranchDto[] swiftCodes = entry.getValue().swiftCodes();
+                for (String swiftCode : event.getSwiftCodes()) {
+                    if (Arrays.binarySearch(swiftCodes, probe(swiftCode), BY_SWIFT_CODE) >= 0) {
+                        countries.add(entry.getKey());
+                    }
+                }
+            }
+            String placeholders = String.join(", ", Collections.nCopies(event.getSwiftCodes().size(), "?"));
+            countries.addAll(jdbcTemplate.query("SELECT DISTINCT iso2code FROM swift_model WHERE swift_code IN (" + placeholders + ")",
+                    (rs, rowNum) -> rs.getString("iso2code"), event.getSwiftCodes().toArray()));
+        }
+        countries.forEach(this::reloadCountry);
+    }
+
+    /**
+     * Loads the whole index from the database and replaces all buckets.
+     */
+    public synchronized void reload() {
+        long start = System.nanoTime();
+        Map<String, List<BranchDto>> codesByCountry = new HashMap<>();
+        // Rows are fetched in chunks through a cursor instead of being buffered all at once by the driver
+        swiftCursorRepository.forEachRow(SELECT_SWIFT_CODES, rs -> {
+            BranchDto swiftCode = BRANCH_MAPPER.mapRow(rs, 0);
+            codesByCountry.computeIfAbsent(swiftCode.getCountryISO2(), iso2 -> new ArrayList<>()).add(swiftCode);
+        });
+        Map<String, Bucket> loadedBuckets = new HashMap<>();
+        for (Map.Entry<String, String> country : jdbcTemplate.query("SELECT iso2code, name FROM country_model",
+                (rs, rowNum) -> Map.entry(rs.getString("iso2code"), rs.getString("name")))) {
+            loadedBuckets.put(country.getKey(), bucket(country.getValue(), codesByCountry.getOrDefault(country.getKey(), List.of())));
+        }
+        buckets.keySet().retainAll(loadedBuckets.keySet());
+        buckets.putAll(loadedBuckets);
+        loaded = true;
+        logger.info("Loaded country index of {} countries in {} ms", loadedBuckets.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Reloads the bucket of a single country, removing it if the country no longer exists.
+     *
+     * @param countryISO2 the ISO2 code of the country
+     */
+    private void reloadCountry(String countryISO2) {
+        List<String> names = jdbcTemplate.query("SELECT name FROM country_model WHERE iso2code = ?",
+                (rs, rowNum) -> rs.getString("name"), countryISO2);
+        if (names.isEmpty()) {
+            buckets.remove(countryISO2);
+            return;
+        }
+        List<BranchDto> swiftCodes = jdbcTemplate.query(SELECT_SWIFT_CODES + " WHERE iso2code = ?", BRANCH_MAPPER, countryISO2);
+        buckets.put(countryISO2, bucket(names.get(0), swiftCodes));
+    }
+
+    /**
+     * Builds the bucket of a country, sorting its codes with the comparator the binary searches use.
+     *
+     * @param name       the country name
+     * @param swiftCodes the SWIFT codes of the country, in any order
+     * @return the bucket
+     */
+    private static Bucket bucket(String name, List<BranchDto> swiftCodes) {
+        BranchDto[] sorted = swiftCodes.toArray(BranchDto[]::new);
+        Arrays.sort(sorted, BY_SWIFT_CODE);
+        return new Bucket(name, sorted);
+    }
+
+    private static int indexAfter(BranchDto[] swiftCodes, String after) {
+        int index = Arrays.binarySearch(swiftCodes, probe(after), BY_SWIFT_CODE);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private static BranchDto probe(String swiftCode) {
+        BranchDto probe = new BranchDto();
+        probe.setSwiftCode(swiftCode);
+        return probe;
+    }
+}
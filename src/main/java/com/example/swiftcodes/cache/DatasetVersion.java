@@ -0,0 +1,117 @@
+package com.example.swiftcodes.cache;
+
+import com.example.swiftcodes.event.SwiftDataChangedEvent;
+import com.example.swiftcodes.model.SwiftModel;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Monotonically increasing versions of the SWIFT code data, used as the entity tags of the read endpoints.
+ *
+ * <p>The versions start at the startup time in milliseconds, so tags issued before a restart do not match,
+ * and are incremented on {@link SwiftDataChangedEvent}s. The listener runs after the listeners refreshing
+ * in-memory data, so a request that sees a new version never gets a response built from the old data.</p>
+ *
+ * <p>The details of a SWIFT code are tagged with the version of its bank, incremented when a code of the bank is
+ * added or deleted, and the version of full refreshes, so they are not invalidated by changes to other banks.
+ * Bank codes are hashed into a fixed number of stripes; two banks sharing a stripe only invalidate each other.
+ * The country listings share the version of the whole data set: an add or delete event only carries the SWIFT
+ * code, and its country is only known after a query.</p>
+ */
+@Component
+public class DatasetVersion {
+
+    private static final int BANK_STRIPES = 4096;
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+    private final AtomicLong refreshVersion = new AtomicLong(System.currentTimeMillis());
+    private final AtomicLongArray bankVersions = new AtomicLongArray(BANK_STRIPES);
+
+    /**
+     * Returns the current version.
+     *
+     * @return the version of the data
+     */
+    public long get() {
+        return version.get();
+    }
+
+    /**
+     * Returns the strong entity tag of the current version for the listing of a country.
+     * The country is part of the tag, so a tag issued for one country never matches the listing of another.
+     *
+     * @param countryISO2 the ISO2 code of the listed country
+     * @return the quoted country and version, e.g. {@code "PL-1712345678901"}
+     */
+    public String etag(String countryISO2) {
+        return "\"" + countryISO2.toUpperCase(Locale.ROOT) + "-" + version.get() + "\"";
+    }
+
+    /**
+     * Returns the strong entity tag of the current details of a SWIFT code, without reading them.
+     * The code is part of the tag, so a tag issued for one code never matches the details of another.
+     *
+     * @param swiftCode the SWIFT code
+     * @return the quoted code, version of full refreshes and version of its bank, e.g. {@code "PKOPPLPWXXX-1712345678901.3"}
+     */
+    public String detailsEtag(String swiftCode) {
+        long refresh = refreshVersion.get();
+        return "\"" + swiftCode + "-" + refresh + "." + bankVersions.get(stripe(swiftCode)) + "\"";
+    }
+
+    /**
+     * Checks whether an {@code If-None-Match} header matches the current entity tag.
+     * The header may list several tags and weak tags are compared by their value, as required for {@code GET}.
+     * A {@code *} only matches if the resource exists, so a request for an unknown resource still gets its 404.
+     *
+     * @param ifNoneMatch the value of the header, or {@code null} if the request does not have it
+     * @param etag        the current entity tag
+     * @param exists      checks whether the resource exists, only called for a {@code *}
+     * @return {@code true} if the client already has the current representation
+     */
+    public static boolean matches(String ifNoneMatch, String etag, BooleanSupplier exists) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        boolean any = false;
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+            any |= tag.equals("*");
+        }
+        return any && exists.getAsBoolean();
+    }
+
+    /**
+     * Increments the version after a data change.
+     *
+     * @param event the event describing the change
+     */
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onDataChanged(SwiftDataChangedEvent event) {
+        if (event.isFullRefresh()) {
+            refreshVersion.incrementAndGet();
+        } else {
+            event.getSwiftCodes().forEach(swiftCode -> bankVersions.incrementAndGet(stripe(swiftCode)));
+        }
+        version.incrementAndGet();
+    }
+
+    private static int stripe(String swiftCode) {
+        String bankCode = SwiftModel.bankCodeOf(swiftCode.toUpperCase(Locale.ROOT));
+        return Math.floorMod(bankCode.hashCode(), BANK_STRIPES);
+    }
+}
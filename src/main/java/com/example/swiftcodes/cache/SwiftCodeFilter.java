@@ -0,0 +1,243 @@
+package com.example.swiftcodes.cache;
+
+import com.example.swiftcodes.config.SwiftProperties;
+import com.example.swiftcodes.event.SwiftDataChangedEvent;
+import com.example.swiftcodes.event.SwiftImportEvent;
+import com.example.swiftcodes.metrics.SwiftMetrics;
+import com.example.swiftcodes.repository.SwiftCursorRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bloom filter of all stored SWIFT codes, answering lookups of unknown codes without a database query
+ * ({@code swift.lookup.filter-enabled}).
+ *
+ * <p>The filter is built at startup. Added codes are put into it right away; deleted codes stay in it, which only
+ * costs a database query for them, until the filter is rebuilt every {@code swift.lookup.filter-rebuild-interval}.
+ * An import commits its rows batch by batch, so the filter is suspended from the start of the import until it is
+ * rebuilt after the last running import has ended: meanwhile every code is reported as possibly present, and a
+ * newly imported code is never rejected. A filter holding more codes than it was sized for is rebuilt early.</p>
+ */
+@Component
+public class SwiftCodeFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SwiftCodeFilter.class);
+
+    // Room for codes added between two rebuilds
+    private static final double HEADROOM = 1.25;
+    private static final long MIN_CAPACITY = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SwiftCursorRepository swiftCursorRepository;
+    private final SwiftMetrics metrics;
+    private final boolean enabled;
+    private final double falsePositiveRate;
+    private final Duration rebuildInterval;
+    private final ScheduledExecutorService scheduler;
+    private final Object rebuildLock = new Object();
+
+    private volatile BloomFilter filter;
+    // Guarded by this: free capacity of the filter, and codes added while a rebuild is scanning the table
+    private long remainingCapacity;
+    private List<String> addedDuringRebuild;
+    // Guarded by this: imports writing rows, during which no filter is used, and the number of imports ever started
+    private int runningImports;
+    private long startedImports;
+
+    /**
+     * Constructor for SwiftCodeFilter.
+     *
+     * @param jdbcTemplate          the JdbcTemplate used to count the SWIFT codes
+     * @param swiftCursorRepository the cursor reads used to read all SWIFT codes
+     * @param properties            the application settings, providing the false-positive rate and the rebuild interval
+     * @param metrics               the metrics, counting the lookups answered by the filter
+     */
+    public SwiftCodeFilter(JdbcTemplate jdbcTemplate, SwiftCursorRepository swiftCursorRepository,
+                           SwiftProperties properties, SwiftMetrics metrics) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.swiftCursorRepository = swiftCursorRepository;
+        this.metrics = metrics;
+        SwiftProperties.Lookup settings = properties.getLookup();
+        // The snapshot serving mode never queries the database for a lookup
+        this.enabled = settings.isFilterEnabled() && !properties.getSnapshot().isEnabled();
+        this.falsePositiveRate = settings.getFilterFalsePositiveRate();
+        this.rebuildInterval = settings.getFilterRebuildInterval();
+        this.scheduler = enabled ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "swift-code-filter");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    /**
+     * Tells whether a SWIFT code may exist. Answers {@code true} while the filter is disabled or being replaced.
+     *
+     * @param swiftCode the SWIFT code
+     * @return {@code false} if the code certainly does not exist
+     */
+    public boolean mightContain(String swiftCode) {
+        BloomFilter current = filter;
+        if (current == null || current.mightContain(swiftCode)) {
+            return true;
+        }
+        metrics.lookupFiltered();
+        return false;
+    }
+
+    /**
+     * Builds the filter once the application has started and schedules its periodic rebuild.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        rebuild();
+        if (!rebuildInterval.isZero() && !rebuildInterval.isNegative()) {
+            scheduler.scheduleWithFixedDelay(this::rebuildQuietly, rebuildInterval.toMillis(), rebuildInterval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Adds the changed SWIFT codes to the filter, or rebuilds it after an import.
+     *
+     * @param event the event describing the change
+     */
+    @EventListener
+    @Order(0) // Before DatasetVersion, see its description
+    public void onDataChanged(SwiftDataChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.isFullRefresh()) {
+            boolean importing;
+            synchronized (this) {
+                filter = null;
+                importing = runningImports > 0;
+            }
+            // Rebuilt once the last running import has ended
+            if (!importing) {
+                rebuild();
+            }
+            return;
+        }
+        boolean full;
+        synchronized (this) {
+            BloomFilter current = filter;
+            for (String swiftCode : event.getSwiftCodes()) {
+                if (current != null) {
+                    current.add(swiftCode);
+                }
+                if (addedDuringRebuild != null) {
+                    addedDuringRebuild.add(swiftCode);
+                }
+            }
+            remainingCapacity -= event.getSwiftCodes().size();
+            full = current != null && remainingCapacity < 0;
+        }
+        if (full) {
+            scheduler.execute(this::rebuildQuietly);
+        }
+    }
+
+    /**
+     * Suspends the filter while an import is writing rows, and rebuilds it once the last running import has ended.
+     *
+     * @param event the start or end of an import
+     */
+    @EventListener
+    public void onImport(SwiftImportEvent event) {
+        if (!enabled) {
+            return;
+        }
+        boolean ended;
+        synchronized (this) {
+            if (event.isStarted()) {
+                runningImports++;
+                startedImports++;
+                filter = null;
+                return;
+            }
+            runningImports--;
+            ended = runningImports == 0;
+        }
+        if (ended) {
+            rebuildQuietly();
+        }
+    }
+
+    /**
+     * Reads all SWIFT codes from the database into a new filter and replaces the current one.
+     * Lookups keep using the current filter while the table is read. A filter read while an import was running
+     * may miss rows committed after the read, so it is discarded; the end of the import triggers another rebuild.
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long start = System.nanoTime();
+            long importsBeforeRead;
+            synchronized (this) {
+                addedDuringRebuild = new ArrayList<>();
+                importsBeforeRead = startedImports;
+            }
+            BloomFilter rebuilt;
+            long codes;
+            try {
+                Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM swift_model", Long.class);
+                codes = count != null ? count : 0;
+                long capacity = Math.max(MIN_CAPACITY, (long) (codes * HEADROOM));
+                rebuilt = new BloomFilter(capacity, falsePositiveRate);
+                // Codes are fetched in chunks through a cursor instead of being buffered all at once by the driver
+                swiftCursorRepository.forEachRow("SELECT swift_code FROM swift_model",
+                        rs -> rebuilt.add(rs.getString("swift_code")));
+                synchronized (this) {
+                    if (runningImports > 0 || startedImports != importsBeforeRead) {
+                        logger.info("SWIFT code filter not replaced, an import ran while the codes were read");
+                        return;
+                    }
+                    addedDuringRebuild.forEach(rebuilt::add);
+                    remainingCapacity = capacity - codes - addedDuringRebuild.size();
+                    filter = rebuilt;
+                }
+            } finally {
+                synchronized (this) {
+                    addedDuringRebuild = null;
+                }
+            }
+            logger.info("Built SWIFT code filter of {} codes ({} KB, {} hashes) in {} ms", codes, rebuilt.bitCount() / 8 / 1024,
+                    rebuilt.hashCount(), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * Stops the periodic rebuild when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // The current filter stays in use until the next attempt
+            logger.error("Rebuilding the SWIFT code filter failed: {}", e.getMessage(), e);
+        }
+    }
+}
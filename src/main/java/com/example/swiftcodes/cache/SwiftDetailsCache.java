@@ -0,0 +1,220 @@
+package com.example.swiftcodes.cache;
+
+import com.example.swiftcodes.config.SwiftProperties;
+import com.example.swiftcodes.dto.BranchDto;
+import com.example.swiftcodes.dto.CacheStatsDto;
+import com.example.swiftcodes.dto.SwiftResponseDto;
+import com.example.swiftcodes.event.SwiftDataChangedEvent;
+import com.example.swiftcodes.model.SwiftModel;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded read-through cache of fully assembled {@link SwiftResponseDto} objects (branches included).
+ * An entry also keeps the encoded JSON of its response once a single lookup has written it, so the bytes
+ * are not counted as a second entry and share its eviction.
+ * Entries are evicted by size and TTL, and invalidated whenever {@link SwiftDataChangedEvent} is published.
+ *
+ * <p>A load that started before an invalidation may have read the old rows. Every invalidation increments a
+ * generation before removing entries, and an entry loaded while the generation changed is removed again, so a
+ * stale response is never kept. Callers get a copy of the cached response, which they may modify freely.</p>
+ */
+@Component
+public class SwiftDetailsCache {
+
+    /**
+     * Cached response of a SWIFT code, with its JSON encoded on the first single lookup.
+     * Two lookups encoding at the same time produce equal bytes, so the field does not need a lock.
+     */
+    private static final class Entry {
+
+        private final SwiftResponseDto details;
+        private volatile byte[] json;
+
+        private Entry(SwiftResponseDto details) {
+            this.details = details;
+        }
+    }
+
+    private final Cache<String, Entry> cache;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    /**
+     * Creates the cache using the limits from the {@code swift.cache.*} properties.
+     *
+     * @param properties the application settings
+     */
+    public SwiftDetailsCache(SwiftProperties properties) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getCache().getMaxSize())
+                .expireAfterWrite(properties.getCache().getTtl())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached response for a SWIFT code, loading it with the given function on a miss.
+     * A {@code null} result of the loader (code not found) is not cached.
+     *
+     * @param swiftCode the SWIFT code to look up
+     * @param loader    function loading the response from the database
+     * @return a copy of the response or {@code null} if the SWIFT code does not exist
+     */
+    public SwiftResponseDto get(String swiftCode, Function<String, SwiftResponseDto> loader) {
+        Entry entry = load(swiftCode, loader);
+        return entry == null ? null : copyOf(entry.details);
+    }
+
+    /**
+     * Returns the cached JSON of the response for a SWIFT code, loading the response with the given function
+     * on a miss and encoding it on the first call for the entry.
+     * A {@code null} result of the loader (code not found) is not cached.
+     *
+     * @param swiftCode the SWIFT code to look up
+     * @param loader    function loading the response from the database
+     * @param encoder   function encoding the response as JSON
+     * @return the JSON bytes of the response, shared with other lookups and not to be modified,
+     * or {@code null} if the SWIFT code does not exist
+     */
+    public byte[] getJson(String swiftCode, Function<String, SwiftResponseDto> loader,
+                          Function<SwiftResponseDto, byte[]> encoder) {
+        Entry entry = load(swiftCode, loader);
+        if (entry == null) {
+            return null;
+        }
+        byte[] json = entry.json;
+        if (json == null) {
+            json = encoder.apply(entry.details);
+            entry.json = json;
+        }
+        return json;
+    }
+
+    private Entry load(String swiftCode, Function<String, SwiftResponseDto> loader) {
+        long loadGeneration = generation.get();
+        Entry entry = cache.get(swiftCode, code -> {
+            SwiftResponseDto details = loader.apply(code);
+            return details == null ? null : new Entry(details);
+        });
+        if (entry != null) {
+            discardIfInvalidated(loadGeneration, swiftCode, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Removes an entry again if an invalidation ran since its load started. The invalidation may have missed it,
+     * as an entry is only added to the map once loaded. The returned response is still used by the current lookup,
+     * which raced with the change anyway.
+     *
+     * @param loadGeneration the generation read before the load
+     * @param swiftCode      the SWIFT code of the entry
+     * @param entry          the entry returned by the cache
+     */
+    private void discardIfInvalidated(long loadGeneration, String swiftCode, Entry entry) {
+        if (generation.get() != loadGeneration) {
+            cache.asMap().remove(swiftCode, entry);
+        }
+    }
+
+    private static SwiftResponseDto copyOf(SwiftResponseDto details) {
+        List<BranchDto> branches = details.getBranches() == null ? null : details.getBranches().stream()
+                .map(branch -> new BranchDto(branch.getSwiftCode(), branch.getBankName(), branch.getAddress(),
+                        branch.getCountryISO2(), branch.isHeadquarter()))
+                .collect(Collectors.toList());
+        return new SwiftResponseDto(details.getSwiftCode(), details.getBankName(), details.getAddress(),
+                details.getIso2Code(), details.getCountryName(), details.isHeadquarter(), branches);
+    }
+
+    /**
+     * Returns the cached responses for many SWIFT codes, loading all missing ones with a single call of the loader.
+     * Codes absent from the map returned by the loader (not found) are not cached and not included in the result.
+     *
+     * @param swiftCodes the SWIFT codes to look up
+     * @param loader     function loading the responses of the missing codes from the database
+     * @return map from SWIFT code to a copy of its response, containing only the codes that exist
+     */
+    public Map<String, SwiftResponseDto> getAll(Set<String> swiftCodes,
+                                                Function<Set<? extends String>, Map<String, SwiftResponseDto>> loader) {
+        long loadGeneration = generation.get();
+        Map<String, Entry> entries = cache.getAll(swiftCodes, codes -> {
+            Map<String, Entry> loaded = new HashMap<>();
+            loader.apply(codes).forEach((code, details) -> loaded.put(code, new Entry(details)));
+            return loaded;
+        });
+        Map<String, SwiftResponseDto> details = new LinkedHashMap<>();
+        entries.forEach((code, entry) -> {
+            discardIfInvalidated(loadGeneration, code, entry);
+            details.put(code, copyOf(entry.details));
+        });
+        return details;
+    }
+
+    /**
+     * Removes the entry of the given SWIFT code together with all entries of the same bank,
+     * as the branch list of the headquarter depends on every code sharing its bank code.
+     *
+     * @param swiftCode the SWIFT code that changed
+     */
+    public void evict(String swiftCode) {
+        String bankCode = SwiftModel.bankCodeOf(swiftCode);
+        // Before removing, so that loads running now discard their entries
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> {
+            boolean affected = key.startsWith(bankCode);
+            if (affected) {
+                invalidationCount.incrementAndGet();
+            }
+            return affected;
+        });
+    }
+
+    /**
+     * Removes all entries from the cache.
+     */
+    public void evictAll() {
+        generation.incrementAndGet();
+        invalidationCount.addAndGet(cache.estimatedSize());
+        cache.invalidateAll();
+    }
+
+    /**
+     * Invalidates cached entries affected by a data change.
+     *
+     * @param event the event describing the change
+     */
+    @EventListener
+    @Order(0) // Before DatasetVersion, see its description
+    public void onDataChanged(SwiftDataChangedEvent event) {
+        if (event.isFullRefresh()) {
+            evictAll();
+        } else {
+            event.getSwiftCodes().forEach(this::evict);
+        }
+    }
+
+    /**
+     * Returns the current hit, miss and eviction counters.
+     *
+     * @return the cache statistics
+     */
+    public CacheStatsDto getStats() {
+        CacheStats stats = cache.stats();
+        return new CacheStatsDto(stats.hitCount(), stats.missCount(), stats.evictionCount(),
+                invalidationCount.get(), cache.estimatedSize());
+    }
+}
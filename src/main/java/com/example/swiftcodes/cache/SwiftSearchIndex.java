@@ -0,0 +1,428 @@
+package com.example.swiftcodes.cache;
+
+import com.example.swiftcodes.config.SwiftProperties;
+import com.example.swiftcodes.dto.SwiftSearchResultDto;
+import com.example.swiftcodes.event.SwiftDataChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index of the bank names, towns and addresses of all SWIFT codes ({@code swift.search.enabled}).
+ *
+ * <p>Texts are upper-cased, stripped of accents and split into words. Every word is padded with two leading blanks
+ * and one trailing blank and cut into trigrams, so {@code "PKO"} gives {@code "  P"}, {@code " PK"}, {@code "PKO"} and
+ * {@code "KO "}. A query word of three or more characters is looked up by its own trigrams and matches any word
+ * containing it; a shorter word is looked up by its padded trigram and matches words starting with it. The posting
+ * lists of all query words are intersected, smallest first, and every candidate is verified against its texts, so
+ * the result never depends on a LIKE scan.</p>
+ *
+ * <p>The index is loaded at startup and updated from {@link SwiftDataChangedEvent}s: removed documents are only
+ * marked as deleted and the index is rebuilt once they make up a quarter of it.</p>
+ */
+@Component
+public class SwiftSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SwiftSearchIndex.class);
+
+    private static final String SELECT_SWIFT_CODES =
+            "SELECT swift_code, bank_name, address, town_name, iso2code, is_headquarter FROM swift_model";
+
+    private static final RowMapper<SwiftSearchResultDto> RESULT_MAPPER = (rs, rowNum) -> new SwiftSearchResultDto(
+            rs.getString("swift_code"), rs.getString("bank_name"), rs.getString("address"),
+            rs.getString("town_name"), rs.getString("iso2code"), rs.getBoolean("is_headquarter"));
+
+    // Scores of a query word found at the start of a word or anywhere inside a word of each text
+    private static final int BANK_PREFIX = 8;
+    private static final int BANK_SUBSTRING = 4;
+    private static final int TOWN_PREFIX = 3;
+    private static final int TOWN_SUBSTRING = 2;
+    private static final int ADDRESS = 1;
+    // Bonus of a bank name starting with the whole query
+    private static final int BANK_STARTS_WITH_QUERY = 16;
+
+    private static final Comparator<Match> BEST_FIRST = SwiftSearchIndex::compareBestFirst;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Index index;
+
+    /**
+     * A SWIFT code with its normalized texts, each starting with a blank so that word starts can be found with
+     * {@code contains(" " + word)}.
+     */
+    private record Document(SwiftSearchResultDto result, String bankName, String townName, String address) {
+    }
+
+    private record Match(Document document, int score) {
+    }
+
+    /**
+     * Constructor for SwiftSearchIndex.
+     *
+     * @param jdbcTemplate the JdbcTemplate used to load the index
+     * @param properties   the application settings, telling whether the index is enabled
+     */
+    public SwiftSearchIndex(JdbcTemplate jdbcTemplate, SwiftProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = properties.getSearch().isEnabled();
+    }
+
+    /**
+     * Tells whether the index is loaded and can answer searches.
+     *
+     * @return {@code true} once the index has been loaded
+     */
+    public boolean isLoaded() {
+        return index != null;
+    }
+
+    /**
+     * Finds the SWIFT codes whose bank name, town or address contain every word of the query.
+     *
+     * <p>Results are ranked by where the words were found: bank names before towns before addresses, and word starts
+     * before the middle of words. Bank names starting with the whole query come first; ties are broken by putting
+     * headquarters first and then by SWIFT code.</p>
+     *
+     * @param query       the searched text
+     * @param countryISO2 the ISO2 code of the country to search in, {@code null} to search all countries
+     * @param limit       the maximum number of results
+     * @return the best matches, best first; empty if the query has no letters or digits
+     */
+    public List<SwiftSearchResultDto> search(String query, String countryISO2, int limit) {
+        String normalizedQuery = normalize(query).trim();
+        Set<String> words = new LinkedHashSet<>(Arrays.asList(normalizedQuery.split(" +")));
+        words.remove("");
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String queryStart = " " + normalizedQuery;
+        String country = countryISO2 == null ? null : countryISO2.toUpperCase(Locale.ROOT);
+
+        lock.readLock().lock();
+        try {
+            Index current = index;
+            if (current == null) {
+                return List.of();
+            }
+            String[] wordArray = words.toArray(String[]::new);
+            String[] wordStarts = words.stream().map(word -> " " + word).toArray(String[]::new);
+            int[] candidates = current.candidates(words);
+            PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, BEST_FIRST.reversed());
+            for (int id : candidates) {
+                Document document = current.documents.get(id);
+                if (document == null || country != null && !country.equals(document.result().getCountryISO2())) {
+                    continue;
+                }
+                int score = score(document, wordArray, wordStarts, queryStart);
+                // Most candidates of a common word cannot enter a full list, so they are not even wrapped
+                if (score > 0 && (best.size() < limit || score >= best.peek().score())) {
+                    best.add(new Match(document, score));
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+            List<Match> matches = new ArrayList<>(best);
+            matches.sort(BEST_FIRST);
+            return matches.stream().map(Match::document).map(Document::result).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Loads the index once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    /**
+     * Updates the documents affected by a data change: the changed SWIFT codes and all codes of the imported countries
+     * are removed and read again from the database.
+     *
+     * @param event the event describing the change
+     */
+    @EventListener
+    @Order(0) // Before DatasetVersion, see its description
+    public synchronized void onDataChanged(SwiftDataChangedEvent event) {
+        Index current = index;
+        if (current == null) {
+            return;
+        }
+        if (event.isFullRefresh() && event.getCountryISO2Codes().isEmpty()) {
+            reload();
+            return;
+        }
+
+        List<SwiftSearchResultDto> rows = new ArrayList<>();
+        rows.addAll(selectWhereIn("iso2code", event.getCountryISO2Codes()));
+        rows.addAll(selectWhereIn("swift_code", event.getSwiftCodes()));
+        lock.writeLock().lock();
+        try {
+            current.removeCountries(event.getCountryISO2Codes());
+            event.getSwiftCodes().forEach(current::remove);
+            rows.forEach(current::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (current.deleted > current.documents.size() / 4) {
+            // Only this thread modifies the index, so it can be read without the lock while the copy is built
+            Index compacted = new Index();
+            current.documents.stream().filter(document -> document != null).map(Document::result).forEach(compacted::add);
+            swap(compacted);
+        }
+    }
+
+    /**
+     * Loads the whole index from the database and replaces the current one.
+     */
+    public synchronized void reload() {
+        long start = System.nanoTime();
+        Index loaded = new Index();
+        jdbcTemplate.query(SELECT_SWIFT_CODES, RESULT_MAPPER).forEach(loaded::add);
+        swap(loaded);
+        logger.info("Loaded search index of {} SWIFT codes and {} trigrams in {} ms",
+                loaded.idsByCode.size(), loaded.postings.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void swap(Index replacement) {
+        lock.writeLock().lock();
+        try {
+            index = replacement;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<SwiftSearchResultDto> selectWhereIn(String column, Collection<String> values) {
+        if (values.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(values.size(), "?"));
+        return jdbcTemplate.query(SELECT_SWIFT_CODES + " WHERE " + column + " IN (" + placeholders + ")",
+                RESULT_MAPPER, values.toArray());
+    }
+
+    private static int score(Document document, String[] words, String[] wordStarts, String queryStart) {
+        int total = document.bankName().startsWith(queryStart) ? BANK_STARTS_WITH_QUERY : 0;
+        for (int i = 0; i < words.length; i++) {
+            int score = fieldScore(document.bankName(), words[i], wordStarts[i], BANK_PREFIX, BANK_SUBSTRING);
+            if (score < BANK_PREFIX) {
+                score = Math.max(score, fieldScore(document.townName(), words[i], wordStarts[i], TOWN_PREFIX, TOWN_SUBSTRING));
+                score = Math.max(score, fieldScore(document.address(), words[i], wordStarts[i], ADDRESS, ADDRESS));
+            }
+            if (score == 0) {
+                // A trigram match that is not a real match, e.g. "ANA" in "BANK NATIONAL"
+                return 0;
+            }
+            total += score;
+        }
+        return total;
+    }
+
+    private static int fieldScore(String text, String word, String wordStart, int prefixScore, int substringScore) {
+        if (text.contains(wordStart)) {
+            return prefixScore;
+        }
+        // Short words are only looked up as word prefixes
+        return word.length() >= 3 && text.contains(word) ? substringScore : 0;
+    }
+
+    private static int compareBestFirst(Match a, Match b) {
+        if (a.score() != b.score()) {
+            return Integer.compare(b.score(), a.score());
+        }
+        boolean aHeadquarter = a.document().result().isHeadquarter();
+        if (aHeadquarter != b.document().result().isHeadquarter()) {
+            return aHeadquarter ? -1 : 1;
+        }
+        return a.document().result().getSwiftCode().compareTo(b.document().result().getSwiftCode());
+    }
+
+    /**
+     * Upper-cases a text, strips accents and replaces everything but letters and digits with blanks.
+     *
+     * @param text the text, may be {@code null}
+     * @return the normalized text starting with a blank, so that every word is preceded by one
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return " ";
+        }
+        String decomposed = Normalizer.normalize(text.toUpperCase(Locale.ROOT), Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length() + 1).append(' ');
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            normalized.append(Character.isLetterOrDigit(c) ? c : ' ');
+        }
+        return normalized.toString();
+    }
+
+    private static long trigram(CharSequence text, int start) {
+        return (long) text.charAt(start) << 32 | (long) text.charAt(start + 1) << 16 | text.charAt(start + 2);
+    }
+
+    /**
+     * The documents and posting lists. Documents are only appended; a removed document is replaced with {@code null}
+     * and its id stays in the posting lists until the index is rebuilt.
+     */
+    private static final class Index {
+
+        private final List<Document> documents = new ArrayList<>();
+        private final Map<String, Integer> idsByCode = new HashMap<>();
+        private final Map<Long, Postings> postings = new HashMap<>();
+        private int deleted;
+
+        void add(SwiftSearchResultDto result) {
+            remove(result.getSwiftCode());
+            Document document = new Document(result,
+                    normalize(result.getBankName()), normalize(result.getTownName()), normalize(result.getAddress()));
+            int id = documents.size();
+            documents.add(document);
+            idsByCode.put(result.getSwiftCode(), id);
+            addTrigrams(document.bankName(), id);
+            addTrigrams(document.townName(), id);
+            addTrigrams(document.address(), id);
+        }
+
+        void remove(String swiftCode) {
+            Integer id = idsByCode.remove(swiftCode);
+            if (id != null) {
+                documents.set(id, null);
+                deleted++;
+            }
+        }
+
+        void removeCountries(Collection<String> countries) {
+            if (countries.isEmpty()) {
+                return;
+            }
+            for (Document document : documents) {
+                if (document != null && countries.contains(document.result().getCountryISO2())) {
+                    remove(document.result().getSwiftCode());
+                }
+            }
+        }
+
+        /**
+         * Returns the ids of the documents holding every trigram of the query words, in ascending order.
+         */
+        int[] candidates(Set<String> words) {
+            List<Postings> lists = new ArrayList<>();
+            for (String word : words) {
+                if (word.length() < 3) {
+                    lists.add(postings.get(trigram(word.length() == 1 ? "  " + word : " " + word, 0)));
+                } else {
+                    for (int i = 0; i + 3 <= word.length(); i++) {
+                        lists.add(postings.get(trigram(word, i)));
+                    }
+                }
+            }
+            if (lists.contains(null)) {
+                return new int[0];
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+
+            int[] result = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+            int size = result.length;
+            for (int l = 1; l < lists.size() && size > 0; l++) {
+                Postings other = lists.get(l);
+                int kept = 0;
+                int j = 0;
+                for (int i = 0; i < size && j < other.size; i++) {
+                    int id = result[i];
+                    j = other.indexFrom(j, id);
+                    if (j < other.size && other.ids[j] == id) {
+                        result[kept++] = id;
+                    }
+                }
+                size = kept;
+            }
+            return Arrays.copyOf(result, size);
+        }
+
+        private void addTrigrams(String text, int id) {
+            int wordStart = -1;
+            for (int i = 0; i <= text.length(); i++) {
+                boolean blank = i == text.length() || text.charAt(i) == ' ';
+                if (!blank && wordStart < 0) {
+                    wordStart = i;
+                } else if (blank && wordStart >= 0) {
+                    String padded = "  " + text.substring(wordStart, i) + " ";
+                    for (int t = 0; t + 3 <= padded.length(); t++) {
+                        postings.computeIfAbsent(trigram(padded, t), key -> new Postings()).add(id);
+                    }
+                    wordStart = -1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Ascending list of document ids. Ids are added in ascending order, so a repeated id is always the last one.
+     */
+    private static final class Postings {
+
+        private int[] ids = new int[2];
+        private int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        /**
+         * Returns the position of the first id not lower than {@code id}, searching from {@code from} with
+         * exponentially growing steps, so that a short list is intersected with a long one in logarithmic time.
+         */
+        int indexFrom(int from, int id) {
+            int step = 1;
+            int low = from;
+            int high = from;
+            while (high < size && ids[high] < id) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            high = Math.min(high, size);
+            int index = Arrays.binarySearch(ids, low, high, id);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.swiftcodes.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Application settings bound from the {@code swift.*} properties.
+ * Every feature keeps its own nested section so that the defaults live next to each other.
+ */
+@Data
+@ConfigurationProperties(prefix = "swift")
+public class SwiftProperties {
+
+    /**
+     * Settings of the in-memory cache for SWIFT code lookups.
+     */
+    private Cache cache = new Cache();
+
+    /**
+     * Settings of the SWIFT code import.
+     */
+    private Import importer = new Import();
+
+    /**
+     * Settings of the bulk SWIFT code lookup.
+     */
+    private Lookup lookup = new Lookup();
+
+    /**
+     * Settings of the in-memory snapshot serving mode.
+     */
+    private Snapshot snapshot = new Snapshot();
+
+    /**
+     * Settings of the SWIFT code listing of a country.
+     */
+    private Country country = new Country();
+
+    /**
+     * Settings of the reads streamed from a database cursor.
+     */
+    private Cursor cursor = new Cursor();
+
+    /**
+     * Settings of the search by bank name, town and address.
+     */
+    private Search search = new Search();
+
+    /**
+     * Settings of the concurrency limits of the endpoint groups.
+     */
+    private Bulkhead bulkhead = new Bulkhead();
+
+    @Data
+    public static class Cache {
+
+        /**
+         * Maximum number of SWIFT code responses kept in memory.
+         */
+        private long maxSize = 10_000;
+
+        /**
+         * How long a cached response is served before it is loaded again from the database.
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Import {
+
+        /**
+         * Number of parsed rows held in memory and sent to the database in a single JDBC batch.
+         */
+        private int batchSize = 1000;
+
+        /**
+         * Number of threads writing batches to the database while the file is being parsed, each over its own
+         * connection; 0 writes on the parsing thread.
+         */
+        private int writerThreads = 1;
+
+        /**
+         * Number of parsed batches that may wait for a free writer; the parser waits when all are taken.
+         */
+        private int pipelineDepth = 4;
+
+        /**
+         * Whether imports bulk load the rows with PostgreSQL {@code COPY} into a staging table and merge it in one
+         * transaction, instead of writing batches of inserts.
+         */
+        private boolean copyEnabled = false;
+
+        /**
+         * Maximum number of imports running at the same time.
+         */
+        private int maxConcurrentJobs = 1;
+
+        /**
+         * Maximum number of submitted imports waiting for a free worker; further uploads are rejected.
+         */
+        private int queueCapacity = 10;
+
+        /**
+         * How long the status of a finished import stays available.
+         */
+        private Duration jobRetention = Duration.ofHours(1);
+    }
+
+    @Data
+    public static class Lookup {
+
+        /**
+         * Maximum number of SWIFT codes accepted in a single bulk lookup request.
+         */
+        private int maxCodes = 1000;
+
+        /**
+         * Whether lookups of unknown SWIFT codes are answered by a Bloom filter of all codes, without a database query.
+         */
+        private boolean filterEnabled = true;
+
+        /**
+         * Probability that the filter lets the lookup of an unknown code through to the database.
+         */
+        private double filterFalsePositiveRate = 0.01;
+
+        /**
+         * How often the filter is rebuilt, dropping deleted codes; zero rebuilds it only after imports.
+         */
+        private Duration filterRebuildInterval = Duration.ofHours(1);
+    }
+
+    @Data
+    public static class Snapshot {
+
+        /**
+         * Whether read endpoints are answered from an in-memory snapshot of the whole directory instead of the database.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Number of single changes kept on top of the snapshot before it is compacted in the background.
+         */
+        private int compactionThreshold = 1024;
+    }
+
+    @Data
+    public static class Country {
+
+        /**
+         * Maximum number of SWIFT codes returned in one page of a country listing.
+         */
+        private int maxPageSize = 1000;
+
+        /**
+         * Whether country listings are served from an in-memory index of the SWIFT codes of every country.
+         * The index is not built in the snapshot serving mode, which already keeps the whole directory in memory.
+         */
+        private boolean indexEnabled = true;
+    }
+
+    @Data
+    public static class Cursor {
+
+        /**
+         * Number of rows fetched from the database at a time when a response is streamed from a cursor.
+         */
+        private int fetchSize = 1000;
+
+        /**
+         * Sets the fetch size, rejecting values below 1 when the properties are bound: a fetch size of 0 makes the
+         * driver read the whole result at once, and the export flushes its output every {@code fetchSize} rows.
+         *
+         * @param fetchSize the number of rows fetched at a time
+         */
+        public void setFetchSize(int fetchSize) {
+            if (fetchSize < 1) {
+                throw new IllegalArgumentException("Fetch size must be at least 1, got " + fetchSize);
+            }
+            this.fetchSize = fetchSize;
+        }
+    }
+
+    @Data
+    public static class Search {
+
+        /**
+         * Whether the in-memory search index is built at startup; without it the search endpoint answers 503.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Number of results returned when the request does not set a limit.
+         */
+        private int defaultResults = 20;
+
+        /**
+         * Maximum number of results of one search request.
+         */
+        private int maxResults = 100;
+    }
+
+    @Data
+    public static class Bulkhead {
+
+        /**
+         * Whether the endpoint groups are limited to their own number of concurrent requests.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Limit of the file uploads of imports. The rows are written in the background, limited by
+         * {@code swift.importer.max-concurrent-jobs}; this limits the requests receiving the files.
+         */
+        private Limit imports = new Limit(2, Duration.ZERO, 0);
+
+        /**
+         * Limit of the exports of the whole directory, each holding a database connection until it is fully written.
+         */
+        private Limit exports = new Limit(2, Duration.ZERO, 0);
+
+        /**
+         * Limit of the SWIFT code listings of a country, paged and streamed.
+         */
+        private Limit country = new Limit(8, Duration.ofMillis(200), 16);
+
+        /**
+         * Limit of the lookups of many SWIFT codes in one request.
+         */
+        private Limit bulkLookups = new Limit(4, Duration.ofMillis(100), 8);
+
+        /**
+         * Limit of the searches by bank name, town and address.
+         */
+        private Limit search = new Limit(16, Duration.ofMillis(50), 32);
+
+        /**
+         * Limit of the lookups of a single SWIFT code.
+         */
+        private Limit lookups = new Limit(64, Duration.ofMillis(50), 64);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+
+        /**
+         * Maximum number of requests of the group handled at the same time.
+         */
+        private int maxConcurrent;
+
+        /**
+         * How long a request waits for a free slot before it is answered with 429; zero rejects it right away.
+         */
+        private Duration maxWait = Duration.ZERO;
+
+        /**
+         * Maximum number of requests waiting for a free slot, each holding a server thread; further requests are
+         * answered with 429 right away.
+         */
+        private int maxWaiting;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.swiftcodes.config;
+
+import com.example.swiftcodes.bulkhead.BulkheadInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring MVC settings of the API.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final BulkheadInterceptor bulkheadInterceptor;
+
+    /**
+     * Constructor for WebConfig.
+     *
+     * @param bulkheadInterceptor the interceptor limiting the concurrent requests of the endpoint groups
+     */
+    public WebConfig(BulkheadInterceptor bulkheadInterceptor) {
+        this.bulkheadInterceptor = bulkheadInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(bulkheadInterceptor);
+    }
+}
@@ -1,11 +1,18 @@
 package com.example.swiftcodes.controller;
 
+import com.example.swiftcodes.bulkhead.Bulkhead;
+import com.example.swiftcodes.bulkhead.EndpointGroup;
+import com.example.swiftcodes.cache.DatasetVersion;
+import com.example.swiftcodes.cache.SwiftDetailsCache;
+import com.example.swiftcodes.config.SwiftProperties;
 import com.example.swiftcodes.dto.*;
+import com.example.swiftcodes.metrics.SwiftMetrics;
 import com.example.swiftcodes.model.SwiftModel;
-import com.example.swiftcodes.repository.SwiftRepository;
-import com.example.swiftcodes.service.ExcelImportService;
+import com.example.swiftcodes.service.ImportJobService;
 import com.example.swiftcodes.service.SwiftCodeService;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
@@ -13,12 +20,20 @@ import io.swagger.annotations.ApiResponses;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Controller for managing SWIFT code operations such as retrieving, adding, deleting, and uploading data.
@@ -31,99 +46,279 @@ public class SwiftController {
 
     private static final Logger logger = LoggerFactory.getLogger(SwiftController.class);
 
-    private final SwiftRepository swiftRepository;
     private final SwiftCodeService swiftCodeService;
-    private final ExcelImportService excelImportService;
+    private final ImportJobService importJobService;
+    private final SwiftDetailsCache swiftDetailsCache;
+    private final DatasetVersion datasetVersion;
+    private final SwiftMetrics metrics;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader swiftCodeRequestReader;
+    private final int maxLookupCodes;
+    private final int maxPageSize;
+    private final int defaultSearchResults;
+    private final int maxSearchResults;
 
     /**
-     * Constructor-based injection for services and repository.
-     * @param swiftRepository Repository for interacting with SWIFT codes in the database.
+     * Constructor-based injection for services.
      * @param swiftCodeService Service for handling business logic related to SWIFT codes.
-     * @param excelImportService Service for handling Excel data import operations.
+     * @param importJobService Service running Excel data imports in the background.
+     * @param swiftDetailsCache Cache of SWIFT code lookups, used to expose its statistics.
+     * @param datasetVersion Version of the data, used as the entity tag of the read endpoints.
+     * @param properties Application settings, providing the limits of the bulk lookup, of the country pages and of the search.
+     * @param metrics Counters of the 404 and 500 responses.
+     * @param objectMapper The JSON mapper used for request bodies and for responses written directly to the output stream.
      */
     @Autowired
-    public SwiftController(SwiftRepository swiftRepository,
-                           SwiftCodeService swiftCodeService,
-                           ExcelImportService excelImportService) {
-        this.swiftRepository = swiftRepository;
+    public SwiftController(SwiftCodeService swiftCodeService,
+                           ImportJobService importJobService,
+                           SwiftDetailsCache swiftDetailsCache,
+                           DatasetVersion datasetVersion,
+                           SwiftProperties properties,
+                           SwiftMetrics metrics,
+                           ObjectMapper objectMapper) {
         this.swiftCodeService = swiftCodeService;
-        this.excelImportService = excelImportService;
+        this.importJobService = importJobService;
+        this.swiftDetailsCache = swiftDetailsCache;
+        this.datasetVersion = datasetVersion;
+        this.metrics = metrics;
+        this.objectMapper = objectMapper;
+        // Unknown properties are rejected, as by the default mapper used before
+        this.swiftCodeRequestReader = objectMapper.readerFor(SwiftCodeRequestDto.class)
+                .with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.maxLookupCodes = properties.getLookup().getMaxCodes();
+        this.maxPageSize = properties.getCountry().getMaxPageSize();
+        this.defaultSearchResults = properties.getSearch().getDefaultResults();
+        this.maxSearchResults = properties.getSearch().getMaxResults();
     }
 
     /**
      * Fetch details of a specific SWIFT code, including the associated bank and country information.
      * @param swiftCode The SWIFT code to retrieve details for.
-     * @return ResponseEntity containing SWIFT code details or an error message if not found.
+     * @param ifNoneMatch The entity tag of the response the client already has, if any.
+     * @return ResponseEntity containing SWIFT code details, 304 if the client's copy is current, or an error message if not found.
      */
     @ApiOperation(value = "Get SWIFT code details", notes = "Fetches details of a specific SWIFT code.")
     @ApiResponses({
             @ApiResponse(code = 200, message = "Successfully retrieved SWIFT code details."),
-            @ApiResponse(code = 404, message = "SWIFT code not found.")
+            @ApiResponse(code = 304, message = "The data has not changed since the given entity tag."),
+            @ApiResponse(code = 404, message = "SWIFT code not found."),
+            @ApiResponse(code = 429, message = "Too many concurrent lookups.")
     })
+    @Bulkhead(EndpointGroup.LOOKUPS)
     @GetMapping("/{swiftCode}")
-    public ResponseEntity<Object> getSwiftDetails(@PathVariable String swiftCode) {
+    public ResponseEntity<Object> getSwiftDetails(@PathVariable String swiftCode,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // The tag is read before the data, so it is never newer than the response it is sent with
+        String etag = datasetVersion.detailsEtag(swiftCode);
+        if (DatasetVersion.matches(ifNoneMatch, etag, () -> swiftCodeService.getSwiftDetailsJson(swiftCode) != null)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         try {
-            // Retrieve SWIFT code details from the repository
-            SwiftResponseDto result = swiftRepository.findBySwiftCodeWithCountry(swiftCode);
+            // Retrieve the encoded SWIFT code details, served from the cache when possible
+            byte[] result = swiftCodeService.getSwiftDetailsJson(swiftCode);
 
             // If SWIFT code is not found, return 404 with a MessageResponse
             if (result == null) {
+                metrics.notFound("getSwiftDetails");
                 MessageResponse messageResponse = new MessageResponse("SWIFT code not found.");
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(messageResponse);
             }
 
-            // If SWIFT code is a headquarter, fetch the associated branches
-            if (result.isHeadquarter()) {
-                List<BranchDto> branches = swiftRepository.findBranchesBySwiftPrefix(swiftCode);
-                result.setBranches(branches);
-            } else {
-                result.setBranches(null);
-            }
-
-            // Return the SWIFT code details
-            return ResponseEntity.ok(result);
+            // Return the SWIFT code details, written to the response without serializing them again
+            return ResponseEntity.ok().eTag(etag).contentType(MediaType.APPLICATION_JSON).body(result);
 
         } catch (Exception e) {
             logger.error("Error fetching SWIFT code details: {}", e.getMessage(), e);
+            metrics.serverError("getSwiftDetails");
             // Return error response in case of failure
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new MessageResponse("Error fetching SWIFT code details."));
         }
     }
 
+    /**
+     * Resolve many SWIFT codes in a single request.
+     * @param request JSON request body containing the list of SWIFT codes.
+     * @return ResponseEntity containing one result per distinct SWIFT code, marking the codes that were not found.
+     */
+    @ApiOperation(value = "Resolve many SWIFT codes", notes = "Fetches details of many SWIFT codes in one request.")
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Successfully resolved the SWIFT codes."),
+            @ApiResponse(code = 400, message = "Invalid request data."),
+            @ApiResponse(code = 429, message = "Too many concurrent bulk lookups.")
+    })
+    @Bulkhead(EndpointGroup.BULK_LOOKUPS)
+    @PostMapping("/lookup")
+    public ResponseEntity<Object> lookupSwiftCodes(@RequestBody SwiftLookupRequestDto request) {
+        List<String> swiftCodes = request.getSwiftCodes();
+        if (swiftCodes == null || swiftCodes.isEmpty() || swiftCodes.size() > maxLookupCodes
+                || swiftCodes.stream().anyMatch(Objects::isNull)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new MessageResponse("Request must contain between 1 and " + maxLookupCodes + " SWIFT codes."));
+        }
+        try {
+            // Resolve all codes at once and keep the request order
+            Map<String, SwiftResponseDto> details = swiftCodeService.getSwiftDetailsBulk(swiftCodes);
+            List<SwiftLookupResultDto> results = new LinkedHashSet<>(swiftCodes).stream()
+                    .map(code -> new SwiftLookupResultDto(code, details.containsKey(code), details.get(code)))
+                    .toList();
+
+            return ResponseEntity.ok(new SwiftLookupResponseDto(results));
+        } catch (Exception e) {
+            logger.error("Error resolving SWIFT codes: {}", e.getMessage(), e);
+            metrics.serverError("lookupSwiftCodes");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new MessageResponse("Error resolving SWIFT codes."));
+        }
+    }
+
     /**
      * Fetch all SWIFT codes for a given country by its ISO2 code.
+     * With {@code limit} the codes are returned in pages ordered by SWIFT code; the {@code nextCursor} of a page
+     * is passed as {@code after} to fetch the next one.
      * @param countryISO2code The ISO2 country code to retrieve SWIFT codes for.
-     * @return ResponseEntity containing a list of SWIFT codes for the country or an error message if not found.
+     * @param limit The maximum number of SWIFT codes in a page, or {@code null} to return all codes.
+     * @param after The SWIFT code after which the page starts.
+     * @param ifNoneMatch The entity tag of the response the client already has, if any.
+     * @return ResponseEntity containing a list of SWIFT codes for the country, 304 if the client's copy is current, or an error message if not found.
      */
     @ApiOperation(value = "Get all SWIFT codes for a country", notes = "Fetches all SWIFT codes for a given country based on its ISO2 code.")
     @ApiResponses({
             @ApiResponse(code = 200, message = "Successfully retrieved SWIFT codes for the country."),
-            @ApiResponse(code = 404, message = "Country not found.")
+            @ApiResponse(code = 304, message = "The data has not changed since the given entity tag."),
+            @ApiResponse(code = 400, message = "Invalid page size."),
+            @ApiResponse(code = 404, message = "Country not found."),
+            @ApiResponse(code = 429, message = "Too many concurrent country listings.")
     })
+    @Bulkhead(EndpointGroup.COUNTRY)
     @GetMapping("/country/{countryISO2code}")
-    public ResponseEntity<Object> getSwiftCodesByCountry(@PathVariable String countryISO2code) {
+    public ResponseEntity<Object> getSwiftCodesByCountry(@PathVariable String countryISO2code,
+                                                         @RequestParam(required = false) Integer limit,
+                                                         @RequestParam(required = false) String after,
+                                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (limit != null && (limit < 1 || limit > maxPageSize)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new MessageResponse("Limit must be between 1 and " + maxPageSize + "."));
+        }
+        // The tag is read before the data, so it is never newer than the response it is sent with
+        String etag = datasetVersion.etag(countryISO2code);
+        if (DatasetVersion.matches(ifNoneMatch, etag, () -> swiftCodeService.getCountryName(countryISO2code) != null)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         try {
-            // Retrieve country name by ISO2 code
-            String countryName = swiftRepository.findCountryNameByISO2(countryISO2code);
+            // Retrieve the country together with its SWIFT codes, or a single page of them
+            Object response = limit == null && after == null
+                    ? swiftCodeService.getSwiftCodesByCountry(countryISO2code)
+                    : swiftCodeService.getSwiftCodesByCountryPage(countryISO2code, after, limit != null ? limit : maxPageSize);
 
             // If country is not found, return 404 with a MessageResponse
-            if (countryName == null) {
+            if (response == null) {
+                metrics.notFound("getSwiftCodesByCountry");
                 MessageResponse messageResponse = new MessageResponse("Country not found.");
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(messageResponse);
             }
 
-            // Retrieve the SWIFT codes for the country
-            List<BranchDto> swiftCodes = swiftRepository.findSwiftCodesByCountryISO2(countryISO2code);
-            CountrySwiftResponseDto response = new CountrySwiftResponseDto(countryISO2code, countryName, swiftCodes);
-
             // Return the response with status 200
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(etag).body(response);
         } catch (Exception e) {
             logger.error("Error fetching SWIFT codes for country {}: {}", countryISO2code, e.getMessage(), e);
+            metrics.serverError("getSwiftCodesByCountry");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new MessageResponse("Error fetching SWIFT codes for country."));
         }
     }
 
+    /**
+     * Search SWIFT codes by bank name, town and address. Every word of the query must be found in one of them;
+     * the results are ranked with bank name matches first.
+     * @param query The searched text.
+     * @param country The ISO2 code of the country to search in, or {@code null} to search all countries.
+     * @param limit The maximum number of results, or {@code null} for the default.
+     * @return ResponseEntity containing the matching SWIFT codes, or an error message if the search is not available.
+     */
+    @ApiOperation(value = "Search SWIFT codes", notes = "Searches SWIFT codes by bank name, town and address.")
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Successfully searched the SWIFT codes."),
+            @ApiResponse(code = 400, message = "Empty query or invalid limit."),
+            @ApiResponse(code = 429, message = "Too many concurrent searches."),
+            @ApiResponse(code = 503, message = "The search index is not loaded.")
+    })
+    @Bulkhead(EndpointGroup.SEARCH)
+    @GetMapping("/search")
+    public ResponseEntity<Object> searchSwiftCodes(@RequestParam("q") String query,
+                                                   @RequestParam(required = false) String country,
+                                                   @RequestParam(required = false) Integer limit) {
+        if (query.isBlank()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new MessageResponse("Query must not be empty."));
+        }
+        if (limit != null && (limit < 1 || limit > maxSearchResults)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new MessageResponse("Limit must be between 1 and " + maxSearchResults + "."));
+        }
+        try {
+            SwiftSearchResponseDto response = swiftCodeService.searchSwiftCodes(query, country,
+                    limit != null ? limit : defaultSearchResults);
+
+            // The search is served from memory only, never with a scan of the table
+            if (response == null) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new MessageResponse("Search index is not available."));
+            }
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error searching SWIFT codes: {}", e.getMessage(), e);
+            metrics.serverError("searchSwiftCodes");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new MessageResponse("Error searching SWIFT codes."));
+        }
+    }
+
+    /**
+     * Stream all SWIFT codes for a given country, writing them to the response as they are read from the database.
+     * The response has the same format as the non-streamed listing.
+     * @param countryISO2code The ISO2 country code to retrieve SWIFT codes for.
+     * @param after The SWIFT code after which the listing starts.
+     * @param ifNoneMatch The entity tag of the response the client already has, if any.
+     * @return ResponseEntity writing the SWIFT codes of the country, 304 if the client's copy is current, or an error message if not found.
+     */
+    @ApiOperation(value = "Stream all SWIFT codes for a country", notes = "Streams all SWIFT codes of a country from a database cursor.")
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Successfully streamed SWIFT codes for the country."),
+            @ApiResponse(code = 304, message = "The data has not changed since the given entity tag."),
+            @ApiResponse(code = 404, message = "Country not found."),
+            @ApiResponse(code = 429, message = "Too many concurrent country listings.")
+    })
+    @Bulkhead(EndpointGroup.COUNTRY)
+    @GetMapping(value = "/country/{countryISO2code}", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamSwiftCodesByCountry(@PathVariable String countryISO2code,
+                                                                           @RequestParam(required = false) String after,
+                                                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = datasetVersion.etag(countryISO2code);
+        if (DatasetVersion.matches(ifNoneMatch, etag, () -> swiftCodeService.getCountryName(countryISO2code) != null)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        // The status has to be known before the first row is written
+        String countryName = swiftCodeService.getCountryName(countryISO2code);
+        if (countryName == null) {
+            metrics.notFound("streamSwiftCodesByCountry");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> objectMapper.writeValue(out, new MessageResponse("Country not found.")));
+        }
+        return ResponseEntity.ok().eTag(etag).contentType(MediaType.APPLICATION_JSON)
+                .body(out -> swiftCodeService.writeSwiftCodesByCountry(countryISO2code, countryName, after, out));
+    }
+
+    /**
+     * Export the whole SWIFT code directory as newline-delimited JSON, streamed from a database cursor.
+     * @return ResponseEntity writing one SWIFT code with its country per line.
+     */
+    @ApiOperation(value = "Export all SWIFT codes", notes = "Streams every SWIFT code with its country as newline-delimited JSON.")
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Successfully streamed the SWIFT codes."),
+            @ApiResponse(code = 429, message = "Too many exports in progress.")
+    })
+    @Bulkhead(EndpointGroup.EXPORTS)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportSwiftCodes() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON)
+                .body(swiftCodeService::writeExport);
+    }
+
     /**
      * Add a new SWIFT code to the database.
      * @param body JSON request body containing the SWIFT code data.
@@ -136,10 +331,9 @@ public class SwiftController {
     })
     @PostMapping
     public ResponseEntity<MessageResponse> addSwiftCode(@RequestBody String body) {
-        ObjectMapper objectMapper = new ObjectMapper();
         try {
             // Parse the incoming request body into a DTO
-            SwiftCodeRequestDto swiftCodeRequestDto = objectMapper.readValue(body, SwiftCodeRequestDto.class);
+            SwiftCodeRequestDto swiftCodeRequestDto = swiftCodeRequestReader.readValue(body);
 
             // Map the DTO to the model and save it to the repository
             SwiftModel swiftModel = new SwiftModel();
@@ -149,7 +343,7 @@ public class SwiftController {
             swiftModel.setHeadquarter(swiftCodeRequestDto.isHeadquarter());
             swiftModel.setSwiftCode(swiftCodeRequestDto.getSwiftCode());
 
-            swiftRepository.save(swiftModel);
+            swiftCodeService.addSwiftCode(swiftModel);
 
             // Return success response
             return ResponseEntity.ok().body(new MessageResponse("SWIFT code added successfully."));
@@ -180,35 +374,77 @@ public class SwiftController {
             if (isDeleted) {
                 return ResponseEntity.ok().body(new MessageResponse("SWIFT code deleted successfully."));
             } else {
+                metrics.notFound("deleteSwiftCode");
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse("SWIFT code not found."));
             }
         } catch (Exception e) {
             logger.error("Error deleting SWIFT code {}: {}", swiftCode, e.getMessage(), e);
+            metrics.serverError("deleteSwiftCode");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new MessageResponse("Error deleting SWIFT code."));
         }
     }
 
     /**
-     * Upload an Excel file containing SWIFT code data.
-     * @param file The Excel file to upload.
-     * @return ResponseEntity with success or error message.
+     * Upload an Excel file containing SWIFT code data. The file is imported in the background.
+     * @param file  The Excel file to upload.
+     * @param delta Whether to import the file as the complete directory, writing only the changed rows.
+     * @return ResponseEntity containing the submitted import job, or an error message.
      */
-    @ApiOperation(value = "Upload an Excel file", notes = "Uploads an Excel file with SWIFT code data.")
+    @ApiOperation(value = "Upload an Excel file", notes = "Uploads an Excel file with SWIFT code data and imports it in the background.")
     @ApiResponses({
-            @ApiResponse(code = 200, message = "Data uploaded successfully."),
-            @ApiResponse(code = 400, message = "Error uploading file.")
+            @ApiResponse(code = 202, message = "Import job submitted."),
+            @ApiResponse(code = 400, message = "Error uploading file."),
+            @ApiResponse(code = 429, message = "Too many imports in progress or uploads being received.")
     })
+    @Bulkhead(EndpointGroup.IMPORTS)
     @PostMapping("/import")
-    public ResponseEntity<MessageResponse> uploadExcel(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<Object> uploadExcel(@RequestParam("file") MultipartFile file,
+                                              @RequestParam(value = "delta", defaultValue = "false") boolean delta) {
         try {
-            // Process the uploaded Excel file
-            excelImportService.importExcelData(file);
-
-            // Return success response
-            return ResponseEntity.ok().body(new MessageResponse("Data uploaded successfully."));
+            // Schedule the import and let the client poll its progress
+            ImportJobDto job = importJobService.submit(file, delta);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/v1/swift-codes/import/" + job.getJobId()))
+                    .body(job);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Import of {} rejected: too many imports in progress", file.getOriginalFilename());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(new MessageResponse("Too many imports in progress, try again later."));
         } catch (Exception e) {
             logger.error("Error uploading Excel file: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new MessageResponse("Error uploading file: " + e.getMessage()));
         }
     }
+
+    /**
+     * Fetch the state and progress of a background import.
+     * @param jobId The identifier of the import job returned by the upload.
+     * @return ResponseEntity containing the job status or an error message if not found.
+     */
+    @ApiOperation(value = "Get import job status", notes = "Returns the status, row counters, throughput and errors of an import.")
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Successfully retrieved the import job."),
+            @ApiResponse(code = 404, message = "Import job not found.")
+    })
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<Object> getImportJob(@PathVariable String jobId) {
+        ImportJobDto job = importJobService.getJob(jobId);
+        if (job == null) {
+            metrics.notFound("getImportJob");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse("Import job not found."));
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    /**
+     * Fetch the hit, miss and eviction counters of the SWIFT code lookup cache.
+     * @return ResponseEntity containing the cache statistics.
+     */
+    @ApiOperation(value = "Get lookup cache statistics", notes = "Returns hit, miss and eviction counters of the SWIFT code cache.")
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Successfully retrieved cache statistics.")
+    })
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CacheStatsDto> getCacheStats() {
+        return ResponseEntity.ok(swiftDetailsCache.getStats());
+    }
 }
\ No newline at end of file
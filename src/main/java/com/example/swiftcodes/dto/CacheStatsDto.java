@@ -0,0 +1,39 @@
+package com.example.swiftcodes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO exposing the counters of the SWIFT code lookup cache.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDto {
+
+    /**
+     * Number of lookups answered from the cache.
+     */
+    private long hitCount;
+
+    /**
+     * Number of lookups that had to go to the database.
+     */
+    private long missCount;
+
+    /**
+     * Number of entries removed because of the size or TTL limit.
+     */
+    private long evictionCount;
+
+    /**
+     * Number of entries removed because the underlying data changed.
+     */
+    private long invalidationCount;
+
+    /**
+     * Approximate number of entries currently held in the cache.
+     */
+    private long size;
+}
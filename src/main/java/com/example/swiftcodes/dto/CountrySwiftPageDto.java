@@ -0,0 +1,36 @@
+package com.example.swiftcodes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO representing one page of the SWIFT codes of a country, ordered by SWIFT code.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CountrySwiftPageDto {
+
+    /**
+     * The ISO2 code of the country (2-letter code).
+     */
+    private String countryISO2;
+
+    /**
+     * The full name of the country.
+     */
+    private String countryName;
+
+    /**
+     * The SWIFT codes of this page.
+     */
+    private List<BranchDto> swiftCodes;
+
+    /**
+     * The value of the {@code after} parameter for the next page, or {@code null} if this is the last page.
+     */
+    private String nextCursor;
+}
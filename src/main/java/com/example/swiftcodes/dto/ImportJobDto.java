@@ -0,0 +1,55 @@
+package com.example.swiftcodes.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * DTO describing the state and progress of a background import.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL) // Timestamps, error and summary are only present once known
+public class ImportJobDto {
+
+    private String jobId;
+
+    /**
+     * One of QUEUED, RUNNING, COMPLETED or FAILED.
+     */
+    private String status;
+
+    private String fileName;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+
+    /**
+     * Number of rows read from the file so far.
+     */
+    private long rowsParsed;
+
+    /**
+     * Number of rows sent to the database so far.
+     */
+    private long rowsWritten;
+
+    /**
+     * Parsed rows per second since the job started.
+     */
+    private double rowsPerSecond;
+
+    /**
+     * Description of the failure if the import failed.
+     */
+    private String error;
+
+    /**
+     * Numbers of inserted and skipped rows once the import has completed.
+     */
+    private ImportSummaryDto summary;
+}
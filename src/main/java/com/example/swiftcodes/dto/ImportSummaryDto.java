@@ -0,0 +1,61 @@
+package com.example.swiftcodes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO summarizing the result of a SWIFT code import.
+ * Rows that already existed in the database are skipped by {@code ON CONFLICT DO NOTHING} and counted separately.
+ * A delta import also reports the SWIFT codes it updated, deleted or left unchanged, and the countries it updated.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportSummaryDto {
+
+    /**
+     * Number of data rows read from the file.
+     */
+    private long rowsRead;
+
+    /**
+     * Number of new countries written to the database.
+     */
+    private long countriesInserted;
+
+    /**
+     * Number of distinct countries that already existed in the database.
+     */
+    private long countriesSkipped;
+
+    /**
+     * Number of new SWIFT codes written to the database.
+     */
+    private long swiftCodesInserted;
+
+    /**
+     * Number of SWIFT codes that already existed in the database (or were repeated in the file).
+     */
+    private long swiftCodesSkipped;
+
+    /**
+     * Number of existing SWIFT codes whose values changed and were updated (delta import only).
+     */
+    private long swiftCodesUpdated;
+
+    /**
+     * Number of SWIFT codes missing from the file and deleted from the database (delta import only).
+     */
+    private long swiftCodesDeleted;
+
+    /**
+     * Number of existing SWIFT codes whose values did not change and were not written (delta import only).
+     */
+    private long swiftCodesUnchanged;
+
+    /**
+     * Number of existing countries whose name or time zone changed and were updated (delta import only).
+     */
+    private long countriesUpdated;
+}
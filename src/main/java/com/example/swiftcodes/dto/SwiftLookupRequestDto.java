@@ -0,0 +1,21 @@
+package com.example.swiftcodes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for a bulk lookup request resolving many SWIFT codes at once.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SwiftLookupRequestDto {
+
+    /**
+     * The SWIFT codes to resolve. Duplicates are resolved once.
+     */
+    private List<String> swiftCodes;
+}
@@ -0,0 +1,18 @@
+package com.example.swiftcodes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the response of a bulk lookup, with one result per distinct requested SWIFT code in request order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SwiftLookupResponseDto {
+
+    private List<SwiftLookupResultDto> results;
+}
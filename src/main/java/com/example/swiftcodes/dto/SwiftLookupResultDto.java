@@ -0,0 +1,31 @@
+package com.example.swiftcodes.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the result of resolving a single SWIFT code in a bulk lookup.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL) // Details are omitted for codes that were not found
+public class SwiftLookupResultDto {
+
+    /**
+     * The requested SWIFT code.
+     */
+    private String swiftCode;
+
+    /**
+     * Flag indicating whether the SWIFT code exists.
+     */
+    private boolean found;
+
+    /**
+     * The SWIFT code details, the same as returned by the single code lookup, or {@code null} if not found.
+     */
+    private SwiftResponseDto details;
+}
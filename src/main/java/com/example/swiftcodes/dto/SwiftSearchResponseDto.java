@@ -0,0 +1,31 @@
+package com.example.swiftcodes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO representing the results of a search by bank name, town and address, best matches first.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SwiftSearchResponseDto {
+
+    /**
+     * The searched text.
+     */
+    private String query;
+
+    /**
+     * The ISO2 code of the country the search was restricted to, or {@code null} for all countries.
+     */
+    private String countryISO2;
+
+    /**
+     * The matching SWIFT codes, best matches first.
+     */
+    private List<SwiftSearchResultDto> results;
+}
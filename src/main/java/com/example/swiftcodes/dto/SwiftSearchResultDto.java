@@ -0,0 +1,48 @@
+package com.example.swiftcodes.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO representing one SWIFT code matched by a search.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SwiftSearchResultDto {
+
+    /**
+     * The SWIFT code.
+     */
+    private String swiftCode;
+
+    /**
+     * The name of the bank associated with the SWIFT code.
+     */
+    private String bankName;
+
+    /**
+     * The address of the bank branch.
+     */
+    private String address;
+
+    /**
+     * The town of the bank branch.
+     */
+    private String townName;
+
+    /**
+     * The ISO 2-letter code of the country where the bank branch is located.
+     */
+    private String countryISO2;
+
+    /**
+     * Flag indicating whether the branch is the headquarters of the bank.
+     *
+     * This field is mapped to the JSON property "isHeadquarter".
+     */
+    @JsonProperty("isHeadquarter")
+    private boolean isHeadquarter;
+}
@@ -0,0 +1,66 @@
+package com.example.swiftcodes.event;
+
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * Event published after SWIFT code data has been written to the database.
+ * Components keeping derived data in memory listen to it to drop or refresh the affected entries.
+ */
+@Getter
+public class SwiftDataChangedEvent {
+
+    /**
+     * SWIFT codes that were added or removed. Empty when {@link #isFullRefresh()} is {@code true}.
+     */
+    private final Set<String> swiftCodes;
+
+    /**
+     * Flag indicating that an unknown number of rows changed (e.g. after an import)
+     * and all derived data should be treated as stale.
+     */
+    private final boolean fullRefresh;
+
+    /**
+     * ISO2 codes of the countries whose SWIFT codes changed in a full refresh, when they are known
+     * (e.g. the countries of the imported rows). Empty if any country may have changed.
+     */
+    private final Set<String> countryISO2Codes;
+
+    private SwiftDataChangedEvent(Set<String> swiftCodes, boolean fullRefresh, Set<String> countryISO2Codes) {
+        this.swiftCodes = swiftCodes;
+        this.fullRefresh = fullRefresh;
+        this.countryISO2Codes = countryISO2Codes;
+    }
+
+    /**
+     * Creates an event for a known set of changed SWIFT codes.
+     *
+     * @param swiftCodes the SWIFT codes that were added or removed
+     * @return the event
+     */
+    public static SwiftDataChangedEvent of(String... swiftCodes) {
+        return new SwiftDataChangedEvent(Set.of(swiftCodes), false, Set.of());
+    }
+
+    /**
+     * Creates an event signalling that the whole data set may have changed.
+     *
+     * @return the event
+     */
+    public static SwiftDataChangedEvent fullRefresh() {
+        return new SwiftDataChangedEvent(Set.of(), true, Set.of());
+    }
+
+    /**
+     * Creates an event signalling that an unknown number of SWIFT codes of the given countries changed.
+     * Listeners that cannot tell the countries apart treat it as {@link #fullRefresh()}.
+     *
+     * @param countryISO2Codes the ISO2 codes of the affected countries
+     * @return the event
+     */
+    public static SwiftDataChangedEvent fullRefresh(Set<String> countryISO2Codes) {
+        return new SwiftDataChangedEvent(Set.of(), true, Set.copyOf(countryISO2Codes));
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.swiftcodes.event;
+
+import lombok.Getter;
+
+/**
+ * Event published when an import starts writing to the database and when it has ended, successfully or not.
+ * An import commits its rows batch by batch and announces them with a {@link SwiftDataChangedEvent} only at the end;
+ * components that must never miss a committed SWIFT code listen to it to stop relying on their derived data meanwhile.
+ */
+@Getter
+public class SwiftImportEvent {
+
+    /**
+     * Flag indicating that the import is starting; {@code false} once it has ended.
+     */
+    private final boolean started;
+
+    private SwiftImportEvent(boolean started) {
+        this.started = started;
+    }
+
+    /**
+     * Creates the event published before the first row of an import is written.
+     *
+     * @return the event
+     */
+    public static SwiftImportEvent started() {
+        return new SwiftImportEvent(true);
+    }
+
+    /**
+     * Creates the event published after an import has ended, after its {@link SwiftDataChangedEvent}.
+     *
+     * @return the event
+     */
+    public static SwiftImportEvent finished() {
+        return new SwiftImportEvent(false);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.swiftcodes.importer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Hands batches from a producing thread to a pool of writer threads through a bounded queue.
+ *
+ * <p>The producer blocks in {@link #submit(Object)} while the queue is full, so at most
+ * {@code capacity + workers} batches are in memory besides the one being filled, however fast the producer is.
+ * The first exception thrown by the writer stops the pipeline: the remaining queued batches are discarded and the
+ * exception is rethrown to the producer by the next {@link #submit(Object)} or by {@link #finish()}. An error, such as
+ * an {@link OutOfMemoryError}, stops it the same way and is rethrown wrapped in an {@link IllegalStateException},
+ * so that it fails the import like any other write failure.</p>
+ *
+ * <p>With zero workers every batch is written on the producing thread inside {@link #submit(Object)}.</p>
+ *
+ * @param <B> the type of the batches
+ */
+public class BatchPipeline<B> implements AutoCloseable {
+
+    private static final Object END = new Object();
+
+    private final Consumer<B> writer;
+    private final BlockingQueue<Object> queue;
+    private final List<Thread> workers = new ArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private boolean closed;
+
+    /**
+     * Starts the writer threads.
+     *
+     * @param threadNamePrefix prefix of the names of the writer threads
+     * @param workers          the number of writer threads, 0 to write on the producing thread
+     * @param capacity         the number of batches that may wait for a writer
+     * @param writer           writes one batch; called concurrently by all writer threads
+     */
+    public BatchPipeline(String threadNamePrefix, int workers, int capacity, Consumer<B> writer) {
+        this.writer = writer;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        for (int i = 1; i <= workers; i++) {
+            Thread thread = new Thread(this::work, threadNamePrefix + i);
+            thread.setDaemon(true);
+            this.workers.add(thread);
+            thread.start();
+        }
+    }
+
+    /**
+     * Queues a batch for the writers, waiting while the queue is full.
+     *
+     * @param batch the batch to write; must not be modified afterwards
+     * @throws RuntimeException      the exception of a failed write
+     * @throws IllegalStateException if the thread is interrupted while waiting, or wrapping the error of a failed write
+     */
+    public void submit(B batch) {
+        throwIfFailed();
+        if (workers.isEmpty()) {
+            writer.accept(batch);
+            return;
+        }
+        try {
+            queue.put(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a batch writer", e);
+        }
+    }
+
+    /**
+     * Waits until all submitted batches are written and the writer threads have stopped.
+     *
+     * @throws RuntimeException the exception of a failed write, or an {@link IllegalStateException} wrapping its error
+     */
+    public void finish() {
+        close();
+        throwIfFailed();
+    }
+
+    /**
+     * Lets the writers complete the queued batches and waits for them to stop, without reporting a failed write.
+     * If the calling thread is interrupted the writers are interrupted too.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            for (int i = 0; i < workers.size(); i++) {
+                queue.put(END);
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        } catch (InterruptedException e) {
+            workers.forEach(Thread::interrupt);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void throwIfFailed() {
+        Throwable e = failure.get();
+        if (e instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (e != null) {
+            throw new IllegalStateException("Batch writer failed: " + e, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void work() {
+        try {
+            Object batch;
+            while ((batch = queue.take()) != END) {
+                // After a failure the queue is still drained, so that the producer never blocks on a full queue
+                if (failure.get() == null) {
+                    try {
+                        writer.accept((B) batch);
+                    } catch (Throwable e) {
+                        // Errors too: a worker that died would leave the producer blocked on a full queue
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
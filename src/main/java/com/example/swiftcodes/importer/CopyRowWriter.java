@@ -0,0 +1,73 @@
+package com.example.swiftcodes.importer;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes rows in the text format of PostgreSQL {@code COPY ... FROM STDIN}: UTF-8, one line per row,
+ * columns separated by tabs, {@code \N} for {@code null} and backslash escapes for tabs, line breaks and backslashes.
+ */
+public class CopyRowWriter implements Closeable {
+
+    private final Writer out;
+
+    /**
+     * Creates a writer of the given stream, e.g. a {@code PGCopyOutputStream}.
+     *
+     * @param out the stream receiving the COPY data
+     */
+    public CopyRowWriter(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    /**
+     * Writes one row. Booleans are written as {@code t} / {@code f}, other values with {@link Object#toString()}.
+     *
+     * @param values the column values, in the column order of the COPY statement
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeRow(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write('\t');
+            }
+            Object value = values[i];
+            if (value == null) {
+                out.write("\\N");
+            } else if (value instanceof Boolean flag) {
+                out.write(flag ? 't' : 'f');
+            } else {
+                writeEscaped(value.toString());
+            }
+        }
+        out.write('\n');
+    }
+
+    /**
+     * Writes the buffered rows and closes the stream, which completes the COPY.
+     *
+     * @throws IOException if the stream cannot be written or the COPY fails
+     */
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeEscaped(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.write("\\\\");
+                case '\t' -> out.write("\\t");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                default -> out.write(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.swiftcodes.importer;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Streaming reader for CSV and TSV files with the column layout of the SWIFT code sheet.
+ *
+ * <p>The file is read through a {@link FileChannel} into one reusable buffer and parsed byte by byte, so apart from
+ * the strings of the stored columns nothing is allocated per row. Fields may be quoted as in RFC 4180
+ * ({@code "a, b"}, {@code "say ""hi"""}), quoted fields may contain line breaks. The file must be UTF-8,
+ * a leading byte order mark is ignored.</p>
+ */
+@Component
+public class DelimitedRowReader {
+
+    private static final int COLUMN_COUNT = 8;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int EOF = -1;
+
+    /**
+     * Parses the file and passes every data row (the header line is skipped) to the consumer.
+     * Rows without a SWIFT code are ignored and empty fields are read as {@code null}.
+     *
+     * @param file      path of the file to read
+     * @param delimiter the field delimiter, {@code ','} for CSV and {@code '\t'} for TSV
+     * @param consumer  callback receiving the parsed rows in file order
+     * @throws IOException if the file cannot be read or a quoted field is malformed
+     */
+    public void read(Path file, char delimiter, Consumer<ImportRow> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            new Parser(channel, (byte) delimiter).parse(consumer);
+        }
+    }
+
+    /**
+     * Parser state for a single file.
+     */
+    private static class Parser {
+
+        private final FileChannel channel;
+        private final byte delimiter;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private final String[] cells = new String[COLUMN_COUNT];
+        private byte[] field = new byte[256];
+        private int fieldLength;
+        private long line = 1;
+
+        Parser(FileChannel channel, byte delimiter) {
+            this.channel = channel;
+            this.delimiter = delimiter;
+            buffer.flip();
+        }
+
+        void parse(Consumer<ImportRow> consumer) throws IOException {
+            skipByteOrderMark();
+            boolean header = true;
+            int next = peek();
+            while (next != EOF) {
+                readRow();
+                // Skip the header line and rows without a SWIFT code
+                if (!header && cells[1] != null && !cells[1].isBlank()) {
+                    consumer.accept(new ImportRow(cells[0], cells[1], cells[3], cells[4], cells[5], cells[6], cells[7]));
+                }
+                header = false;
+                next = peek();
+            }
+        }
+
+        /**
+         * Reads the fields of one line into {@link #cells}, consuming the line break.
+         */
+        private void readRow() throws IOException {
+            Arrays.fill(cells, null);
+            int column = 0;
+            while (true) {
+                int terminator = readField();
+                if (column < COLUMN_COUNT && column != 2 && fieldLength > 0) {
+                    // The code type (column 2) is not stored, so its string is never created
+                    cells[column] = new String(field, 0, fieldLength, StandardCharsets.UTF_8);
+                }
+                column++;
+                if (terminator != delimiter) {
+                    if (terminator == '\r' && peek() == '\n') {
+                        read();
+                    }
+                    line++;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Reads one field into {@link #field} and returns the byte that ended it: the delimiter,
+         * {@code '\r'}, {@code '\n'} or {@link #EOF}.
+         */
+        private int readField() throws IOException {
+            fieldLength = 0;
+            int b = read();
+            if (b != '"') {
+                while (b != delimiter && b != '\n' && b != '\r' && b != EOF) {
+                    append(b);
+                    b = read();
+                }
+                return b;
+            }
+
+            long startLine = line;
+            while (true) {
+                b = read();
+                if (b == EOF) {
+                    throw new IOException("Unterminated quoted field starting on line " + startLine);
+                }
+                if (b == '"') {
+                    if (peek() != '"') {
+                        break;
+                    }
+                    read();
+                } else if (b == '\n') {
+                    line++;
+                }
+                append(b);
+            }
+            b = read();
+            if (b != delimiter && b != '\n' && b != '\r' && b != EOF) {
+                throw new IOException("Unexpected character after quoted field on line " + line);
+            }
+            return b;
+        }
+
+        private void append(int b) {
+            if (fieldLength == field.length) {
+                field = Arrays.copyOf(field, field.length * 2);
+            }
+            field[fieldLength++] = (byte) b;
+        }
+
+        private void skipByteOrderMark() throws IOException {
+            if (fill() && buffer.remaining() >= 3
+                    && buffer.get(buffer.position()) == (byte) 0xEF
+                    && buffer.get(buffer.position() + 1) == (byte) 0xBB
+                    && buffer.get(buffer.position() + 2) == (byte) 0xBF) {
+                buffer.position(buffer.position() + 3);
+            }
+        }
+
+        private int read() throws IOException {
+            return fill() ? buffer.get() & 0xFF : EOF;
+        }
+
+        private int peek() throws IOException {
+            return fill() ? buffer.get(buffer.position()) & 0xFF : EOF;
+        }
+
+        /**
+         * Makes sure the buffer has at least one unread byte, reading the next chunk of the file if needed.
+         *
+         * @return {@code false} at the end of the file
+         */
+        private boolean fill() throws IOException {
+            if (buffer.hasRemaining()) {
+                return true;
+            }
+            buffer.clear();
+            int read;
+            do {
+                read = channel.read(buffer);
+            } while (read == 0);
+            buffer.flip();
+            return read > 0;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.swiftcodes.importer;
+
+import java.util.Locale;
+
+/**
+ * File formats accepted by the import. All formats use the column layout of the SWIFT code sheet.
+ */
+public enum ImportFormat {
+
+    XLSX(".xlsx"),
+    CSV(".csv"),
+    TSV(".tsv");
+
+    private final String extension;
+
+    ImportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Determines the format from the extension of a file name.
+     * Files without a known extension are treated as XLSX, the original import format.
+     *
+     * @param fileName the name of the uploaded file, may be {@code null}
+     * @return the format of the file
+     */
+    public static ImportFormat fromFileName(String fileName) {
+        if (fileName != null) {
+            String lowerCase = fileName.toLowerCase(Locale.ROOT);
+            for (ImportFormat format : values()) {
+                if (lowerCase.endsWith(format.extension)) {
+                    return format;
+                }
+            }
+        }
+        return XLSX;
+    }
+}
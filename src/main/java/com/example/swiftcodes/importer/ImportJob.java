@@ -0,0 +1,81 @@
+package com.example.swiftcodes.importer;
+
+import com.example.swiftcodes.dto.ImportSummaryDto;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * State of an import running in the background.
+ * The status fields are written by the importing thread and read by status requests, hence they are volatile.
+ */
+@Getter
+public class ImportJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id;
+    private final String fileName;
+    private final Instant submittedAt;
+    private final ImportProgress progress = new ImportProgress();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private volatile ImportSummaryDto summary;
+
+    public ImportJob(String id, String fileName) {
+        this.id = id;
+        this.fileName = fileName;
+        this.submittedAt = Instant.now();
+    }
+
+    /**
+     * Marks the job as started.
+     */
+    public void start() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    /**
+     * Marks the job as successfully finished.
+     *
+     * @param summary the result of the import
+     */
+    public void complete(ImportSummaryDto summary) {
+        this.summary = summary;
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    /**
+     * Marks the job as failed.
+     *
+     * @param error description of the failure
+     */
+    public void fail(String error) {
+        this.error = error;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+
+    /**
+     * Returns the number of parsed rows per second since the job started.
+     *
+     * @return the throughput, or 0 if the job has not started yet
+     */
+    public double getRowsPerSecond() {
+        Instant start = startedAt;
+        if (start == null) {
+            return 0;
+        }
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = Math.max(1, Duration.between(start, end).toMillis());
+        return progress.getRowsParsed() * 1000.0 / millis;
+    }
+}
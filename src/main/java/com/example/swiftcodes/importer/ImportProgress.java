@@ -0,0 +1,36 @@
+package com.example.swiftcodes.importer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of a running import, updated by the importing thread and read concurrently by status requests.
+ */
+public class ImportProgress {
+
+    private final AtomicLong rowsParsed = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+
+    /**
+     * Records a row read from the file.
+     */
+    public void rowParsed() {
+        rowsParsed.incrementAndGet();
+    }
+
+    /**
+     * Records rows sent to the database, whether they were inserted or skipped.
+     *
+     * @param count the number of rows
+     */
+    public void rowsWritten(long count) {
+        rowsWritten.addAndGet(count);
+    }
+
+    public long getRowsParsed() {
+        return rowsParsed.get();
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten.get();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.swiftcodes.importer;
+
+import com.example.swiftcodes.model.CountryModel;
+import com.example.swiftcodes.model.SwiftModel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A single parsed row of the SWIFT code import sheet.
+ * The columns follow the layout of the sheet: ISO2 code, SWIFT code, code type, bank name,
+ * address, town name, country name and time zone (the code type is not stored).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRow {
+
+    private String countryIso2Code;
+    private String swiftCode;
+    private String bankName;
+    private String address;
+    private String townName;
+    private String countryName;
+    private String timeZone;
+
+    /**
+     * Creates the country described by this row.
+     *
+     * @return the CountryModel for this row
+     */
+    public CountryModel toCountry() {
+        return new CountryModel(countryIso2Code, countryName, timeZone);
+    }
+
+    /**
+     * Creates the SWIFT code described by this row.
+     * Codes ending with "XXX" are headquarters.
+     *
+     * @return the SwiftModel for this row
+     */
+    public SwiftModel toSwift() {
+        boolean isHeadquarter = swiftCode.endsWith("XXX");
+        return new SwiftModel(swiftCode, bankName, address, townName, countryIso2Code, isHeadquarter);
+    }
+}
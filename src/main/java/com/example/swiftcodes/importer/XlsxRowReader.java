@@ -0,0 +1,105 @@
+package com.example.swiftcodes.importer;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.stereotype.Component;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Streaming reader for the SWIFT code XLSX sheet.
+ * Uses the XSSF event (SAX) model, so rows are handed to the consumer while the sheet XML is parsed
+ * and no workbook object model is built. Memory use does not depend on the number of rows.
+ */
+@Component
+public class XlsxRowReader {
+
+    private static final int COLUMN_COUNT = 8;
+
+    /**
+     * Parses the first sheet of the workbook and passes every data row (the header row is skipped) to the consumer.
+     * Rows without a SWIFT code are ignored.
+     *
+     * @param file     path of the XLSX file to read
+     * @param consumer callback receiving the parsed rows in sheet order
+     * @throws IOException if the file cannot be read or is not a valid XLSX workbook
+     */
+    public void read(Path file, Consumer<ImportRow> consumer) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg);
+
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(), null, sharedStrings,
+                        new RowHandler(consumer), new DataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Invalid XLSX file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Collects the cells of the current row and emits an {@link ImportRow} when the row ends.
+     */
+    private static class RowHandler implements SheetContentsHandler {
+
+        private final Consumer<ImportRow> consumer;
+        private final String[] cells = new String[COLUMN_COUNT];
+        private int currentRow;
+        private int nextColumn;
+
+        RowHandler(Consumer<ImportRow> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            currentRow = rowNum;
+            nextColumn = 0;
+            Arrays.fill(cells, null);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            // The reference may be missing for cells written without the "r" attribute
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : nextColumn;
+            nextColumn = column + 1;
+            if (column < COLUMN_COUNT) {
+                cells[column] = formattedValue;
+            }
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            // Skip the header row and rows without a SWIFT code
+            if (currentRow == 0 || cells[1] == null || cells[1].isBlank()) {
+                return;
+            }
+            consumer.accept(new ImportRow(cells[0], cells[1], cells[3], cells[4], cells[5], cells[6], cells[7]));
+        }
+    }
+}
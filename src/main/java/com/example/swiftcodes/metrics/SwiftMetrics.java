@@ -0,0 +1,172 @@
+package com.example.swiftcodes.metrics;
+
+import com.example.swiftcodes.bulkhead.EndpointBulkhead;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application metrics that are not covered by the Spring Boot instrumentation.
+ *
+ * <p>Endpoint latency ({@code http.server.requests}) and repository query latency
+ * ({@code spring.data.repository.invocations}) are recorded by Spring Boot itself; this class adds the error
+ * counters of the API, the import metrics, the lookups saved by the SWIFT code filter and the occupancy of the
+ * endpoint bulkheads. Meters are registered
+ * once and reused, so recording a value does not look up the registry.</p>
+ */
+@Component
+public class SwiftMetrics {
+
+    private final MeterRegistry registry;
+    private final Map<String, Counter> errorCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> bulkheadRejections = new ConcurrentHashMap<>();
+    private final Map<String, Timer> bulkheadWaits = new ConcurrentHashMap<>();
+    private final Timer importBatchTimer;
+    private final Counter importedRows;
+    private final DistributionSummary importThroughput;
+    private final Counter filteredLookups;
+
+    /**
+     * Registers the import and lookup meters.
+     *
+     * @param registry the registry the meters are published to
+     */
+    public SwiftMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.importBatchTimer = Timer.builder("swift.import.batch")
+                .description("Time of writing one JDBC batch of imported rows")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.importedRows = Counter.builder("swift.import.rows")
+                .description("Rows written by imports")
+                .register(registry);
+        this.importThroughput = DistributionSummary.builder("swift.import.throughput")
+                .description("Rows per second of finished imports")
+                .baseUnit("rows/s")
+                .register(registry);
+        this.filteredLookups = Counter.builder("swift.lookup.filtered")
+                .description("Lookups of unknown SWIFT codes answered by the Bloom filter without a database query")
+                .register(registry);
+    }
+
+    /**
+     * Counts a response with status 404.
+     *
+     * @param endpoint name of the controller method
+     */
+    public void notFound(String endpoint) {
+        errorCounter(endpoint, "404").increment();
+    }
+
+    /**
+     * Counts a response with status 500.
+     *
+     * @param endpoint name of the controller method
+     */
+    public void serverError(String endpoint) {
+        errorCounter(endpoint, "500").increment();
+    }
+
+    /**
+     * Records a JDBC batch written by an import.
+     *
+     * @param rows  the number of SWIFT code rows in the batch
+     * @param nanos the time of writing the batch
+     */
+    public void importBatch(int rows, long nanos) {
+        importBatchTimer.record(nanos, TimeUnit.NANOSECONDS);
+        importedRows.increment(rows);
+    }
+
+    /**
+     * Counts rows written by an import without JDBC batches, like a {@code COPY} import committed in one transaction.
+     *
+     * @param rows the number of committed SWIFT code rows
+     */
+    public void importRows(long rows) {
+        importedRows.increment(rows);
+    }
+
+    /**
+     * Records the throughput of a finished import.
+     *
+     * @param rows  the number of rows read
+     * @param nanos the duration of the whole import
+     */
+    public void importFinished(long rows, long nanos) {
+        if (nanos > 0) {
+            importThroughput.record(rows * 1e9 / nanos);
+        }
+    }
+
+    /**
+     * Counts a lookup that the SWIFT code filter answered without querying the database.
+     */
+    public void lookupFiltered() {
+        filteredLookups.increment();
+    }
+
+    /**
+     * Publishes the limit, the requests in progress and the waiting requests of an endpoint group.
+     *
+     * @param group    the name of the endpoint group
+     * @param bulkhead the concurrency limit of the group
+     */
+    public void registerBulkhead(String group, EndpointBulkhead bulkhead) {
+        Gauge.builder("swift.bulkhead.limit", bulkhead, EndpointBulkhead::getMaxConcurrent)
+                .description("Maximum number of concurrent requests of the endpoint group")
+                .tag("group", group)
+                .register(registry);
+        Gauge.builder("swift.bulkhead.active", bulkhead, EndpointBulkhead::getActive)
+                .description("Requests of the endpoint group in progress")
+                .tag("group", group)
+                .register(registry);
+        Gauge.builder("swift.bulkhead.waiting", bulkhead, EndpointBulkhead::getWaiting)
+                .description("Requests of the endpoint group waiting for a free slot")
+                .tag("group", group)
+                .register(registry);
+    }
+
+    /**
+     * Records a request admitted by the bulkhead of its endpoint group.
+     *
+     * @param group the name of the endpoint group
+     * @param nanos the time the request waited for a free slot
+     */
+    public void bulkheadAdmitted(String group, long nanos) {
+        bulkheadWaits.computeIfAbsent(group, key -> Timer.builder("swift.bulkhead.wait")
+                .description("Time requests of the endpoint group waited for a free slot")
+                .tag("group", group)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofSeconds(1))
+                .register(registry)).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts a request answered with 429 because its endpoint group had no free slot.
+     *
+     * @param group the name of the endpoint group
+     */
+    public void bulkheadRejected(String group) {
+        bulkheadRejections.computeIfAbsent(group, key -> Counter.builder("swift.bulkhead.rejected")
+                .description("Requests rejected because all slots of the endpoint group were taken")
+                .tag("group", group)
+                .register(registry)).increment();
+    }
+
+    private Counter errorCounter(String endpoint, String status) {
+        return errorCounters.computeIfAbsent(endpoint + ':' + status, key -> Counter.builder("swift.api.errors")
+                .description("Error responses of the SWIFT code API")
+                .tag("endpoint", endpoint)
+                .tag("status", status)
+                .register(registry));
+    }
+}
@@ -1,27 +1,50 @@
 package com.example.swiftcodes.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
-import lombok.AllArgsConstructor;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 /**
  * Model reprezentujący dane SWIFT.
  * Zawiera informacje o kodzie SWIFT, nazwie banku, adresie, mieście, kodzie kraju i informacji o centrali banku.
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_swift_model_bank_code", columnList = "bank_code"),
+        // Stronicowanie kodów kraju po kursorze: WHERE iso2code = ? AND swift_code > ? ORDER BY swift_code
+        @Index(name = "idx_swift_model_country_code", columnList = "iso2Code, swiftCode")
+})
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class SwiftModel {
 
+    /**
+     * Długość kodu banku, czyli pierwszych 8 znaków kodu SWIFT (instytucja, kraj i lokalizacja).
+     */
+    public static final int BANK_CODE_LENGTH = 8;
+
     /**
      * Kod SWIFT (unikalny identyfikator banku).
      */
     @Id
     private String swiftCode;
 
+    /**
+     * Kod banku (pierwsze 8 znaków kodu SWIFT), wspólny dla centrali i jej oddziałów.
+     * Wyliczany z kodu SWIFT i indeksowany, aby wyszukiwanie oddziałów korzystało z indeksu.
+     */
+    @Column(name = "bank_code", length = BANK_CODE_LENGTH)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private String bankCode;
+
     /**
      * Nazwa banku.
      */
@@ -47,4 +70,35 @@ public class SwiftModel {
      */
     private boolean isHeadquarter;
 
-}
\ No newline at end of file
+    public SwiftModel(String swiftCode, String bankName, String address, String townName, String iso2Code, boolean isHeadquarter) {
+        setSwiftCode(swiftCode);
+        this.bankName = bankName;
+        this.address = address;
+        this.townName = townName;
+        this.iso2Code = iso2Code;
+        this.isHeadquarter = isHeadquarter;
+    }
+
+    /**
+     * Ustawia kod SWIFT razem z wyliczonym z niego kodem banku.
+     *
+     * @param swiftCode kod SWIFT
+     */
+    public void setSwiftCode(String swiftCode) {
+        this.swiftCode = swiftCode;
+        this.bankCode = bankCodeOf(swiftCode);
+    }
+
+    /**
+     * Zwraca kod banku, czyli pierwsze 8 znaków kodu SWIFT.
+     *
+     * @param swiftCode kod SWIFT
+     * @return kod banku lub {@code null}, jeśli kod SWIFT jest {@code null}
+     */
+    public static String bankCodeOf(String swiftCode) {
+        if (swiftCode == null || swiftCode.length() <= BANK_CODE_LENGTH) {
+            return swiftCode;
+        }
+        return swiftCode.substring(0, BANK_CODE_LENGTH);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.swiftcodes.repository;
+
+import com.example.swiftcodes.config.SwiftProperties;
+import com.example.swiftcodes.dto.BranchDto;
+import com.example.swiftcodes.dto.SwiftResponseDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.function.Consumer;
+
+/**
+ * Reads SWIFT codes through a forward-only JDBC cursor, handing every row to a consumer as it arrives.
+ *
+ * <p>The PostgreSQL driver only fetches rows in chunks of {@code swift.cursor.fetch-size} inside a transaction,
+ * otherwise it loads the whole result set into memory; every read therefore runs in a read-only transaction.</p>
+ */
+@Repository
+public class SwiftCursorRepository {
+
+    // Kody SWIFT kraju w kolejności kodu, od kodu następującego po kursorze (indeks na iso2code, swift_code)
+    private static final String SELECT_BY_COUNTRY =
+            "SELECT swift_code, bank_name, address, iso2code, is_headquarter FROM swift_model " +
+            "WHERE iso2code = ? AND swift_code > ? ORDER BY swift_code";
+
+    // Wszystkie kody SWIFT razem z nazwą kraju, w kolejności odczytu z tabeli (bez sortowania)
+    private static final String SELECT_ALL_WITH_COUNTRY =
+            "SELECT s.swift_code, s.bank_name, s.address, c.iso2code, c.name, s.is_headquarter " +
+            "FROM swift_model s JOIN country_model c ON s.iso2code = c.iso2code";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Constructor for SwiftCursorRepository.
+     *
+     * @param dataSource         the data source to read from
+     * @param transactionManager the transaction manager used to open the read-only transactions
+     * @param properties         the application settings, providing the fetch size
+     */
+    public SwiftCursorRepository(DataSource dataSource,
+                                 PlatformTransactionManager transactionManager,
+                                 SwiftProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.getCursor().getFetchSize());
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Passes the SWIFT codes of a country to the consumer in SWIFT code order.
+     *
+     * @param countryISO2 the ISO2 code of the country
+     * @param after       only codes after this one are read; {@code null} reads from the beginning
+     * @param consumer    receives every row as it is read
+     */
+    public void forEachByCountry(String countryISO2, String after, Consumer<BranchDto> consumer) {
+        RowCallbackHandler handler = rs -> consumer.accept(new BranchDto(rs.getString("swift_code"),
+                rs.getString("bank_name"), rs.getString("address"), rs.getString("iso2code"), rs.getBoolean("is_headquarter")));
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.query(SELECT_BY_COUNTRY, handler, countryISO2, after != null ? after : ""));
+    }
+
+    /**
+     * Passes every SWIFT code with its country to the consumer, in no particular order.
+     *
+     * @param consumer receives every row as it is read; the branch list is always {@code null}
+     */
+    public void forEachWithCountry(Consumer<SwiftResponseDto> consumer) {
+        RowCallbackHandler handler = rs -> consumer.accept(new SwiftResponseDto(rs.getString("swift_code"),
+                rs.getString("bank_name"), rs.getString("address"), rs.getString("iso2code"), rs.getString("name"),
+                rs.getBoolean("is_headquarter"), null));
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(SELECT_ALL_WITH_COUNTRY, handler));
+    }
+
+    /**
+     * Runs a query through the cursor, for components that load large tables into their own structures
+     * without a DTO per row.
+     *
+     * @param sql     the query
+     * @param handler receives every row as it is read
+     * @param args    the arguments of the query
+     */
+    public void forEachRow(String sql, RowCallbackHandler handler, Object... args) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(sql, handler, args));
+    }
+}
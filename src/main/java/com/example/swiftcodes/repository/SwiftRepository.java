@@ -3,10 +3,12 @@ package com.example.swiftcodes.repository;
 import com.example.swiftcodes.dto.BranchDto;
 import com.example.swiftcodes.dto.SwiftResponseDto;
 import com.example.swiftcodes.model.SwiftModel;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -18,14 +20,39 @@ public interface SwiftRepository extends CrudRepository<SwiftModel, String> {
             "WHERE s.swiftCode = :swiftCode")
     SwiftResponseDto findBySwiftCodeWithCountry(String swiftCode);
 
-    // Pobieramy listę oddziałów jako BranchDto (bez countryName)
+    // Pobieramy kod SWIFT razem z pozostałymi kodami banku, jeśli jest centralą, w jednym zapytaniu
+    // (wiersz szukanego kodu oraz po jednym wierszu na oddział; dla oddziału tylko jego własny wiersz).
+    // Złączenie po samym kodzie banku (własny wiersz ma ten sam kod banku) korzysta z indeksu także w H2
+    @Query("SELECT new com.example.swiftcodes.dto.SwiftResponseDto(b.swiftCode, b.bankName, b.address, " +
+            "c.iso2Code, c.name, b.isHeadquarter, null) " +
+            "FROM SwiftModel s JOIN SwiftModel b ON b.bankCode = s.bankCode " +
+            "AND (s.isHeadquarter = true OR b.swiftCode = s.swiftCode) " +
+            "JOIN CountryModel c ON b.iso2Code = c.iso2Code " +
+            "WHERE s.swiftCode = :swiftCode")
+    List<SwiftResponseDto> findBySwiftCodeWithBranches(String swiftCode);
+
+    // Pobieramy listę oddziałów jako BranchDto (bez countryName), korzystając z indeksu na kodzie banku
     @Query("SELECT new com.example.swiftcodes.dto.BranchDto(s.swiftCode, s.bankName, s.address, " +
             "c.iso2Code, s.isHeadquarter) " +
             "FROM SwiftModel s JOIN CountryModel c ON s.iso2Code = c.iso2Code " +
-            "WHERE SUBSTRING(s.swiftCode, 1, 8) = SUBSTRING(:swiftCode, 1, 8) " +
+            "WHERE s.bankCode = SUBSTRING(:swiftCode, 1, 8) " +
             "AND s.swiftCode <> :swiftCode")
     List<BranchDto> findBranchesBySwiftPrefix(String swiftCode);
 
+    // Pobieramy szczegóły wielu kodów SWIFT jednym zapytaniem
+    @Query("SELECT new com.example.swiftcodes.dto.SwiftResponseDto(s.swiftCode, s.bankName, s.address, " +
+            "c.iso2Code, c.name, s.isHeadquarter, null) " +
+            "FROM SwiftModel s JOIN CountryModel c ON s.iso2Code = c.iso2Code " +
+            "WHERE s.swiftCode IN :swiftCodes")
+    List<SwiftResponseDto> findAllBySwiftCodesWithCountry(Collection<String> swiftCodes);
+
+    // Pobieramy wszystkie kody SWIFT banków o podanych kodach banku (centrale razem z oddziałami)
+    @Query("SELECT new com.example.swiftcodes.dto.BranchDto(s.swiftCode, s.bankName, s.address, " +
+            "c.iso2Code, s.isHeadquarter) " +
+            "FROM SwiftModel s JOIN CountryModel c ON s.iso2Code = c.iso2Code " +
+            "WHERE s.bankCode IN :bankCodes")
+    List<BranchDto> findAllByBankCodes(Collection<String> bankCodes);
+
 
     // Zapytanie do bazy o nazwę kraju na podstawie iso2Code
     @Query("SELECT c.name FROM CountryModel c WHERE c.iso2Code = :countryISO2")
@@ -36,4 +63,11 @@ public interface SwiftRepository extends CrudRepository<SwiftModel, String> {
             "s.iso2Code, s.isHeadquarter) " +
             "FROM SwiftModel s WHERE s.iso2Code = :countryISO2")
     List<BranchDto> findSwiftCodesByCountryISO2(String countryISO2);
-}
\ No newline at end of file
+
+    // Pobieramy stronę kodów SWIFT kraju po kodzie z kursora, w kolejności kodu (indeks na iso2code, swift_code)
+    @Query("SELECT new com.example.swiftcodes.dto.BranchDto(s.swiftCode, s.bankName, s.address, " +
+            "s.iso2Code, s.isHeadquarter) " +
+            "FROM SwiftModel s WHERE s.iso2Code = :countryISO2 AND s.swiftCode > :after " +
+            "ORDER BY s.swiftCode")
+    List<BranchDto> findSwiftCodesByCountryISO2After(String countryISO2, String after, Limit limit);
+}
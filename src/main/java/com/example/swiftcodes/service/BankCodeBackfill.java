@@ -0,0 +1,41 @@
+package com.example.swiftcodes.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills in the bank code of SWIFT codes saved before the {@code bank_code} column existed.
+ * Runs once at startup, after Hibernate has added the column and its index; rows that already
+ * have a bank code are not touched, so the update is a no-op on an up-to-date database.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class BankCodeBackfill implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BankCodeBackfill.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor for BankCodeBackfill.
+     *
+     * @param jdbcTemplate the JdbcTemplate used for database operations
+     */
+    public BankCodeBackfill(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int updated = jdbcTemplate.update("UPDATE swift_model SET bank_code = SUBSTRING(swift_code, 1, 8) WHERE bank_code IS NULL");
+        if (updated > 0) {
+            logger.info("Filled in the bank code of {} SWIFT codes", updated);
+        }
+    }
+}
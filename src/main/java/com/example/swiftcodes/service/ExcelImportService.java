@@ -1,111 +1,690 @@
 package com.example.swiftcodes.service;
 
+import com.example.swiftcodes.config.SwiftProperties;
+import com.example.swiftcodes.dto.ImportSummaryDto;
+import com.example.swiftcodes.event.SwiftDataChangedEvent;
+import com.example.swiftcodes.event.SwiftImportEvent;
+import com.example.swiftcodes.importer.BatchPipeline;
+import com.example.swiftcodes.importer.CopyRowWriter;
+import com.example.swiftcodes.importer.DelimitedRowReader;
+import com.example.swiftcodes.importer.ImportFormat;
+import com.example.swiftcodes.importer.ImportProgress;
+import com.example.swiftcodes.importer.ImportRow;
+import com.example.swiftcodes.importer.RowHash;
+import com.example.swiftcodes.importer.XlsxRowReader;
+import com.example.swiftcodes.metrics.SwiftMetrics;
 import com.example.swiftcodes.model.CountryModel;
 import com.example.swiftcodes.model.SwiftModel;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
- * Service class responsible for importing SWIFT code and country data from an Excel file.
- * The data is parsed and then saved into the database using JdbcTemplate.
+ * Service class responsible for importing SWIFT code and country data from an Excel, CSV or TSV file.
+ * The file is streamed row by row and saved into the database in JDBC batches using JdbcTemplate,
+ * so memory use stays flat regardless of the size of the file.
+ * A delta import compares the file with the stored rows instead and writes only the differences.
+ * With {@code swift.importer.copy-enabled} the rows are bulk loaded with PostgreSQL {@code COPY} instead of batches.
  */
 @Service
 public class ExcelImportService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ExcelImportService.class);
+
+    private static final String CREATE_STAGING_TABLE = "CREATE TEMPORARY TABLE swift_import_staging (line bigint, " +
+            "swift_code text, bank_code text, bank_name text, address text, town_name text, iso2code text, " +
+            "is_headquarter boolean, country_name text, time_zone text) ON COMMIT DROP";
+
+    private static final String COPY_STAGING_TABLE = "COPY swift_import_staging (line, swift_code, bank_code, bank_name, " +
+            "address, town_name, iso2code, is_headquarter, country_name, time_zone) FROM STDIN";
+
+    // The first row of a repeated ISO2 or SWIFT code wins, like with batched inserts
+    private static final String MERGE_COUNTRIES = "INSERT INTO country_model (iso2code, name, time_zone) " +
+            "SELECT DISTINCT ON (iso2code) iso2code, country_name, time_zone FROM swift_import_staging " +
+            "ORDER BY iso2code, line ON CONFLICT (iso2code) DO NOTHING";
+
+    private static final String MERGE_SWIFTS = "INSERT INTO swift_model (swift_code, bank_code, bank_name, address, " +
+            "town_name, iso2code, is_headquarter) " +
+            "SELECT DISTINCT ON (swift_code) swift_code, bank_code, bank_name, address, town_name, iso2code, is_headquarter " +
+            "FROM swift_import_staging ORDER BY swift_code, line ON CONFLICT (swift_code) DO NOTHING";
+
     private final JdbcTemplate jdbcTemplate;
+    private final XlsxRowReader xlsxRowReader;
+    private final DelimitedRowReader delimitedRowReader;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SwiftMetrics metrics;
+    private final int batchSize;
+    private final int writerThreads;
+    private final int pipelineDepth;
+    private final boolean copyEnabled;
 
     /**
      * Constructor for injecting the JdbcTemplate dependency.
      * This ensures that the JdbcTemplate is provided at object creation time, promoting best practices for testability and immutability.
      *
-     * @param jdbcTemplate the JdbcTemplate used for database operations
+     * @param jdbcTemplate   the JdbcTemplate used for database operations
+     * @param xlsxRowReader  the streaming reader of the XLSX sheet
+     * @param delimitedRowReader the streaming reader of CSV and TSV files
+     * @param properties     the application settings, providing the import batch size and the writer pipeline
+     * @param eventPublisher publisher used to notify other components that the imported data changed
+     * @param metrics        the metrics of the batch latency and import throughput
      */
-    public ExcelImportService(JdbcTemplate jdbcTemplate) {
+    public ExcelImportService(JdbcTemplate jdbcTemplate,
+                              XlsxRowReader xlsxRowReader,
+                              DelimitedRowReader delimitedRowReader,
+                              SwiftProperties properties,
+                              ApplicationEventPublisher eventPublisher,
+                              SwiftMetrics metrics) {
         this.jdbcTemplate = jdbcTemplate;
+        this.xlsxRowReader = xlsxRowReader;
+        this.delimitedRowReader = delimitedRowReader;
+        this.eventPublisher = eventPublisher;
+        this.metrics = metrics;
+        this.batchSize = properties.getImporter().getBatchSize();
+        this.writerThreads = properties.getImporter().getWriterThreads();
+        this.pipelineDepth = properties.getImporter().getPipelineDepth();
+        this.copyEnabled = properties.getImporter().isCopyEnabled();
     }
 
     /**
-     * This method reads data from the provided Excel file and processes it.
-     * The data is parsed into lists of CountryModel and SwiftModel objects before being saved to the database.
+     * Reads the Excel file row by row and saves the rows in JDBC batches of {@code swift.importer.batch-size}.
+     *
+     * @param file path of the Excel file to be imported
+     * @return the numbers of inserted and skipped rows
+     * @throws IOException if an error occurs while reading the file
+     */
+    public ImportSummaryDto importExcelData(Path file) throws IOException {
+        return importExcelData(file, new ImportProgress());
+    }
+
+    /**
+     * Reads the Excel file row by row and saves the rows in JDBC batches of {@code swift.importer.batch-size}.
+     * Countries are deduplicated in memory, so each ISO2 code is sent to the database only once per import.
+     *
+     * @param file     path of the Excel file to be imported
+     * @param progress counters updated as rows are parsed and written, readable while the import is running
+     * @return the numbers of inserted and skipped rows
+     * @throws IOException if an error occurs while reading the file
+     */
+    public ImportSummaryDto importExcelData(Path file, ImportProgress progress) throws IOException {
+        return importData(file, ImportFormat.XLSX, progress);
+    }
+
+    /**
+     * Reads the file row by row and saves the rows in JDBC batches of {@code swift.importer.batch-size}.
+     * Every format goes through the same batching and persistence.
+     * Countries are deduplicated in memory, so each ISO2 code is sent to the database only once per import.
+     *
+     * <p>The calling thread parses the file: full batches of SWIFT codes are handed through a {@link BatchPipeline} of
+     * {@code swift.importer.pipeline-depth} batches to {@code swift.importer.writer-threads} writers, each sending its
+     * batches over its own connection. Parsing and writing overlap, and a parser faster than the database waits
+     * for a free slot instead of buffering the file. The new countries of a batch are inserted by the calling thread
+     * before the batch is handed over, so a SWIFT code is never committed before its country, whichever writer
+     * takes the batch and whether or not it succeeds.</p>
+     *
+     * <p>With {@code swift.importer.copy-enabled} the rows are loaded with PostgreSQL {@code COPY} instead,
+     * see {@link #importWithCopy(Path, ImportFormat, ImportProgress)}. Other databases, like the H2 file of the
+     * {@code embedded} profile, fall back to batches.</p>
      *
-     * @param file the MultipartFile that contains the Excel data to be imported
+     * <p>A {@link SwiftImportEvent} is published before the first row is written and after the import has ended.</p>
+     *
+     * @param file     path of the file to be imported
+     * @param format   the format of the file
+     * @param progress counters updated as rows are parsed and written, readable while the import is running
+     * @return the numbers of inserted and skipped rows
      * @throws IOException if an error occurs while reading the file
      */
-    public void importExcelData(MultipartFile file) throws IOException {
-        // Lists to store parsed country and swift data before saving to the database
+    public ImportSummaryDto importData(Path file, ImportFormat format, ImportProgress progress) throws IOException {
+        eventPublisher.publishEvent(SwiftImportEvent.started());
+        try {
+            return importRows(file, format, progress);
+        } finally {
+            eventPublisher.publishEvent(SwiftImportEvent.finished());
+        }
+    }
+
+    private ImportSummaryDto importRows(Path file, ImportFormat format, ImportProgress progress) throws IOException {
+        if (copyEnabled) {
+            ImportSummaryDto copied = importWithCopy(file, format, progress);
+            if (copied != null) {
+                return copied;
+            }
+        }
+        ImportSummaryDto summary = new ImportSummaryDto();
+        long start = System.nanoTime();
+
+        // ISO2 codes already seen in this import and the new countries of the current batch
+        Set<String> seenCountries = new HashSet<>();
         List<CountryModel> countryList = new ArrayList<>();
-        List<SwiftModel> swiftList = new ArrayList<>();
-
-        // Reading the Excel file using Apache POI
-        try (InputStream inputStream = file.getInputStream()) {
-            Workbook workbook = new XSSFWorkbook(inputStream); // Create a Workbook object from the Excel file
-            Sheet sheet = workbook.getSheetAt(0); // Get the first sheet from the Excel file
-
-            // Iterate over all rows (starting from 1 to skip the header row)
-            for (int i = 1; i < sheet.getPhysicalNumberOfRows(); i++) {
-                Row row = sheet.getRow(i);
-
-                if (row != null) {
-                    // Extract data from each cell in the row
-                    String countryIso2Code = row.getCell(0).getStringCellValue();
-                    String swiftCode = row.getCell(1).getStringCellValue();
-                    String bankName = row.getCell(3).getStringCellValue();
-                    String address = row.getCell(4).getStringCellValue();
-                    String townName = row.getCell(5).getStringCellValue();
-                    String countryName = row.getCell(6).getStringCellValue();
-                    String timeZone = row.getCell(7).getStringCellValue();
-                    boolean isHeadquarter = swiftCode.endsWith("XXX"); // Determine if the SWIFT code indicates a headquarter
-
-                    // Create CountryModel and SwiftModel objects based on the extracted data
-                    CountryModel country = new CountryModel(countryIso2Code, countryName, timeZone);
-                    countryList.add(country);
+        List<SwiftModel> swiftList = new ArrayList<>(batchSize);
+
+        try (BatchPipeline<List<SwiftModel>> pipeline = new BatchPipeline<>("swift-import-writer-", writerThreads, pipelineDepth,
+                batch -> saveBatch(batch, summary, progress))) {
+            Consumer<ImportRow> handler = row -> {
+                progress.rowParsed();
+                if (seenCountries.add(row.getCountryIso2Code())) {
+                    countryList.add(row.toCountry());
+                }
+                swiftList.add(row.toSwift());
 
-                    SwiftModel swift = new SwiftModel(swiftCode, bankName, address, townName, countryIso2Code, isHeadquarter);
-                    swiftList.add(swift);
+                if (swiftList.size() >= batchSize) {
+                    submitBatch(pipeline, countryList, swiftList, summary);
                 }
+            };
+
+            read(file, format, handler);
+            submitBatch(pipeline, countryList, swiftList, summary);
+            pipeline.finish();
+        } finally {
+            // Any cached or derived data of the imported countries may now be stale, also when the import failed after some batches
+            if (progress.getRowsWritten() > 0 || countriesInserted(summary) > 0) {
+                eventPublisher.publishEvent(SwiftDataChangedEvent.fullRefresh(seenCountries));
             }
         }
 
-        // Save the parsed country and SWIFT data into the database
-        saveCountries(countryList);
-        saveSwifts(swiftList);
+        metrics.importFinished(summary.getRowsRead(), System.nanoTime() - start);
+        logger.info("Imported {} rows: {} SWIFT codes inserted, {} skipped; {} countries inserted, {} skipped",
+                summary.getRowsRead(), summary.getSwiftCodesInserted(), summary.getSwiftCodesSkipped(),
+                summary.getCountriesInserted(), summary.getCountriesSkipped());
+        return summary;
+    }
+
+    private static long countriesInserted(ImportSummaryDto summary) {
+        synchronized (summary) {
+            return summary.getCountriesInserted();
+        }
+    }
+
+    /**
+     * Bulk loads the file with PostgreSQL {@code COPY}, in a single transaction.
+     *
+     * <p>Parsed rows are streamed through the driver's {@code CopyManager} into a temporary staging table while the
+     * file is being read. Countries and SWIFT codes are then merged into {@code country_model} and {@code swift_model}
+     * with one set-based {@code INSERT ... SELECT ... ON CONFLICT DO NOTHING} each. Unlike the batched import,
+     * a failure rolls back the whole file.</p>
+     *
+     * @param file     path of the file to be imported
+     * @param format   the format of the file
+     * @param progress counters updated as rows are parsed and sent to the database
+     * @return the numbers of inserted and skipped rows, or null if the database is not PostgreSQL
+     * @throws IOException if an error occurs while reading the file or the COPY fails
+     */
+    private ImportSummaryDto importWithCopy(Path file, ImportFormat format, ImportProgress progress) throws IOException {
+        long start = System.nanoTime();
+        Set<String> seenCountries = new HashSet<>();
+        ImportSummaryDto summary;
+        try {
+            summary = jdbcTemplate.execute((ConnectionCallback<ImportSummaryDto>) connection ->
+                    connection.isWrapperFor(PGConnection.class)
+                            ? copyInTransaction(connection, file, format, progress, seenCountries)
+                            : null);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (summary == null) {
+            logger.warn("COPY is only supported by PostgreSQL, importing with batched inserts");
+            return null;
+        }
+
+        if (summary.getSwiftCodesInserted() > 0 || summary.getCountriesInserted() > 0) {
+            eventPublisher.publishEvent(SwiftDataChangedEvent.fullRefresh(seenCountries));
+        }
+        // The file is written in a single transaction, there are no batches to time
+        metrics.importRows(summary.getRowsRead());
+        metrics.importFinished(summary.getRowsRead(), System.nanoTime() - start);
+        logger.info("Imported {} rows with COPY: {} SWIFT codes inserted, {} skipped; {} countries inserted, {} skipped",
+                summary.getRowsRead(), summary.getSwiftCodesInserted(), summary.getSwiftCodesSkipped(),
+                summary.getCountriesInserted(), summary.getCountriesSkipped());
+        return summary;
     }
 
     /**
-     * Saves a list of CountryModel objects into the database.
+     * Copies the file into the staging table and merges it, committing only if every step succeeded.
+     *
+     * @param connection    the connection of the import
+     * @param file          path of the file to be imported
+     * @param format        the format of the file
+     * @param progress      the progress counters of the running import
+     * @param seenCountries receives the ISO2 codes of the imported rows
+     * @return the numbers of inserted and skipped rows
+     * @throws SQLException if a statement fails
+     */
+    private ImportSummaryDto copyInTransaction(Connection connection, Path file, ImportFormat format, ImportProgress progress,
+                                               Set<String> seenCountries) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            long start = System.nanoTime();
+            statement.execute(CREATE_STAGING_TABLE);
+            long rows = copyRows(connection, file, format, progress, seenCountries);
+            long copied = System.nanoTime();
+            // The planner has no statistics of a table created in the same transaction
+            statement.execute("ANALYZE swift_import_staging");
+            long countriesInserted = statement.executeUpdate(MERGE_COUNTRIES);
+            long swiftCodesInserted = statement.executeUpdate(MERGE_SWIFTS);
+            connection.commit();
+            // The rows only count as written once they are committed
+            progress.rowsWritten(rows);
+            logger.debug("Copied {} rows in {} ms, merged in {} ms", rows, (copied - start) / 1_000_000,
+                    (System.nanoTime() - copied) / 1_000_000);
+            return new ImportSummaryDto(rows, countriesInserted, seenCountries.size() - countriesInserted,
+                    swiftCodesInserted, rows - swiftCodesInserted, 0, 0, 0, 0);
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Streams the rows of the file into the staging table as they are parsed.
+     *
+     * @param connection    the connection of the import
+     * @param file          path of the file to be imported
+     * @param format        the format of the file
+     * @param progress      the progress counters of the running import
+     * @param seenCountries receives the ISO2 codes of the imported rows
+     * @return the number of copied rows
+     * @throws SQLException if the connection is not a PostgreSQL connection
+     */
+    private long copyRows(Connection connection, Path file, ImportFormat format, ImportProgress progress,
+                          Set<String> seenCountries) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        long[] lines = {0};
+        try (CopyRowWriter writer = new CopyRowWriter(new PGCopyOutputStream(pgConnection, COPY_STAGING_TABLE))) {
+            read(file, format, row -> {
+                progress.rowParsed();
+                seenCountries.add(row.getCountryIso2Code());
+                SwiftModel swift = row.toSwift();
+                try {
+                    writer.writeRow(++lines[0], swift.getSwiftCode(), swift.getBankCode(), swift.getBankName(),
+                            swift.getAddress(), swift.getTownName(), swift.getIso2Code(), swift.isHeadquarter(),
+                            row.getCountryName(), row.getTimeZone());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return lines[0];
+    }
+
+    /**
+     * Imports the file as the complete new state of the directory, writing only what differs from the database.
+     *
+     * <p>The stored SWIFT codes are read once into a map from code to {@link RowHash}. Every row of the file is then
+     * hashed and compared: new codes are inserted, codes with a different hash are updated and unchanged codes are not
+     * written at all. Codes that are stored but missing from the file are deleted once the whole file has been read,
+     * so a file that fails to parse never deletes anything. Countries are added, and stored countries whose name or
+     * time zone differ from the first row of the country in the file are updated; countries are never deleted.
+     * Like {@link #importData(Path, ImportFormat, ImportProgress)}, the import is announced with {@link SwiftImportEvent}s.</p>
+     *
+     * @param file     path of the file to be imported
+     * @param format   the format of the file
+     * @param progress counters updated as rows are parsed and compared, readable while the import is running
+     * @return the numbers of inserted, updated, deleted and unchanged SWIFT codes
+     * @throws IOException if an error occurs while reading the file
+     */
+    public ImportSummaryDto importDelta(Path file, ImportFormat format, ImportProgress progress) throws IOException {
+        eventPublisher.publishEvent(SwiftImportEvent.started());
+        try {
+            return importChanges(file, format, progress);
+        } finally {
+            eventPublisher.publishEvent(SwiftImportEvent.finished());
+        }
+    }
+
+    private ImportSummaryDto importChanges(Path file, ImportFormat format, ImportProgress progress) throws IOException {
+        ImportSummaryDto summary = new ImportSummaryDto();
+        long start = System.nanoTime();
+        Map<String, StoredRow> storedRows = loadStoredRows();
+        Map<String, CountryModel> storedCountries = loadStoredCountries();
+
+        Set<String> seenCountries = new HashSet<>();
+        Set<String> seenSwiftCodes = new HashSet<>();
+        // Countries whose SWIFT codes were written, to refresh only their derived data
+        Set<String> changedCountries = new HashSet<>();
+        List<CountryModel> countryList = new ArrayList<>();
+        List<CountryModel> countryUpdateList = new ArrayList<>();
+        List<SwiftModel> insertList = new ArrayList<>(batchSize);
+        List<SwiftModel> updateList = new ArrayList<>(batchSize);
+
+        Consumer<ImportRow> handler = row -> {
+            progress.rowParsed();
+            summary.setRowsRead(summary.getRowsRead() + 1);
+            if (seenCountries.add(row.getCountryIso2Code())) {
+                CountryModel country = row.toCountry();
+                CountryModel storedCountry = storedCountries.get(country.getIso2Code());
+                if (storedCountry == null) {
+                    countryList.add(country);
+                } else if (!storedCountry.equals(country)) {
+                    // The country name is part of the responses of all its SWIFT codes
+                    countryUpdateList.add(country);
+                    changedCountries.add(country.getIso2Code());
+                } else {
+                    summary.setCountriesSkipped(summary.getCountriesSkipped() + 1);
+                }
+            }
+            SwiftModel swift = row.toSwift();
+            if (!seenSwiftCodes.add(swift.getSwiftCode())) {
+                summary.setSwiftCodesSkipped(summary.getSwiftCodesSkipped() + 1);
+                progress.rowsWritten(1);
+                return;
+            }
+
+            StoredRow stored = storedRows.remove(swift.getSwiftCode());
+            if (stored == null) {
+                insertList.add(swift);
+                changedCountries.add(swift.getIso2Code());
+            } else if (stored.hash() != RowHash.of(swift)) {
+                updateList.add(swift);
+                changedCountries.add(swift.getIso2Code());
+                changedCountries.add(stored.iso2Code());
+            } else {
+                summary.setSwiftCodesUnchanged(summary.getSwiftCodesUnchanged() + 1);
+                progress.rowsWritten(1);
+            }
+
+            if (insertList.size() >= batchSize || updateList.size() >= batchSize) {
+                saveDelta(countryList, countryUpdateList, insertList, updateList, summary, progress);
+            }
+        };
+
+        try {
+            read(file, format, handler);
+            saveDelta(countryList, countryUpdateList, insertList, updateList, summary, progress);
+            if (summary.getRowsRead() == 0) {
+                logger.warn("Delta import of an empty file, no SWIFT codes deleted");
+            } else if (!storedRows.isEmpty()) {
+                storedRows.values().forEach(stored -> changedCountries.add(stored.iso2Code()));
+                deleteSwifts(new ArrayList<>(storedRows.keySet()), summary);
+            }
+        } finally {
+            if (!changedCountries.isEmpty()) {
+                eventPublisher.publishEvent(SwiftDataChangedEvent.fullRefresh(changedCountries));
+            }
+        }
+
+        metrics.importFinished(summary.getRowsRead(), System.nanoTime() - start);
+        logger.info("Delta import of {} rows: {} SWIFT codes inserted, {} updated, {} deleted, {} unchanged, {} skipped; "
+                        + "{} countries inserted, {} updated",
+                summary.getRowsRead(), summary.getSwiftCodesInserted(), summary.getSwiftCodesUpdated(),
+                summary.getSwiftCodesDeleted(), summary.getSwiftCodesUnchanged(), summary.getSwiftCodesSkipped(),
+                summary.getCountriesInserted(), summary.getCountriesUpdated());
+        return summary;
+    }
+
+    /**
+     * The hash and the country of a stored SWIFT code.
+     *
+     * @param hash     the {@link RowHash} of the stored values
+     * @param iso2Code the stored country, whose derived data changes if the code is updated or deleted
+     */
+    private record StoredRow(long hash, String iso2Code) {
+    }
+
+    /**
+     * Reads the hashes of all stored SWIFT codes.
+     *
+     * @return map from SWIFT code to its stored hash and country
+     */
+    private Map<String, StoredRow> loadStoredRows() {
+        Map<String, StoredRow> storedRows = new HashMap<>();
+        jdbcTemplate.query("SELECT swift_code, bank_name, address, town_name, iso2code, is_headquarter FROM swift_model", rs -> {
+            SwiftModel swift = new SwiftModel(rs.getString("swift_code"), rs.getString("bank_name"), rs.getString("address"),
+                    rs.getString("town_name"), rs.getString("iso2code"), rs.getBoolean("is_headquarter"));
+            storedRows.put(swift.getSwiftCode(), new StoredRow(RowHash.of(swift), swift.getIso2Code()));
+        });
+        return storedRows;
+    }
+
+    /**
+     * Reads all stored countries.
+     *
+     * @return map from ISO2 code to the stored country
+     */
+    private Map<String, CountryModel> loadStoredCountries() {
+        Map<String, CountryModel> storedCountries = new HashMap<>();
+        jdbcTemplate.query("SELECT iso2code, name, time_zone FROM country_model", rs -> {
+            storedCountries.put(rs.getString("iso2code"),
+                    new CountryModel(rs.getString("iso2code"), rs.getString("name"), rs.getString("time_zone")));
+        });
+        return storedCountries;
+    }
+
+    /**
+     * Streams the rows of the file to the handler with the reader of its format.
+     *
+     * @param file    path of the file
+     * @param format  the format of the file
+     * @param handler the consumer of the parsed rows
+     * @throws IOException if an error occurs while reading the file
+     */
+    private void read(Path file, ImportFormat format, Consumer<ImportRow> handler) throws IOException {
+        switch (format) {
+            case XLSX -> xlsxRowReader.read(file, handler);
+            case CSV -> delimitedRowReader.read(file, ',', handler);
+            case TSV -> delimitedRowReader.read(file, '\t', handler);
+        }
+    }
+
+    /**
+     * Saves the buffered new and changed countries, new SWIFT codes and changed SWIFT codes of a delta import and
+     * clears the buffers.
+     *
+     * @param countryList       the buffered new countries
+     * @param countryUpdateList the buffered countries whose name or time zone changed
+     * @param insertList        the buffered new SWIFT codes
+     * @param updateList        the buffered changed SWIFT codes
+     * @param summary           the summary of the running import
+     * @param progress          the progress counters of the running import
+     */
+    private void saveDelta(List<CountryModel> countryList, List<CountryModel> countryUpdateList, List<SwiftModel> insertList,
+                           List<SwiftModel> updateList, ImportSummaryDto summary, ImportProgress progress) {
+        long start = System.nanoTime();
+        if (!countryList.isEmpty()) {
+            long inserted = saveCountries(countryList);
+            summary.setCountriesInserted(summary.getCountriesInserted() + inserted);
+            summary.setCountriesSkipped(summary.getCountriesSkipped() + countryList.size() - inserted);
+        }
+        if (!countryUpdateList.isEmpty()) {
+            summary.setCountriesUpdated(summary.getCountriesUpdated() + updateCountries(countryUpdateList));
+        }
+        if (!insertList.isEmpty()) {
+            long inserted = saveSwifts(insertList);
+            summary.setSwiftCodesInserted(summary.getSwiftCodesInserted() + inserted);
+            // Inserted concurrently since the stored rows were read
+            summary.setSwiftCodesSkipped(summary.getSwiftCodesSkipped() + insertList.size() - inserted);
+        }
+        if (!updateList.isEmpty()) {
+            summary.setSwiftCodesUpdated(summary.getSwiftCodesUpdated() + updateSwifts(updateList));
+        }
+        int written = insertList.size() + updateList.size();
+        if (written > 0) {
+            progress.rowsWritten(written);
+            metrics.importBatch(written, System.nanoTime() - start);
+        }
+        countryList.clear();
+        countryUpdateList.clear();
+        insertList.clear();
+        updateList.clear();
+    }
+
+    /**
+     * Inserts the buffered new countries, then hands a copy of the buffered SWIFT codes to the writers and clears
+     * the buffers. The countries are committed on the calling thread before any writer can commit a code of them.
+     *
+     * @param pipeline    the pipeline of the running import
+     * @param countryList the buffered CountryModel objects
+     * @param swiftList   the buffered SwiftModel objects
+     * @param summary     the summary of the running import, shared with the writers
+     */
+    private void submitBatch(BatchPipeline<List<SwiftModel>> pipeline, List<CountryModel> countryList,
+                             List<SwiftModel> swiftList, ImportSummaryDto summary) {
+        if (!countryList.isEmpty()) {
+            long inserted = saveCountries(countryList);
+            synchronized (summary) {
+                summary.setCountriesInserted(summary.getCountriesInserted() + inserted);
+                summary.setCountriesSkipped(summary.getCountriesSkipped() + countryList.size() - inserted);
+            }
+            countryList.clear();
+        }
+        if (!swiftList.isEmpty()) {
+            pipeline.submit(List.copyOf(swiftList));
+            swiftList.clear();
+        }
+    }
+
+    /**
+     * Saves a batch of SWIFT codes into the database and updates the summary. Called concurrently by the writers.
+     *
+     * @param swifts   the SWIFT codes of the batch
+     * @param summary  the summary of the running import, shared by the writers
+     * @param progress the progress counters of the running import
+     */
+    private void saveBatch(List<SwiftModel> swifts, ImportSummaryDto summary, ImportProgress progress) {
+        long start = System.nanoTime();
+        long swiftsInserted = saveSwifts(swifts);
+        synchronized (summary) {
+            summary.setRowsRead(summary.getRowsRead() + swifts.size());
+            summary.setSwiftCodesInserted(summary.getSwiftCodesInserted() + swiftsInserted);
+            summary.setSwiftCodesSkipped(summary.getSwiftCodesSkipped() + swifts.size() - swiftsInserted);
+        }
+        progress.rowsWritten(swifts.size());
+        metrics.importBatch(swifts.size(), System.nanoTime() - start);
+    }
+
+    /**
+     * Saves a list of CountryModel objects into the database in a single batch.
      * If the country already exists (based on the ISO2 code), no action is taken.
      *
      * @param countryList the list of CountryModel objects to be saved
+     * @return the number of inserted countries
      */
-    private void saveCountries(List<CountryModel> countryList) {
-        for (CountryModel country : countryList) {
-            // Insert country data into the database (if it doesn't already exist)
-            jdbcTemplate.update("INSERT INTO country_model (iso2code, name, time_zone) VALUES (?, ?, ?) " +
-                            "ON CONFLICT (iso2code) DO NOTHING",
-                    country.getIso2Code(), country.getName(), country.getTimeZone());
-        }
+    private long saveCountries(List<CountryModel> countryList) {
+        // Insert country data into the database (if it doesn't already exist). The primary key is the only unique
+        // constraint, and H2 of the embedded storage only accepts ON CONFLICT without a conflict target
+        int[][] counts = jdbcTemplate.batchUpdate("INSERT INTO country_model (iso2code, name, time_zone) VALUES (?, ?, ?) " +
+                        "ON CONFLICT DO NOTHING",
+                countryList, batchSize, (ps, country) -> {
+                    ps.setString(1, country.getIso2Code());
+                    ps.setString(2, country.getName());
+                    ps.setString(3, country.getTimeZone());
+                });
+        return countWritten(counts);
     }
 
     /**
-     * Saves a list of SwiftModel objects into the database.
+     * Saves a list of SwiftModel objects into the database in a single batch.
      * If the SWIFT code already exists, no action is taken.
      *
      * @param swiftList the list of SwiftModel objects to be saved
+     * @return the number of inserted SWIFT codes
      */
-    private void saveSwifts(List<SwiftModel> swiftList) {
-        for (SwiftModel swift : swiftList) {
-            // Insert SWIFT data into the database (if it doesn't already exist)
-            jdbcTemplate.update("INSERT INTO swift_model (swift_code, bank_name, address, town_name, iso2code, is_headquarter) " +
-                            "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (swift_code) DO NOTHING",
-                    swift.getSwiftCode(), swift.getBankName(), swift.getAddress(), swift.getTownName(), swift.getIso2Code(), swift.isHeadquarter());
+    private long saveSwifts(List<SwiftModel> swiftList) {
+        // Insert SWIFT data into the database (if it doesn't already exist), see saveCountries
+        int[][] counts = jdbcTemplate.batchUpdate("INSERT INTO swift_model (swift_code, bank_code, bank_name, address, town_name, iso2code, is_headquarter) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING",
+                swiftList, batchSize, (ps, swift) -> {
+                    ps.setString(1, swift.getSwiftCode());
+                    ps.setString(2, swift.getBankCode());
+                    ps.setString(3, swift.getBankName());
+                    ps.setString(4, swift.getAddress());
+                    ps.setString(5, swift.getTownName());
+                    ps.setString(6, swift.getIso2Code());
+                    ps.setBoolean(7, swift.isHeadquarter());
+                });
+        return countWritten(counts);
+    }
+
+    /**
+     * Updates the name and the time zone of existing countries in a single batch.
+     *
+     * @param countryList the list of CountryModel objects to be updated
+     * @return the number of updated countries
+     */
+    private long updateCountries(List<CountryModel> countryList) {
+        int[][] counts = jdbcTemplate.batchUpdate("UPDATE country_model SET name = ?, time_zone = ? WHERE iso2code = ?",
+                countryList, batchSize, (ps, country) -> {
+                    ps.setString(1, country.getName());
+                    ps.setString(2, country.getTimeZone());
+                    ps.setString(3, country.getIso2Code());
+                });
+        return countWritten(counts);
+    }
+
+    /**
+     * Updates the values of existing SWIFT codes in a single batch.
+     *
+     * @param swiftList the list of SwiftModel objects to be updated
+     * @return the number of updated SWIFT codes
+     */
+    private long updateSwifts(List<SwiftModel> swiftList) {
+        int[][] counts = jdbcTemplate.batchUpdate("UPDATE swift_model SET bank_name = ?, address = ?, town_name = ?, iso2code = ?, " +
+                        "is_headquarter = ? WHERE swift_code = ?",
+                swiftList, batchSize, (ps, swift) -> {
+                    ps.setString(1, swift.getBankName());
+                    ps.setString(2, swift.getAddress());
+                    ps.setString(3, swift.getTownName());
+                    ps.setString(4, swift.getIso2Code());
+                    ps.setBoolean(5, swift.isHeadquarter());
+                    ps.setString(6, swift.getSwiftCode());
+                });
+        return countWritten(counts);
+    }
+
+    /**
+     * Deletes SWIFT codes in batches of {@code swift.importer.batch-size} and updates the summary.
+     *
+     * @param swiftCodes the SWIFT codes to be deleted
+     * @param summary    the summary of the running import
+     */
+    private void deleteSwifts(List<String> swiftCodes, ImportSummaryDto summary) {
+        long start = System.nanoTime();
+        int[][] counts = jdbcTemplate.batchUpdate("DELETE FROM swift_model WHERE swift_code = ?",
+                swiftCodes, batchSize, (ps, swiftCode) -> ps.setString(1, swiftCode));
+        summary.setSwiftCodesDeleted(summary.getSwiftCodesDeleted() + countWritten(counts));
+        metrics.importBatch(swiftCodes.size(), System.nanoTime() - start);
+    }
+
+    /**
+     * Sums the update counts of a batch. A row skipped by {@code ON CONFLICT DO NOTHING}, or not found by an update
+     * or a delete, reports 0.
+     * Drivers that do not report per-row counts ({@link Statement#SUCCESS_NO_INFO}) are counted as written.
+     *
+     * @param counts the update counts returned by the batch
+     * @return the number of inserted, updated or deleted rows
+     */
+    private static long countWritten(int[][] counts) {
+        long written = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                    written++;
+                }
+            }
         }
+        return written;
     }
-}
\ No newline at end of file
+}
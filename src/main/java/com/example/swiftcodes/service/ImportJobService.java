@@ -0,0 +1,234 @@
+package com.example.swiftcodes.service;
+
+import com.example.swiftcodes.config.SwiftProperties;
+import com.example.swiftcodes.dto.ImportJobDto;
+import com.example.swiftcodes.importer.ImportFormat;
+import com.example.swiftcodes.importer.ImportJob;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service running Excel imports in the background on a dedicated executor.
+ *
+ * <p>At most {@code swift.importer.max-concurrent-jobs} imports run at once and up to
+ * {@code swift.importer.queue-capacity} more wait for a worker; further uploads are rejected,
+ * so a burst of uploads cannot exhaust the database connections used by the read endpoints.</p>
+ *
+ * <p>With {@code spring.threads.virtual.enabled} on Java 21 or later the workers are virtual threads,
+ * like the request threads; the limits stay the same.</p>
+ */
+@Service
+public class ImportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportJobService.class);
+
+    private final ExcelImportService excelImportService;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, ImportJob> jobs;
+
+    /**
+     * Creates the import executor using the limits from the {@code swift.importer.*} properties.
+     *
+     * @param excelImportService the service performing the import
+     * @param properties         the application settings
+     * @param environment        the environment, telling whether virtual threads are enabled
+     */
+    public ImportJobService(ExcelImportService excelImportService, SwiftProperties properties, Environment environment) {
+        this.excelImportService = excelImportService;
+        SwiftProperties.Import settings = properties.getImporter();
+        this.executor = new ThreadPoolExecutor(settings.getMaxConcurrentJobs(), settings.getMaxConcurrentJobs(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(settings.getQueueCapacity()), threadFactory(environment));
+        // Running jobs are referenced by the executor, the map only has to keep them visible for status requests
+        this.jobs = Caffeine.newBuilder()
+                .expireAfter(retainFinishedJobs(settings.getJobRetention()))
+                .build();
+    }
+
+    /**
+     * Copies the upload to a temporary file and schedules its import.
+     * The upload has to be copied before the request ends, as Spring deletes it afterwards.
+     * The format (XLSX, CSV or TSV) is determined from the extension of the file name.
+     *
+     * @param file the uploaded file
+     * @return the state of the submitted job
+     * @throws IOException                if the upload cannot be copied
+     * @throws RejectedExecutionException if too many imports are already running or waiting
+     */
+    public ImportJobDto submit(MultipartFile file) throws IOException {
+        return submit(file, false);
+    }
+
+    /**
+     * Copies the upload to a temporary file and schedules its import.
+     * A delta import treats the file as the complete directory and writes only the rows that differ from the database,
+     * see {@link ExcelImportService#importDelta}.
+     *
+     * @param file  the uploaded file
+     * @param delta whether to run a delta import instead of inserting the new rows only
+     * @return the state of the submitted job
+     * @throws IOException                if the upload cannot be copied
+     * @throws RejectedExecutionException if too many imports are already running or waiting
+     */
+    public ImportJobDto submit(MultipartFile file, boolean delta) throws IOException {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), file.getOriginalFilename());
+        ImportFormat format = ImportFormat.fromFileName(file.getOriginalFilename());
+        Path tempFile = Files.createTempFile("swift-import-", format.getExtension());
+        try {
+            file.transferTo(tempFile);
+            jobs.put(job.getId(), job);
+            executor.execute(new ImportTask(job, tempFile, format, delta));
+            return toDto(job);
+        } catch (IOException | RuntimeException e) {
+            jobs.invalidate(job.getId());
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the current state and progress of an import.
+     *
+     * @param jobId the identifier returned on submission
+     * @return the state of the job or {@code null} if it is unknown or expired
+     */
+    public ImportJobDto getJob(String jobId) {
+        ImportJob job = jobs.getIfPresent(jobId);
+        return job == null ? null : toDto(job);
+    }
+
+    /**
+     * Stops accepting imports when the application shuts down; running imports are interrupted.
+     * Waiting imports are marked as failed and their files are removed, as they will never run.
+     */
+    @PreDestroy
+    public void shutdown() {
+        List<Runnable> waiting = executor.shutdownNow();
+        for (Runnable runnable : waiting) {
+            if (runnable instanceof ImportTask task) {
+                task.discard();
+            }
+        }
+    }
+
+    /**
+     * Keeps waiting and running jobs until they finish, and finished jobs for the retention period after that.
+     * A job is put again when it finishes, which starts its retention period.
+     *
+     * @param retention how long finished jobs stay visible
+     * @return the expiry policy of the job map
+     */
+    private static Expiry<String, ImportJob> retainFinishedJobs(Duration retention) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(String id, ImportJob job, long currentTime) {
+                return job.getFinishedAt() != null ? retention.toNanos() : Long.MAX_VALUE;
+            }
+
+            @Override
+            public long expireAfterUpdate(String id, ImportJob job, long currentTime, long currentDuration) {
+                return expireAfterCreate(id, job, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(String id, ImportJob job, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+
+    private static ImportJobDto toDto(ImportJob job) {
+        return new ImportJobDto(job.getId(), job.getStatus().name(), job.getFileName(), job.getSubmittedAt(),
+                job.getStartedAt(), job.getFinishedAt(), job.getProgress().getRowsParsed(),
+                job.getProgress().getRowsWritten(), job.getRowsPerSecond(), job.getError(), job.getSummary());
+    }
+
+    /**
+     * Import of an uploaded file, kept as a task of its own so that the file of a job that never ran can be removed.
+     */
+    private final class ImportTask implements Runnable {
+
+        private final ImportJob job;
+        private final Path file;
+        private final ImportFormat format;
+        private final boolean delta;
+
+        private ImportTask(ImportJob job, Path file, ImportFormat format, boolean delta) {
+            this.job = job;
+            this.file = file;
+            this.format = format;
+            this.delta = delta;
+        }
+
+        /**
+         * Imports the file and records the result in the job, removing the file afterwards.
+         */
+        @Override
+        public void run() {
+            job.start();
+            try {
+                job.complete(delta ? excelImportService.importDelta(file, format, job.getProgress())
+                        : excelImportService.importData(file, format, job.getProgress()));
+            } catch (Exception e) {
+                logger.error("Import job {} failed: {}", job.getId(), e.getMessage(), e);
+                job.fail(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            } finally {
+                finish();
+            }
+        }
+
+        /**
+         * Marks a job that was still waiting at shutdown as failed and removes its file.
+         */
+        private void discard() {
+            job.fail("The application shut down before the import started");
+            finish();
+        }
+
+        private void finish() {
+            // Starts the retention period of the finished job
+            jobs.put(job.getId(), job);
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Could not delete the import file {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private static ThreadFactory threadFactory(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new VirtualThreadTaskExecutor("swift-import-").getVirtualThreadFactory();
+        }
+        if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            logger.warn("Virtual threads require Java 21 or later, imports run on platform threads");
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "swift-import-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -1,24 +1,349 @@
 package com.example.swiftcodes.service;
 
+import com.example.swiftcodes.cache.CountryIndex;
+import com.example.swiftcodes.cache.SwiftCodeFilter;
+import com.example.swiftcodes.cache.SwiftDetailsCache;
+import com.example.swiftcodes.cache.SwiftSearchIndex;
+import com.example.swiftcodes.config.SwiftProperties;
+import com.example.swiftcodes.dto.BranchDto;
+import com.example.swiftcodes.dto.CountrySwiftPageDto;
+import com.example.swiftcodes.dto.CountrySwiftResponseDto;
+import com.example.swiftcodes.dto.SwiftResponseDto;
+import com.example.swiftcodes.dto.SwiftSearchResponseDto;
+import com.example.swiftcodes.event.SwiftDataChangedEvent;
+import com.example.swiftcodes.model.SwiftModel;
+import com.example.swiftcodes.repository.SwiftCursorRepository;
 import com.example.swiftcodes.repository.SwiftRepository;
+import com.example.swiftcodes.snapshot.SwiftSnapshot;
+import com.example.swiftcodes.snapshot.SwiftSnapshotHolder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
 /**
  * Service class for handling operations related to SWIFT codes.
- * Provides functionality to delete a SWIFT code from the database.
+ * Provides functionality to look up, list by country, add and delete SWIFT codes.
  */
 @Service
 public class SwiftCodeService {
 
     private final SwiftRepository swiftRepository;
+    private final SwiftDetailsCache swiftDetailsCache;
+    private final SwiftSnapshotHolder swiftSnapshotHolder;
+    private final SwiftCursorRepository swiftCursorRepository;
+    private final CountryIndex countryIndex;
+    private final SwiftSearchIndex swiftSearchIndex;
+    private final SwiftCodeFilter swiftCodeFilter;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter detailsWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int exportFlushInterval;
 
     /**
      * Constructor for SwiftCodeService.
      *
-     * @param swiftRepository The repository for interacting with the SWIFT code data.
+     * @param swiftRepository       The repository for interacting with the SWIFT code data.
+     * @param swiftDetailsCache     The cache of assembled SWIFT code responses.
+     * @param swiftSnapshotHolder   The in-memory snapshot used when the snapshot serving mode is enabled.
+     * @param swiftCursorRepository The cursor-based reads used to stream large responses.
+     * @param countryIndex          The in-memory index of the SWIFT codes of every country.
+     * @param swiftSearchIndex      The in-memory index used to search by bank name, town and address.
+     * @param swiftCodeFilter       The Bloom filter answering lookups of unknown codes without a database query.
+     * @param objectMapper          The JSON mapper used to write streamed and cached responses.
+     * @param eventPublisher        Publisher used to notify other components about data changes.
+     * @param properties            The application settings, providing the cursor fetch size.
      */
-    public SwiftCodeService(SwiftRepository swiftRepository) {
+    public SwiftCodeService(SwiftRepository swiftRepository,
+                            SwiftDetailsCache swiftDetailsCache,
+                            SwiftSnapshotHolder swiftSnapshotHolder,
+                            SwiftCursorRepository swiftCursorRepository,
+                            CountryIndex countryIndex,
+                            SwiftSearchIndex swiftSearchIndex,
+                            SwiftCodeFilter swiftCodeFilter,
+                            ObjectMapper objectMapper,
+                            ApplicationEventPublisher eventPublisher,
+                            SwiftProperties properties) {
         this.swiftRepository = swiftRepository;
+        this.swiftDetailsCache = swiftDetailsCache;
+        this.swiftSnapshotHolder = swiftSnapshotHolder;
+        this.swiftCursorRepository = swiftCursorRepository;
+        this.countryIndex = countryIndex;
+        this.swiftSearchIndex = swiftSearchIndex;
+        this.swiftCodeFilter = swiftCodeFilter;
+        this.objectMapper = objectMapper;
+        this.detailsWriter = objectMapper.writerFor(SwiftResponseDto.class);
+        this.eventPublisher = eventPublisher;
+        this.exportFlushInterval = properties.getCursor().getFetchSize();
+    }
+
+    /**
+     * Retrieves the details of a SWIFT code, including the branches if the code is a headquarter.
+     *
+     * <p>In the snapshot serving mode the response is built from the in-memory snapshot. Otherwise the assembled
+     * response is served from {@link SwiftDetailsCache} and only loaded from the database on a miss.
+     * Codes rejected by {@link SwiftCodeFilter} are reported as not found without querying the database.</p>
+     *
+     * @param swiftCode The SWIFT code to retrieve details for.
+     * @return the SWIFT code details or {@code null} if the code does not exist.
+     */
+    public SwiftResponseDto getSwiftDetails(String swiftCode) {
+        SwiftSnapshot snapshot = swiftSnapshotHolder.get();
+        if (snapshot != null) {
+            return snapshot.findSwiftDetails(swiftCode);
+        }
+        if (!swiftCodeFilter.mightContain(swiftCode)) {
+            return null;
+        }
+        return swiftDetailsCache.get(swiftCode, this::loadSwiftDetails);
+    }
+
+    /**
+     * Retrieves the details of a SWIFT code encoded as JSON, ready to be written to the response.
+     *
+     * <p>The encoded bytes are cached in the entry of the assembled response, so a repeated lookup is neither loaded nor
+     * serialized again. In the snapshot serving mode the snapshot response is encoded on every call instead:
+     * the snapshot is replaced on data changes, and caching its bytes could keep a response of the old snapshot.</p>
+     *
+     * @param swiftCode The SWIFT code to retrieve details for.
+     * @return the JSON of the SWIFT code details or {@code null} if the code does not exist.
+     */
+    public byte[] getSwiftDetailsJson(String swiftCode) {
+        SwiftSnapshot snapshot = swiftSnapshotHolder.get();
+        if (snapshot != null) {
+            return encode(snapshot.findSwiftDetails(swiftCode));
+        }
+        if (!swiftCodeFilter.mightContain(swiftCode)) {
+            return null;
+        }
+        return swiftDetailsCache.getJson(swiftCode, this::loadSwiftDetails, this::encode);
+    }
+
+    /**
+     * Retrieves the details of many SWIFT codes at once.
+     *
+     * <p>Codes missing from {@link SwiftDetailsCache} are loaded together: one query for the codes themselves and
+     * one query for the branches of all headquarters among them, instead of two queries per code. Codes rejected by
+     * {@link SwiftCodeFilter} are left out of the query.</p>
+     *
+     * @param swiftCodes The SWIFT codes to retrieve details for.
+     * @return map from SWIFT code to its details, containing only the codes that exist.
+     */
+    public Map<String, SwiftResponseDto> getSwiftDetailsBulk(Collection<String> swiftCodes) {
+        SwiftSnapshot snapshot = swiftSnapshotHolder.get();
+        if (snapshot != null) {
+            Map<String, SwiftResponseDto> details = new HashMap<>();
+            for (String swiftCode : swiftCodes) {
+                SwiftResponseDto result = snapshot.findSwiftDetails(swiftCode);
+                if (result != null) {
+                    details.put(swiftCode, result);
+                }
+            }
+            return details;
+        }
+        Set<String> candidates = new LinkedHashSet<>(swiftCodes);
+        candidates.removeIf(swiftCode -> !swiftCodeFilter.mightContain(swiftCode));
+        return candidates.isEmpty() ? new HashMap<>() : swiftDetailsCache.getAll(candidates, this::loadSwiftDetails);
+    }
+
+    /**
+     * Retrieves all SWIFT codes of a country.
+     *
+     * <p>Served from the snapshot in the snapshot serving mode, otherwise from {@link CountryIndex} once it is loaded,
+     * and from the database only while the index is disabled or not yet loaded.</p>
+     *
+     * @param countryISO2 The ISO2 code of the country.
+     * @return the country with its SWIFT codes or {@code null} if the country does not exist.
+     */
+    public CountrySwiftResponseDto getSwiftCodesByCountry(String countryISO2) {
+        SwiftSnapshot snapshot = swiftSnapshotHolder.get();
+        if (snapshot != null) {
+            return snapshot.findByCountry(countryISO2);
+        }
+        if (countryIndex.isLoaded()) {
+            return countryIndex.findByCountry(countryISO2);
+        }
+
+        String countryName = swiftRepository.findCountryNameByISO2(countryISO2);
+        if (countryName == null) {
+            return null;
+        }
+        List<BranchDto> swiftCodes = swiftRepository.findSwiftCodesByCountryISO2(countryISO2);
+        return new CountrySwiftResponseDto(countryISO2, countryName, swiftCodes);
+    }
+
+    /**
+     * Retrieves one page of the SWIFT codes of a country, ordered by SWIFT code.
+     *
+     * <p>The page is read with an index range scan starting after the cursor, so the cost of a page does not
+     * depend on how far into the country it is. One row more than requested is read to tell whether a next page exists.</p>
+     *
+     * @param countryISO2 The ISO2 code of the country.
+     * @param after       The SWIFT code after which the page starts, {@code null} for the first page.
+     * @param limit       The maximum number of SWIFT codes in the page.
+     * @return the page or {@code null} if the country does not exist.
+     */
+    public CountrySwiftPageDto getSwiftCodesByCountryPage(String countryISO2, String after, int limit) {
+        SwiftSnapshot snapshot = swiftSnapshotHolder.get();
+        String countryName;
+        List<BranchDto> swiftCodes;
+        if (snapshot != null) {
+            countryName = snapshot.findCountryName(countryISO2);
+            swiftCodes = countryName == null ? null : snapshot.findPageByCountry(countryISO2, after, limit + 1);
+        } else if (countryIndex.isLoaded()) {
+            countryName = countryIndex.findCountryName(countryISO2);
+            swiftCodes = countryName == null ? null : countryIndex.findPageByCountry(countryISO2, after, limit + 1);
+        } else {
+            countryName = swiftRepository.findCountryNameByISO2(countryISO2);
+            swiftCodes = countryName == null ? null :
+                    swiftRepository.findSwiftCodesByCountryISO2After(countryISO2, after != null ? after : "", Limit.of(limit + 1));
+        }
+        if (countryName == null) {
+            return null;
+        }
+
+        String nextCursor = null;
+        if (swiftCodes.size() > limit) {
+            swiftCodes = swiftCodes.subList(0, limit);
+            nextCursor = swiftCodes.get(limit - 1).getSwiftCode();
+        }
+        return new CountrySwiftPageDto(countryISO2, countryName, new ArrayList<>(swiftCodes), nextCursor);
+    }
+
+    /**
+     * Retrieves the name of a country.
+     *
+     * @param countryISO2 The ISO2 code of the country.
+     * @return the country name or {@code null} if the country does not exist.
+     */
+    public String getCountryName(String countryISO2) {
+        SwiftSnapshot snapshot = swiftSnapshotHolder.get();
+        if (snapshot != null) {
+            return snapshot.findCountryName(countryISO2);
+        }
+        return countryIndex.isLoaded() ? countryIndex.findCountryName(countryISO2) : swiftRepository.findCountryNameByISO2(countryISO2);
+    }
+
+    /**
+     * Searches SWIFT codes by the words of their bank name, town and address, best matches first.
+     *
+     * @param query       The searched text.
+     * @param countryISO2 The ISO2 code of the country to search in, or {@code null} to search all countries.
+     * @param limit       The maximum number of results.
+     * @return the results or {@code null} if the search index is not loaded.
+     */
+    public SwiftSearchResponseDto searchSwiftCodes(String query, String countryISO2, int limit) {
+        if (!swiftSearchIndex.isLoaded()) {
+            return null;
+        }
+        return new SwiftSearchResponseDto(query, countryISO2, swiftSearchIndex.search(query, countryISO2, limit));
+    }
+
+    /**
+     * Writes the SWIFT codes of a country as JSON, in the same format as {@link #getSwiftCodesByCountry(String)}.
+     *
+     * <p>Rows are written as they come off a database cursor, so the list is never held in memory. When the snapshot
+     * or {@link CountryIndex} holds the country, its codes are written from memory instead.</p>
+     *
+     * @param countryISO2 The ISO2 code of the country.
+     * @param countryName The name of the country.
+     * @param after       The SWIFT code after which the listing starts, {@code null} to list all codes.
+     * @param out         The stream the JSON is written to.
+     * @throws IOException if writing to the stream fails.
+     */
+    public void writeSwiftCodesByCountry(String countryISO2, String countryName, String after, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            // A failed listing must not be completed into valid JSON when the generator is closed
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            generator.writeStartObject();
+            generator.writeStringField("countryISO2", countryISO2);
+            generator.writeStringField("countryName", countryName);
+            generator.writeArrayFieldStart("swiftCodes");
+
+            SwiftSnapshot snapshot = swiftSnapshotHolder.get();
+            if (snapshot != null) {
+                for (BranchDto swiftCode : snapshot.findPageByCountry(countryISO2, after, Integer.MAX_VALUE)) {
+                    generator.writeObject(swiftCode);
+                }
+            } else if (countryIndex.isLoaded()) {
+                List<BranchDto> swiftCodes = countryIndex.findPageByCountry(countryISO2, after, Integer.MAX_VALUE);
+                for (BranchDto swiftCode : swiftCodes != null ? swiftCodes : List.<BranchDto>of()) {
+                    generator.writeObject(swiftCode);
+                }
+            } else {
+                swiftCursorRepository.forEachByCountry(countryISO2, after, swiftCode -> {
+                    try {
+                        generator.writeObject(swiftCode);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Writes every SWIFT code with its country as newline-delimited JSON, one object per line in the format of
+     * {@link #getSwiftDetails(String)} without branches.
+     *
+     * <p>Rows are read from a forward-only database cursor and the output is flushed every
+     * {@code swift.cursor.fetch-size} rows, so memory use does not depend on the size of the directory.</p>
+     *
+     * @param out The stream the export is written to.
+     * @throws IOException if writing to the stream fails.
+     */
+    public void writeExport(OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            // No separator between root values, each line ends with a newline instead
+            generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+            AtomicLong rows = new AtomicLong();
+            swiftCursorRepository.forEachWithCountry(swiftCode -> {
+                try {
+                    generator.writeObject(swiftCode);
+                    generator.writeRaw('\n');
+                    if (rows.incrementAndGet() % exportFlushInterval == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Saves a new SWIFT code and invalidates the cached responses of its bank.
+     *
+     * @param swiftModel The SWIFT code to save.
+     */
+    public void addSwiftCode(SwiftModel swiftModel) {
+        swiftRepository.save(swiftModel);
+        eventPublisher.publishEvent(SwiftDataChangedEvent.of(swiftModel.getSwiftCode()));
     }
 
     /**
@@ -35,9 +360,90 @@ public class SwiftCodeService {
         if (swiftRepository.existsById(swiftCode)) {
             // Delete the record if it exists
             swiftRepository.deleteById(swiftCode);
+            eventPublisher.publishEvent(SwiftDataChangedEvent.of(swiftCode));
             return true; // Return true if the SWIFT code was deleted
         }
         // Return false if the SWIFT code does not exist
         return false;
     }
-}
\ No newline at end of file
+
+    /**
+     * Encodes the SWIFT code details with the shared writer.
+     *
+     * @param details The SWIFT code details, or {@code null}.
+     * @return the JSON bytes, or {@code null} if there are no details.
+     */
+    private byte[] encode(SwiftResponseDto details) {
+        if (details == null) {
+            return null;
+        }
+        try {
+            return detailsWriter.writeValueAsBytes(details);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Loads the SWIFT code details from the database. A headquarter is loaded together with its branches
+     * in a single query, which returns one row for the code and one row for every other code of its bank.
+     *
+     * @param swiftCode The SWIFT code to load.
+     * @return the SWIFT code details or {@code null} if the code does not exist.
+     */
+    private SwiftResponseDto loadSwiftDetails(String swiftCode) {
+        SwiftResponseDto result = null;
+        List<BranchDto> branches = new ArrayList<>();
+        for (SwiftResponseDto row : swiftRepository.findBySwiftCodeWithBranches(swiftCode)) {
+            if (row.getSwiftCode().equals(swiftCode)) {
+                result = row;
+            } else {
+                branches.add(new BranchDto(row.getSwiftCode(), row.getBankName(), row.getAddress(),
+                        row.getIso2Code(), row.isHeadquarter()));
+            }
+        }
+        if (result == null) {
+            return null;
+        }
+
+        // Only headquarters have a branch list
+        result.setBranches(result.isHeadquarter() ? branches : null);
+        return result;
+    }
+
+    /**
+     * Loads the details of many SWIFT codes from the database, fetching the branches of all headquarters in one query.
+     *
+     * @param swiftCodes The SWIFT codes to load.
+     * @return map from SWIFT code to its details, containing only the codes that exist.
+     */
+    private Map<String, SwiftResponseDto> loadSwiftDetails(Set<? extends String> swiftCodes) {
+        List<SwiftResponseDto> results = swiftRepository.findAllBySwiftCodesWithCountry(new ArrayList<>(swiftCodes));
+
+        // Fetch every code of the banks of the requested headquarters and group them by bank code
+        Set<String> bankCodes = new HashSet<>();
+        for (SwiftResponseDto result : results) {
+            if (result.isHeadquarter()) {
+                bankCodes.add(SwiftModel.bankCodeOf(result.getSwiftCode()));
+            }
+        }
+        Map<String, List<BranchDto>> banks = bankCodes.isEmpty() ? Map.of() :
+                swiftRepository.findAllByBankCodes(bankCodes).stream()
+                        .collect(Collectors.groupingBy(branch -> SwiftModel.bankCodeOf(branch.getSwiftCode())));
+
+        Map<String, SwiftResponseDto> details = new HashMap<>();
+        for (SwiftResponseDto result : results) {
+            if (result.isHeadquarter()) {
+                // The branch list contains every other code of the bank, like findBranchesBySwiftPrefix
+                List<BranchDto> branches = banks.getOrDefault(SwiftModel.bankCodeOf(result.getSwiftCode()), List.of()).stream()
+                        .filter(branch -> !branch.getSwiftCode().equals(result.getSwiftCode()))
+                        .toList();
+                result.setBranches(new ArrayList<>(branches));
+            } else {
+                result.setBranches(null);
+            }
+            details.put(result.getSwiftCode(), result);
+        }
+        return details;
+    }
+}
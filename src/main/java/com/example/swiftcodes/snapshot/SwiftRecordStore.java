@@ -0,0 +1,602 @@
+package com.example.swiftcodes.snapshot;
+
+import com.example.swiftcodes.dto.BranchDto;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Read-only table of SWIFT codes kept outside the Java heap, sorted by SWIFT code.
+ *
+ * <p>Every code is one fixed-width record in direct memory: the code in a slot as wide as the longest code
+ * (11 bytes for real SWIFT codes), the headquarter flag and references to the country, the bank name and the address.
+ * Countries and bank names repeat across branches and are dictionary-encoded: the record holds the index of the
+ * value in a dictionary of the distinct values, which stays on the heap and is shared by every materialized DTO.
+ * Addresses are mostly unique and are stored as UTF-8 in pages of direct memory.</p>
+ *
+ * <p>However many codes are stored, the heap only holds the dictionaries and a few buffers, so the garbage collector
+ * never traces the directory. DTOs are materialized from the records when a response is written.</p>
+ *
+ * <p>The codes of a bank are adjacent, as they share the first 8 characters of the code, and the records of every
+ * country are listed in code order in a separate index. Records are only read with absolute gets, so any number of
+ * threads may read a store at once.</p>
+ */
+final class SwiftRecordStore {
+
+    // Fields of a record, following the code slot
+    private static final int FLAGS = 0;        // 1 byte, HEADQUARTER
+    private static final int COUNTRY = 1;      // 2 bytes, index in the country dictionary or NO_COUNTRY
+    private static final int BANK_NAME = 3;    // 4 bytes, index in the bank name dictionary or -1
+    private static final int ADDRESS = 7;      // 8 bytes, reference into the address pages or -1
+    private static final int FIELDS_SIZE = 15;
+
+    private static final int MIN_CODE_WIDTH = 11;
+    private static final int MAX_PAGE_SHIFT = 20;
+    private static final int NO_COUNTRY = 0xFFFF;
+    private static final byte HEADQUARTER = 1;
+
+    private final int size;
+    private final int codeWidth;
+    private final int recordSize;
+    private final int pageShift;
+    private final int pageMask;
+    private final ByteBuffer[] recordPages;
+    private final StringPages addresses;
+    private final String[] countries;
+    private final Map<String, Integer> countryIds;
+    private final String[] bankNames;
+    // Row numbers grouped by country, each group in code order; countryStarts has the start of every group and the end
+    private final ByteBuffer countryRows;
+    private final int[] countryStarts;
+
+    private SwiftRecordStore(int size, int codeWidth, int pageShift, ByteBuffer[] recordPages, StringPages addresses,
+                             String[] countries, String[] bankNames, ByteBuffer countryRows, int[] countryStarts) {
+        this.size = size;
+        this.codeWidth = codeWidth;
+        this.recordSize = codeWidth + FIELDS_SIZE;
+        this.pageShift = pageShift;
+        this.pageMask = (1 << pageShift) - 1;
+        this.recordPages = recordPages;
+        this.addresses = addresses;
+        this.countries = countries;
+        this.bankNames = bankNames;
+        this.countryRows = countryRows;
+        this.countryStarts = countryStarts;
+        this.countryIds = new HashMap<>();
+        for (int i = 0; i < countries.length; i++) {
+            countryIds.put(countries[i], i);
+        }
+    }
+
+    /**
+     * Returns the number of SWIFT codes in the store.
+     *
+     * @return the number of records
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the direct memory used by the records, the addresses and the country index.
+     *
+     * @return the number of bytes allocated outside the heap
+     */
+    long offHeapBytes() {
+        long bytes = addresses.capacity() + countryRows.capacity();
+        for (ByteBuffer page : recordPages) {
+            bytes += page.capacity();
+        }
+        return bytes;
+    }
+
+    /**
+     * Finds the record of a SWIFT code.
+     *
+     * @param swiftCode the SWIFT code
+     * @return the row of the record, or -1 if the code is not stored
+     */
+    int find(String swiftCode) {
+        byte[] key = encode(swiftCode);
+        int row = lowerBound(key, 0, size);
+        return row < size && compare(row, key) == 0 ? row : -1;
+    }
+
+    /**
+     * Returns the rows of all codes starting with the given prefix.
+     *
+     * @param prefix the start of the codes, e.g. a bank code
+     * @return the first row and the row after the last one; equal if no code starts with the prefix
+     */
+    int[] prefixRange(String prefix) {
+        byte[] key = encode(prefix);
+        int from = lowerBound(key, 0, size);
+        int to = from;
+        while (to < size && startsWith(to, key)) {
+            to++;
+        }
+        return new int[]{from, to};
+    }
+
+    /**
+     * Returns the ISO2 code of the country of a record, without materializing the record.
+     *
+     * @param row the row of the record
+     * @return the ISO2 code, or {@code null} if the record has none
+     */
+    String countryISO2(int row) {
+        int country = page(row).getShort(offset(row) + codeWidth + COUNTRY) & 0xFFFF;
+        return country == NO_COUNTRY ? null : countries[country];
+    }
+
+    /**
+     * Tells whether a record is the headquarter of its bank, without materializing the record.
+     *
+     * @param row the row of the record
+     * @return {@code true} for a headquarter
+     */
+    boolean isHeadquarter(int row) {
+        return page(row).get(offset(row) + codeWidth + FLAGS) == HEADQUARTER;
+    }
+
+    /**
+     * Materializes a record.
+     *
+     * @param row the row of the record
+     * @return a new BranchDto holding the values of the record
+     */
+    BranchDto branch(int row) {
+        ByteBuffer page = page(row);
+        int offset = offset(row);
+        int fields = offset + codeWidth;
+        int length = 0;
+        while (length < codeWidth && page.get(offset + length) != 0) {
+            length++;
+        }
+        byte[] code = new byte[length];
+        page.get(offset, code);
+        int country = page.getShort(fields + COUNTRY) & 0xFFFF;
+        int bankName = page.getInt(fields + BANK_NAME);
+        long address = page.getLong(fields + ADDRESS);
+        return new BranchDto(new String(code, StandardCharsets.UTF_8), bankName < 0 ? null : bankNames[bankName],
+                address < 0 ? null : addresses.get(address), country == NO_COUNTRY ? null : countries[country],
+                page.get(fields + FLAGS) == HEADQUARTER);
+    }
+
+    /**
+     * Returns the SWIFT codes of a country following the given code, in code order. The list is a view:
+     * its elements are materialized when they are read.
+     *
+     * @param countryISO2 the ISO2 code of the country
+     * @param after       only codes after this one are returned; {@code null} starts from the first code
+     * @param limit       the maximum number of codes to return
+     * @return the codes, empty if there are none
+     */
+    List<BranchDto> countryBranches(String countryISO2, String after, int limit) {
+        Integer country = countryIds.get(countryISO2);
+        if (country == null) {
+            return List.of();
+        }
+        int start = countryStarts[country];
+        int end = countryStarts[country + 1];
+        int from = start;
+        if (after != null) {
+            // First code greater than the cursor, which does not have to be a stored code
+            byte[] key = encode(after);
+            int low = start;
+            int high = end;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (compare(countryRow(middle), key) <= 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            from = low;
+        }
+        return new CountryList(from, (int) Math.min(end, (long) from + limit));
+    }
+
+    private int countryRow(int position) {
+        return countryRows.getInt(position * Integer.BYTES);
+    }
+
+    private int lowerBound(byte[] key, int from, int to) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(middle, key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compares the code of a record with a key byte by byte; the code slot is padded with zeros.
+     */
+    private int compare(int row, byte[] key) {
+        ByteBuffer page = page(row);
+        int offset = offset(row);
+        for (int i = 0; i < codeWidth; i++) {
+            int code = page.get(offset + i) & 0xFF;
+            int other = i < key.length ? key[i] & 0xFF : 0;
+            if (code != other) {
+                return code - other;
+            }
+        }
+        return key.length > codeWidth ? -1 : 0;
+    }
+
+    private boolean startsWith(int row, byte[] prefix) {
+        if (prefix.length > codeWidth) {
+            return false;
+        }
+        ByteBuffer page = page(row);
+        int offset = offset(row);
+        for (int i = 0; i < prefix.length; i++) {
+            if (page.get(offset + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ByteBuffer page(int row) {
+        return recordPages[row >>> pageShift];
+    }
+
+    private int offset(int row) {
+        return (row & pageMask) * recordSize;
+    }
+
+    private static byte[] encode(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * View of a range of the country index, materializing the records as they are read.
+     */
+    private final class CountryList extends AbstractList<BranchDto> implements RandomAccess {
+
+        private final int from;
+        private final int to;
+
+        private CountryList(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public BranchDto get(int index) {
+            if (index < 0 || index >= to - from) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return branch(countryRow(from + index));
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+
+    /**
+     * Append-only UTF-8 strings in pages of direct memory, each prefixed with its length.
+     * A reference holds the page in the upper and the offset in the lower 32 bits.
+     */
+    private static final class StringPages {
+
+        private static final int FIRST_PAGE_SIZE = 64 * 1024;
+        private static final int MAX_PAGE_SIZE = 64 * 1024 * 1024;
+
+        private final List<ByteBuffer> pages = new ArrayList<>();
+        private ByteBuffer current;
+
+        long add(byte[] value) {
+            int offset = reserve(value.length);
+            current.putInt(offset, value.length);
+            current.put(offset + Integer.BYTES, value);
+            return reference(offset);
+        }
+
+        long copy(StringPages source, long reference) {
+            ByteBuffer page = source.pages.get((int) (reference >>> 32));
+            int sourceOffset = (int) reference;
+            int length = page.getInt(sourceOffset);
+            int offset = reserve(length);
+            current.putInt(offset, length);
+            current.put(offset + Integer.BYTES, page, sourceOffset + Integer.BYTES, length);
+            return reference(offset);
+        }
+
+        String get(long reference) {
+            ByteBuffer page = pages.get((int) (reference >>> 32));
+            int offset = (int) reference;
+            byte[] value = new byte[page.getInt(offset)];
+            page.get(offset + Integer.BYTES, value);
+            return new String(value, StandardCharsets.UTF_8);
+        }
+
+        long capacity() {
+            return pages.stream().mapToLong(ByteBuffer::capacity).sum();
+        }
+
+        /**
+         * Moves the write position past a string of the given length and returns its offset in the current page.
+         * A string never spans two pages; pages double in size up to {@link #MAX_PAGE_SIZE}.
+         */
+        private int reserve(int length) {
+            int needed = Integer.BYTES + length;
+            if (current == null || current.remaining() < needed) {
+                int pageSize = current == null ? FIRST_PAGE_SIZE : Math.min(MAX_PAGE_SIZE, current.capacity() * 2);
+                current = ByteBuffer.allocateDirect(Math.max(pageSize, needed));
+                pages.add(current);
+            }
+            int offset = current.position();
+            current.position(offset + needed);
+            return offset;
+        }
+
+        private long reference(int offset) {
+            return (long) (pages.size() - 1) << 32 | offset;
+        }
+    }
+
+    /**
+     * Collects records in any order and builds a store sorted by code. When a code is added twice, the last one is kept.
+     * The codes are staged in primitive arrays and the addresses written to their final pages right away,
+     * so building allocates no object per record.
+     */
+    static final class Builder {
+
+        private final List<String> countries = new ArrayList<>();
+        private final Map<String, Integer> countryIds = new HashMap<>();
+        private final List<String> bankNames = new ArrayList<>();
+        private final Map<String, Integer> bankNameIds = new HashMap<>();
+        private final StringPages addresses = new StringPages();
+
+        private byte[] codes = new byte[1024];
+        private int[] codeEnds = new int[64];
+        private int[] countryOf = new int[64];
+        private int[] bankNameOf = new int[64];
+        private long[] addressOf = new long[64];
+        private boolean[] headquarter = new boolean[64];
+        private int size;
+        private int codeWidth = MIN_CODE_WIDTH;
+
+        /**
+         * Adds a SWIFT code.
+         *
+         * @param swiftCode     the SWIFT code
+         * @param bankName      the bank name, may be {@code null}
+         * @param address       the address, may be {@code null}
+         * @param countryISO2   the ISO2 code of the country, may be {@code null}
+         * @param isHeadquarter whether the code is the headquarter of its bank
+         */
+        void add(String swiftCode, String bankName, String address, String countryISO2, boolean isHeadquarter) {
+            byte[] code = encode(swiftCode);
+            int row = stage(code, 0, code.length);
+            countryOf[row] = countryId(countryISO2);
+            bankNameOf[row] = bankName == null ? -1 : bankNameIds.computeIfAbsent(bankName, name -> {
+                bankNames.add(name);
+                return bankNames.size() - 1;
+            });
+            addressOf[row] = address == null ? -1 : addresses.add(encode(address));
+            headquarter[row] = isHeadquarter;
+        }
+
+        /**
+         * Adds a copy of a record of another store, without materializing it.
+         *
+         * @param store the store holding the record
+         * @param row   the row of the record
+         */
+        void add(SwiftRecordStore store, int row) {
+            ByteBuffer page = store.page(row);
+            int offset = store.offset(row);
+            int fields = offset + store.codeWidth;
+            int length = 0;
+            while (length < store.codeWidth && page.get(offset + length) != 0) {
+                length++;
+            }
+            ensureCodeCapacity(length);
+            page.get(offset, codes, codeEnd(), length);
+            int staged = stage(codes, codeEnd(), length);
+            int country = page.getShort(fields + COUNTRY) & 0xFFFF;
+            countryOf[staged] = countryId(country == NO_COUNTRY ? null : store.countries[country]);
+            int bankName = page.getInt(fields + BANK_NAME);
+            bankNameOf[staged] = bankName < 0 ? -1 : bankNameIds.computeIfAbsent(store.bankNames[bankName], name -> {
+                bankNames.add(name);
+                return bankNames.size() - 1;
+            });
+            long address = page.getLong(fields + ADDRESS);
+            addressOf[staged] = address < 0 ? -1 : addresses.copy(store.addresses, address);
+            headquarter[staged] = page.get(fields + FLAGS) == HEADQUARTER;
+        }
+
+        /**
+         * Sorts the added records by code and writes them to direct memory.
+         *
+         * @return the store
+         */
+        SwiftRecordStore build() {
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            sort(order, 0, size);
+            // Equal codes are ordered by the time they were added; keep the last one
+            int unique = 0;
+            for (int i = 0; i < size; i++) {
+                if (i + 1 < size && compareCodes(order[i], order[i + 1]) == 0) {
+                    continue;
+                }
+                order[unique++] = order[i];
+            }
+
+            int recordSize = codeWidth + FIELDS_SIZE;
+            int pageShift = MAX_PAGE_SHIFT;
+            while (pageShift > 0 && (long) recordSize << pageShift > Integer.MAX_VALUE) {
+                pageShift--;
+            }
+            int recordsPerPage = 1 << pageShift;
+            ByteBuffer[] recordPages = new ByteBuffer[(unique + recordsPerPage - 1) / recordsPerPage];
+            for (int i = 0; i < recordPages.length; i++) {
+                recordPages[i] = ByteBuffer.allocateDirect(Math.min(recordsPerPage, unique - i * recordsPerPage) * recordSize);
+            }
+            int[] countryStarts = new int[countries.size() + 1];
+            for (int row = 0; row < unique; row++) {
+                int staged = order[row];
+                ByteBuffer page = recordPages[row >>> pageShift];
+                int offset = (row & (recordsPerPage - 1)) * recordSize;
+                int codeStart = codeStart(staged);
+                // The rest of the slot stays zero: direct buffers are allocated zeroed
+                page.put(offset, codes, codeStart, codeEnds[staged] - codeStart);
+                int fields = offset + codeWidth;
+                page.put(fields + FLAGS, headquarter[staged] ? HEADQUARTER : 0);
+                page.putShort(fields + COUNTRY, (short) countryOf[staged]);
+                page.putInt(fields + BANK_NAME, bankNameOf[staged]);
+                page.putLong(fields + ADDRESS, addressOf[staged]);
+                if (countryOf[staged] != NO_COUNTRY) {
+                    countryStarts[countryOf[staged] + 1]++;
+                }
+            }
+
+            // Rows are visited in code order, so every country group of the index is in code order too
+            for (int i = 1; i < countryStarts.length; i++) {
+                countryStarts[i] += countryStarts[i - 1];
+            }
+            int[] next = Arrays.copyOf(countryStarts, countries.size());
+            ByteBuffer countryRows = ByteBuffer.allocateDirect(countryStarts[countries.size()] * Integer.BYTES);
+            for (int row = 0; row < unique; row++) {
+                int country = countryOf[order[row]];
+                if (country != NO_COUNTRY) {
+                    countryRows.putInt(next[country]++ * Integer.BYTES, row);
+                }
+            }
+            return new SwiftRecordStore(unique, codeWidth, pageShift, recordPages, addresses,
+                    countries.toArray(String[]::new), bankNames.toArray(String[]::new), countryRows, countryStarts);
+        }
+
+        private int countryId(String countryISO2) {
+            if (countryISO2 == null) {
+                return NO_COUNTRY;
+            }
+            return countryIds.computeIfAbsent(countryISO2, iso2 -> {
+                if (countries.size() == NO_COUNTRY) {
+                    throw new IllegalStateException("Too many countries for the snapshot: " + countries.size());
+                }
+                countries.add(iso2);
+                return countries.size() - 1;
+            });
+        }
+
+        /**
+         * Appends a code to the staging arrays, growing them as needed, and returns the index of the staged record.
+         * The code may already be at the end of {@link #codes}.
+         */
+        private int stage(byte[] code, int from, int length) {
+            if (size == codeEnds.length) {
+                int capacity = size * 2;
+                codeEnds = Arrays.copyOf(codeEnds, capacity);
+                countryOf = Arrays.copyOf(countryOf, capacity);
+                bankNameOf = Arrays.copyOf(bankNameOf, capacity);
+                addressOf = Arrays.copyOf(addressOf, capacity);
+                headquarter = Arrays.copyOf(headquarter, capacity);
+            }
+            int end = codeEnd();
+            if (code != codes) {
+                ensureCodeCapacity(length);
+                System.arraycopy(code, from, codes, end, length);
+            }
+            codeEnds[size] = end + length;
+            codeWidth = Math.max(codeWidth, length);
+            return size++;
+        }
+
+        private void ensureCodeCapacity(int length) {
+            int end = codeEnd();
+            if (end + length > codes.length) {
+                codes = Arrays.copyOf(codes, Math.max(codes.length * 2, end + length));
+            }
+        }
+
+        private int codeStart(int staged) {
+            return staged == 0 ? 0 : codeEnds[staged - 1];
+        }
+
+        private int codeEnd() {
+            return size == 0 ? 0 : codeEnds[size - 1];
+        }
+
+        /**
+         * Compares two staged codes byte by byte, a code being less than any longer code it is the start of.
+         */
+        private int compareCodes(int a, int b) {
+            int aStart = codeStart(a);
+            int bStart = codeStart(b);
+            return Arrays.compareUnsigned(codes, aStart, codeEnds[a], codes, bStart, codeEnds[b]);
+        }
+
+        /**
+         * Orders staged records by code, and records with equal codes in the order they were added.
+         */
+        private int compare(int a, int b) {
+            int byCode = compareCodes(a, b);
+            return byCode != 0 ? byCode : Integer.compare(a, b);
+        }
+
+        /**
+         * Sorts the range [from, to) of the staged record indexes: a quicksort on the middle element,
+         * recursing into the smaller part, with an insertion sort for short ranges.
+         */
+        private void sort(int[] order, int from, int to) {
+            while (to - from > 16) {
+                int pivot = order[(from + to) >>> 1];
+                int i = from;
+                int j = to - 1;
+                while (i <= j) {
+                    while (compare(order[i], pivot) < 0) {
+                        i++;
+                    }
+                    while (compare(order[j], pivot) > 0) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        int swapped = order[i];
+                        order[i++] = order[j];
+                        order[j--] = swapped;
+                    }
+                }
+                if (j + 1 - from < to - i) {
+                    sort(order, from, j + 1);
+                    from = i;
+                } else {
+                    sort(order, i, to);
+                    to = j + 1;
+                }
+            }
+            for (int i = from + 1; i < to; i++) {
+                int staged = order[i];
+                int j = i - 1;
+                while (j >= from && compare(order[j], staged) > 0) {
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                order[j + 1] = staged;
+            }
+        }
+    }
+}
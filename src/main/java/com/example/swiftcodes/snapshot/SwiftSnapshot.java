@@ -0,0 +1,350 @@
+package com.example.swiftcodes.snapshot;
+
+import com.example.swiftcodes.dto.BranchDto;
+import com.example.swiftcodes.dto.CountrySwiftResponseDto;
+import com.example.swiftcodes.dto.SwiftResponseDto;
+import com.example.swiftcodes.model.SwiftModel;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable in-memory copy of the SWIFT code directory.
+ * Holds the SWIFT codes in an off-heap {@link SwiftRecordStore}, sorted by code with the codes of a bank adjacent
+ * and indexed by country, so that lookups and country listings are answered without a database round trip.
+ * Responses are materialized from the records on every request. A snapshot is never modified;
+ * changes produce a new snapshot with {@link #withChanges(Collection, Collection)}.
+ *
+ * <p>Single changes are not written to the record store, which would copy every record. They are kept in a small
+ * sorted overlay on the heap, shared with the store by the new snapshot, and merged into the responses.
+ * {@link #compact()} folds the overlay into a new store once it has grown.</p>
+ */
+public final class SwiftSnapshot {
+
+    private static final Comparator<BranchDto> BY_SWIFT_CODE = Comparator.comparing(BranchDto::getSwiftCode);
+
+    private final SwiftRecordStore records;
+    private final Map<String, String> countryNames;
+    // Codes changed since the store was built, with their new values; null for a removed code
+    private final NavigableMap<String, BranchDto> changes;
+    // Countries whose listings differ from the store, because a code of theirs is in the overlay
+    private final Set<String> changedCountries;
+    private final int size;
+
+    SwiftSnapshot(SwiftRecordStore records, Map<String, String> countryNames) {
+        this(records, Collections.unmodifiableMap(new HashMap<>(countryNames)), Collections.emptyNavigableMap(), Set.of());
+    }
+
+    private SwiftSnapshot(SwiftRecordStore records, Map<String, String> countryNames,
+                          NavigableMap<String, BranchDto> changes, Set<String> changedCountries) {
+        this.records = records;
+        this.countryNames = countryNames;
+        this.changes = changes;
+        this.changedCountries = changedCountries;
+        int count = records.size();
+        for (Map.Entry<String, BranchDto> change : changes.entrySet()) {
+            count += (records.find(change.getKey()) >= 0 ? -1 : 0) + (change.getValue() != null ? 1 : 0);
+        }
+        this.size = count;
+    }
+
+    /**
+     * Builds a snapshot from the rows of the SWIFT code and country tables.
+     *
+     * @param codes        all SWIFT codes
+     * @param countryNames country names by ISO2 code
+     * @return the snapshot
+     */
+    public static SwiftSnapshot of(Collection<BranchDto> codes, Map<String, String> countryNames) {
+        SwiftRecordStore.Builder builder = new SwiftRecordStore.Builder();
+        codes.forEach(code -> add(builder, code));
+        return new SwiftSnapshot(builder.build(), countryNames);
+    }
+
+    /**
+     * Builds a new snapshot with the given SWIFT codes added or replaced and the given codes removed.
+     * This snapshot is left unchanged. The new snapshot shares the record store and adds the codes to the overlay,
+     * so the cost depends on the size of the overlay and not on the number of codes. Country names only change
+     * with imports, which load a new snapshot, and are kept.
+     *
+     * @param upserted SWIFT codes that were added or changed
+     * @param removed  SWIFT codes that were deleted
+     * @return the new snapshot
+     */
+    public SwiftSnapshot withChanges(Collection<BranchDto> upserted, Collection<String> removed) {
+        NavigableMap<String, BranchDto> newChanges = new TreeMap<>(changes);
+        Set<String> newCountries = new HashSet<>(changedCountries);
+        for (String swiftCode : removed) {
+            newChanges.put(swiftCode, null);
+            markCountries(newCountries, swiftCode);
+        }
+        for (BranchDto code : upserted) {
+            newChanges.put(code.getSwiftCode(), code);
+            markCountries(newCountries, code.getSwiftCode());
+            newCountries.add(code.getCountryISO2());
+        }
+        return new SwiftSnapshot(records, countryNames, Collections.unmodifiableNavigableMap(newChanges),
+                Collections.unmodifiableSet(newCountries));
+    }
+
+    /**
+     * Applies the changes a newer snapshot received after the given one, e.g. while this snapshot was compacted
+     * from it. Both must share the same record store.
+     *
+     * @param older the snapshot this one was compacted from
+     * @param newer a later snapshot of the same record store
+     * @return the new snapshot
+     */
+    SwiftSnapshot withChangesBetween(SwiftSnapshot older, SwiftSnapshot newer) {
+        List<BranchDto> upserted = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        newer.changes.forEach((swiftCode, code) -> {
+            // Overlays are copied, so an entry of the older snapshot keeps the same value instance
+            if (older.changes.containsKey(swiftCode) && older.changes.get(swiftCode) == code) {
+                return;
+            }
+            if (code == null) {
+                removed.add(swiftCode);
+            } else {
+                upserted.add(code);
+            }
+        });
+        return withChanges(upserted, removed);
+    }
+
+    /**
+     * Tells whether two snapshots share the same record store, differing in their overlays only.
+     *
+     * @param other the other snapshot
+     * @return {@code true} if both read the same store
+     */
+    boolean sharesRecordsWith(SwiftSnapshot other) {
+        return records == other.records;
+    }
+
+    /**
+     * Returns the number of codes in the overlay.
+     *
+     * @return the number of changed and removed codes not written to the record store
+     */
+    public int pendingChanges() {
+        return changes.size();
+    }
+
+    /**
+     * Builds a snapshot holding the same codes with an empty overlay. The records that did not change are copied
+     * without being materialized; this takes time proportional to the number of codes.
+     *
+     * @return the compacted snapshot
+     */
+    public SwiftSnapshot compact() {
+        if (changes.isEmpty()) {
+            return this;
+        }
+        BitSet replaced = new BitSet(records.size());
+        changes.keySet().forEach(swiftCode -> markRow(replaced, swiftCode));
+
+        SwiftRecordStore.Builder builder = new SwiftRecordStore.Builder();
+        for (int row = replaced.nextClearBit(0); row < records.size(); row = replaced.nextClearBit(row + 1)) {
+            builder.add(records, row);
+        }
+        changes.values().forEach(code -> {
+            if (code != null) {
+                add(builder, code);
+            }
+        });
+        return new SwiftSnapshot(builder.build(), countryNames);
+    }
+
+    /**
+     * Returns the details of a SWIFT code, with the other codes of its bank as branches for headquarters.
+     * Like the database query, codes whose country is unknown are not found.
+     *
+     * @param swiftCode the SWIFT code to look up
+     * @return the SWIFT code details or {@code null} if not found
+     */
+    public SwiftResponseDto findSwiftDetails(String swiftCode) {
+        if (!changes.isEmpty()) {
+            return findChangedSwiftDetails(swiftCode);
+        }
+        int row = records.find(swiftCode);
+        if (row < 0 || !countryNames.containsKey(records.countryISO2(row))) {
+            return null;
+        }
+        List<BranchDto> branches = null;
+        if (records.isHeadquarter(row)) {
+            branches = new ArrayList<>();
+            String bankCode = SwiftModel.bankCodeOf(swiftCode);
+            // A code shorter than a bank code is a bank of its own
+            int[] bank = bankCode.length() < SwiftModel.BANK_CODE_LENGTH ? new int[]{row, row} : records.prefixRange(bankCode);
+            for (int branch = bank[0]; branch < bank[1]; branch++) {
+                if (branch != row && countryNames.containsKey(records.countryISO2(branch))) {
+                    branches.add(records.branch(branch));
+                }
+            }
+        }
+        return toResponse(records.branch(row), branches);
+    }
+
+    /**
+     * Looks up a SWIFT code like {@link #findSwiftDetails(String)}, merging the overlay into the records of its bank.
+     */
+    private SwiftResponseDto findChangedSwiftDetails(String swiftCode) {
+        BranchDto code;
+        if (changes.containsKey(swiftCode)) {
+            code = changes.get(swiftCode);
+        } else {
+            int row = records.find(swiftCode);
+            code = row < 0 ? null : records.branch(row);
+        }
+        if (code == null || !countryNames.containsKey(code.getCountryISO2())) {
+            return null;
+        }
+        List<BranchDto> branches = null;
+        String bankCode = SwiftModel.bankCodeOf(swiftCode);
+        if (code.isHeadquarter()) {
+            branches = new ArrayList<>();
+            // A code shorter than a bank code is a bank of its own
+            if (bankCode.length() >= SwiftModel.BANK_CODE_LENGTH) {
+                int[] bank = records.prefixRange(bankCode);
+                for (int row = bank[0]; row < bank[1]; row++) {
+                    BranchDto branch = records.branch(row);
+                    if (!changes.containsKey(branch.getSwiftCode())) {
+                        addBranch(branches, branch, swiftCode);
+                    }
+                }
+                for (BranchDto branch : changes.subMap(bankCode, true, bankCode + Character.MAX_VALUE, false).values()) {
+                    if (branch != null) {
+                        addBranch(branches, branch, swiftCode);
+                    }
+                }
+                branches.sort(BY_SWIFT_CODE);
+            }
+        }
+        return toResponse(code, branches);
+    }
+
+    private void addBranch(List<BranchDto> branches, BranchDto branch, String headquarter) {
+        if (!branch.getSwiftCode().equals(headquarter) && countryNames.containsKey(branch.getCountryISO2())) {
+            branches.add(branch);
+        }
+    }
+
+    private SwiftResponseDto toResponse(BranchDto code, List<BranchDto> branches) {
+        return new SwiftResponseDto(code.getSwiftCode(), code.getBankName(), code.getAddress(), code.getCountryISO2(),
+                countryNames.get(code.getCountryISO2()), code.isHeadquarter(), branches);
+    }
+
+    /**
+     * Returns all SWIFT codes of a country, sorted by SWIFT code. The codes are materialized while the list is read.
+     *
+     * @param countryISO2 the ISO2 code of the country
+     * @return the country with its SWIFT codes or {@code null} if the country is unknown
+     */
+    public CountrySwiftResponseDto findByCountry(String countryISO2) {
+        String countryName = countryNames.get(countryISO2);
+        if (countryName == null) {
+            return null;
+        }
+        return new CountrySwiftResponseDto(countryISO2, countryName, findPageByCountry(countryISO2, null, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Returns the name of a country.
+     *
+     * @param countryISO2 the ISO2 code of the country
+     * @return the country name or {@code null} if the country is unknown
+     */
+    public String findCountryName(String countryISO2) {
+        return countryNames.get(countryISO2);
+    }
+
+    /**
+     * Returns the SWIFT codes of a country following the given code, sorted by SWIFT code.
+     *
+     * @param countryISO2 the ISO2 code of the country
+     * @param after       only codes after this one are returned; {@code null} starts from the first code
+     * @param limit       the maximum number of codes to return
+     * @return the codes, empty if there are none
+     */
+    public List<BranchDto> findPageByCountry(String countryISO2, String after, int limit) {
+        if (!changedCountries.contains(countryISO2)) {
+            return records.countryBranches(countryISO2, after, limit);
+        }
+        // Merge the codes of the store that did not change with the codes of the country in the overlay
+        List<BranchDto> page = new ArrayList<>();
+        Iterator<BranchDto> stored = records.countryBranches(countryISO2, after, Integer.MAX_VALUE).iterator();
+        Iterator<BranchDto> changed = (after == null ? changes : changes.tailMap(after, false)).values().stream()
+                .filter(code -> code != null && countryISO2.equals(code.getCountryISO2()))
+                .iterator();
+        BranchDto nextStored = nextUnchanged(stored);
+        BranchDto nextChanged = changed.hasNext() ? changed.next() : null;
+        while (page.size() < limit && (nextStored != null || nextChanged != null)) {
+            if (nextChanged == null || nextStored != null && BY_SWIFT_CODE.compare(nextStored, nextChanged) < 0) {
+                page.add(nextStored);
+                nextStored = nextUnchanged(stored);
+            } else {
+                page.add(nextChanged);
+                nextChanged = changed.hasNext() ? changed.next() : null;
+            }
+        }
+        return page;
+    }
+
+    private BranchDto nextUnchanged(Iterator<BranchDto> stored) {
+        while (stored.hasNext()) {
+            BranchDto code = stored.next();
+            if (!changes.containsKey(code.getSwiftCode())) {
+                return code;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of SWIFT codes in the snapshot.
+     *
+     * @return the number of SWIFT codes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the direct memory holding the SWIFT codes of the snapshot.
+     *
+     * @return the number of bytes allocated outside the heap
+     */
+    public long offHeapBytes() {
+        return records.offHeapBytes();
+    }
+
+    private void markCountries(Set<String> countries, String swiftCode) {
+        int row = records.find(swiftCode);
+        if (row >= 0) {
+            countries.add(records.countryISO2(row));
+        }
+    }
+
+    private void markRow(BitSet rows, String swiftCode) {
+        int row = records.find(swiftCode);
+        if (row >= 0) {
+            rows.set(row);
+        }
+    }
+
+    private static void add(SwiftRecordStore.Builder builder, BranchDto code) {
+        builder.add(code.getSwiftCode(), code.getBankName(), code.getAddress(), code.getCountryISO2(), code.isHeadquarter());
+    }
+}
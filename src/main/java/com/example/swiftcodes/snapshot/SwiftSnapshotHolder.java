@@ -0,0 +1,194 @@
+package com.example.swiftcodes.snapshot;
+
+import com.example.swiftcodes.config.SwiftProperties;
+import com.example.swiftcodes.dto.BranchDto;
+import com.example.swiftcodes.event.SwiftDataChangedEvent;
+import com.example.swiftcodes.repository.SwiftCursorRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Publishes the current {@link SwiftSnapshot} when the snapshot serving mode is enabled ({@code swift.snapshot.enabled}).
+ *
+ * <p>The snapshot is loaded at startup and replaced after every {@link SwiftDataChangedEvent}: changed codes are
+ * reloaded from the database, a new snapshot is built and published with an atomic reference swap.
+ * Readers never take a lock and always see a complete snapshot. Only a full refresh, sent after imports, reloads
+ * the whole table; single changes are added to the overlay of the snapshot, which is compacted in the background
+ * once it holds {@code swift.snapshot.compaction-threshold} codes.</p>
+ *
+ * <p>The SWIFT codes of a snapshot are held in direct memory, which is bounded by {@code -XX:MaxDirectMemorySize}
+ * (by default the maximum heap size). While a new snapshot is built the previous one is still in use, and its memory
+ * is released once it has been garbage collected.</p>
+ */
+@Component
+public class SwiftSnapshotHolder {
+
+    private static final Logger logger = LoggerFactory.getLogger(SwiftSnapshotHolder.class);
+
+    private static final String SELECT_SWIFT_CODES =
+            "SELECT swift_code, bank_name, address, iso2code, is_headquarter FROM swift_model";
+
+    private static final RowMapper<BranchDto> BRANCH_MAPPER = (rs, rowNum) -> new BranchDto(
+            rs.getString("swift_code"), rs.getString("bank_name"), rs.getString("address"),
+            rs.getString("iso2code"), rs.getBoolean("is_headquarter"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SwiftCursorRepository swiftCursorRepository;
+    private final boolean enabled;
+    private final int compactionThreshold;
+    private final AtomicReference<SwiftSnapshot> current = new AtomicReference<>();
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+    private final ExecutorService compactor;
+
+    /**
+     * Constructor for SwiftSnapshotHolder.
+     *
+     * @param jdbcTemplate          the JdbcTemplate used to load changed codes and the countries
+     * @param swiftCursorRepository the cursor reads used to load the whole table
+     * @param properties            the application settings, telling whether the snapshot mode is enabled
+     *                              and when it is compacted
+     */
+    public SwiftSnapshotHolder(JdbcTemplate jdbcTemplate, SwiftCursorRepository swiftCursorRepository, SwiftProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.swiftCursorRepository = swiftCursorRepository;
+        this.enabled = properties.getSnapshot().isEnabled();
+        this.compactionThreshold = properties.getSnapshot().getCompactionThreshold();
+        this.compactor = enabled ? Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "swift-snapshot-compaction");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    /**
+     * Returns the current snapshot.
+     *
+     * @return the snapshot, or {@code null} if the snapshot mode is disabled or the snapshot is not loaded yet
+     */
+    public SwiftSnapshot get() {
+        return current.get();
+    }
+
+    /**
+     * Loads the first snapshot once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    /**
+     * Publishes a new snapshot reflecting a data change.
+     *
+     * @param event the event describing the change
+     */
+    @EventListener
+    @Order(0) // Before DatasetVersion, see its description
+    public synchronized void onDataChanged(SwiftDataChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        SwiftSnapshot snapshot = current.get();
+        if (snapshot == null || event.isFullRefresh()) {
+            reload();
+            return;
+        }
+        // Reload only the changed codes; codes that no longer exist are removed
+        List<BranchDto> changed = loadSwiftCodes(event.getSwiftCodes());
+        Set<String> removed = new HashSet<>(event.getSwiftCodes());
+        changed.forEach(code -> removed.remove(code.getSwiftCode()));
+        SwiftSnapshot changedSnapshot = snapshot.withChanges(changed, removed);
+        current.set(changedSnapshot);
+        if (changedSnapshot.pendingChanges() >= compactionThreshold && compactionScheduled.compareAndSet(false, true)) {
+            compactor.execute(() -> compact(changedSnapshot));
+        }
+    }
+
+    /**
+     * Stops the background compaction when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (compactor != null) {
+            compactor.shutdownNow();
+        }
+    }
+
+    /**
+     * Folds the overlay of a snapshot into a new record store, outside the lock, and publishes it with the changes
+     * made in the meantime. The result is dropped if the whole snapshot was reloaded in the meantime.
+     *
+     * @param snapshot the snapshot to compact
+     */
+    void compact(SwiftSnapshot snapshot) {
+        try {
+            long start = System.nanoTime();
+            SwiftSnapshot compacted = snapshot.compact();
+            synchronized (this) {
+                SwiftSnapshot latest = current.get();
+                if (latest != null && latest.sharesRecordsWith(snapshot)) {
+                    current.set(compacted.withChangesBetween(snapshot, latest));
+                    logger.info("Compacted snapshot of {} SWIFT codes in {} ms", compacted.size(),
+                            (System.nanoTime() - start) / 1_000_000);
+                }
+            }
+        } catch (RuntimeException e) {
+            // The overlay keeps growing until the next attempt
+            logger.error("Compacting the snapshot failed: {}", e.getMessage(), e);
+        } finally {
+            compactionScheduled.set(false);
+        }
+    }
+
+    /**
+     * Loads a complete snapshot from the database and publishes it.
+     */
+    public synchronized void reload() {
+        long start = System.nanoTime();
+        // Rows are fetched in chunks through a cursor and go straight into the record store, without a DTO per row
+        SwiftRecordStore.Builder builder = new SwiftRecordStore.Builder();
+        swiftCursorRepository.forEachRow(SELECT_SWIFT_CODES, rs -> builder.add(rs.getString("swift_code"),
+                rs.getString("bank_name"), rs.getString("address"), rs.getString("iso2code"), rs.getBoolean("is_headquarter")));
+        SwiftSnapshot snapshot = new SwiftSnapshot(builder.build(), loadCountryNames());
+        current.set(snapshot);
+        logger.info("Loaded snapshot of {} SWIFT codes ({} KB off-heap) in {} ms", snapshot.size(), snapshot.offHeapBytes() / 1024,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private List<BranchDto> loadSwiftCodes(Set<String> swiftCodes) {
+        if (swiftCodes.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(swiftCodes.size(), "?"));
+        return jdbcTemplate.query(SELECT_SWIFT_CODES + " WHERE swift_code IN (" + placeholders + ")",
+                BRANCH_MAPPER, swiftCodes.toArray());
+    }
+
+    private Map<String, String> loadCountryNames() {
+        Map<String, String> countryNames = new HashMap<>();
+        jdbcTemplate.query("SELECT iso2code, name FROM country_model",
+                (RowCallbackHandler) rs -> countryNames.put(rs.getString("iso2code"), rs.getString("name")));
+        return countryNames;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.swiftcodes.bulkhead;
+
+import com.example.swiftcodes.config.SwiftProperties;
+import com.example.swiftcodes.controller.SwiftController;
+import com.example.swiftcodes.dto.SwiftLookupRequestDto;
+import com.example.swiftcodes.metrics.SwiftMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit test for the BulkheadInterceptor class.
+ */
+class BulkheadInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SwiftController controller = mock(SwiftController.class);
+    private SwiftProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SwiftProperties();
+        properties.getBulkhead().setCountry(new SwiftProperties.Limit(1, Duration.ZERO, 0));
+    }
+
+    @Test
+    void testPreHandle_RejectsWhenGroupIsFull() throws Exception {
+        // Given
+        BulkheadInterceptor interceptor = interceptor();
+        HandlerMethod countryListing = handler("getSwiftCodesByCountry", String.class, Integer.class, String.class, String.class);
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        assertTrue(interceptor.preHandle(first, new MockHttpServletResponse(), countryListing));
+
+        // When
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        boolean admitted = interceptor.preHandle(new MockHttpServletRequest(), rejected, countryListing);
+
+        // Then
+        assertFalse(admitted);
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertEquals("{\"message\":\"Too many concurrent requests, try again later.\"}", rejected.getContentAsString());
+        assertEquals(1, meterRegistry.get("swift.bulkhead.rejected").tag("group", "country").counter().count());
+        assertEquals(1, meterRegistry.get("swift.bulkhead.active").tag("group", "country").gauge().value());
+
+        // And the slot is free again once the first response is complete
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), countryListing, null);
+        assertEquals(0, meterRegistry.get("swift.bulkhead.active").tag("group", "country").gauge().value());
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), countryListing));
+    }
+
+    @Test
+    void testPreHandle_GroupsHaveSeparateLimits() throws Exception {
+        // Given the only country slot is taken
+        BulkheadInterceptor interceptor = interceptor();
+        HandlerMethod countryListing = handler("getSwiftCodesByCountry", String.class, Integer.class, String.class, String.class);
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), countryListing));
+
+        // When / Then lookups, uploads and endpoints without a group are still admitted
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                handler("getSwiftDetails", String.class, String.class)));
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                handler("uploadExcel", MultipartFile.class, boolean.class)));
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                handler("getImportJob", String.class)));
+        assertEquals(1, meterRegistry.get("swift.bulkhead.active").tag("group", "lookups").gauge().value());
+        assertEquals(1, meterRegistry.get("swift.bulkhead.active").tag("group", "imports").gauge().value());
+        assertEquals(64, meterRegistry.get("swift.bulkhead.limit").tag("group", "lookups").gauge().value());
+    }
+
+    @Test
+    void testPreHandle_StreamedResponseKeepsSlotUntilComplete() throws Exception {
+        // Given a streamed listing holding the only country slot
+        BulkheadInterceptor interceptor = interceptor();
+        HandlerMethod streamedListing = handler("streamSwiftCodesByCountry", String.class, String.class, String.class);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), streamedListing));
+        interceptor.afterConcurrentHandlingStarted(request, new MockHttpServletResponse(), streamedListing);
+
+        // When the request is dispatched again after the response is written
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), streamedListing));
+        assertFalse(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), streamedListing));
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), streamedListing, null);
+
+        // Then the slot is released once
+        assertEquals(0, meterRegistry.get("swift.bulkhead.active").tag("group", "country").gauge().value());
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), streamedListing, null);
+        assertEquals(0, meterRegistry.get("swift.bulkhead.active").tag("group", "country").gauge().value());
+    }
+
+    @Test
+    void testPreHandle_ExportsBulkLookupsAndSearchesHaveTheirOwnGroups() throws Exception {
+        // Given the only export slot is taken
+        properties.getBulkhead().setExports(new SwiftProperties.Limit(1, Duration.ZERO, 0));
+        BulkheadInterceptor interceptor = interceptor();
+        HandlerMethod export = handler("exportSwiftCodes");
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), export));
+
+        // When / Then another export is rejected, bulk lookups and searches are admitted
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(new MockHttpServletRequest(), rejected, export));
+        assertEquals(429, rejected.getStatus());
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                handler("lookupSwiftCodes", SwiftLookupRequestDto.class)));
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                handler("searchSwiftCodes", String.class, String.class, Integer.class)));
+        assertEquals(1, meterRegistry.get("swift.bulkhead.rejected").tag("group", "exports").counter().count());
+        assertEquals(1, meterRegistry.get("swift.bulkhead.active").tag("group", "bulk-lookups").gauge().value());
+        assertEquals(1, meterRegistry.get("swift.bulkhead.active").tag("group", "search").gauge().value());
+    }
+
+    @Test
+    void testPreHandle_Disabled() throws Exception {
+        // Given
+        properties.getBulkhead().setEnabled(false);
+        BulkheadInterceptor interceptor = interceptor();
+        HandlerMethod countryListing = handler("getSwiftCodesByCountry", String.class, Integer.class, String.class, String.class);
+
+        // When / Then
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), countryListing));
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), countryListing));
+        assertTrue(meterRegistry.find("swift.bulkhead.active").gauges().isEmpty());
+    }
+
+    private BulkheadInterceptor interceptor() {
+        return new BulkheadInterceptor(properties, new SwiftMetrics(meterRegistry), new ObjectMapper());
+    }
+
+    private HandlerMethod handler(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        return new HandlerMethod(controller, SwiftController.class.getMethod(name, parameterTypes));
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.swiftcodes.bulkhead;
+
+import com.example.swiftcodes.config.SwiftProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the EndpointBulkhead class.
+ */
+class EndpointBulkheadTest {
+
+    @Test
+    void testTryAcquire_RejectsRightAwayWithoutWait() throws Exception {
+        // Given
+        EndpointBulkhead bulkhead = new EndpointBulkhead(new SwiftProperties.Limit(2, Duration.ZERO, 10));
+
+        // When / Then
+        assertTrue(bulkhead.tryAcquire());
+        assertTrue(bulkhead.tryAcquire());
+        assertFalse(bulkhead.tryAcquire());
+        assertEquals(2, bulkhead.getActive());
+
+        bulkhead.release();
+        assertEquals(1, bulkhead.getActive());
+        assertTrue(bulkhead.tryAcquire());
+    }
+
+    @Test
+    void testTryAcquire_WaitsForReleasedSlot() throws Exception {
+        // Given
+        EndpointBulkhead bulkhead = new EndpointBulkhead(new SwiftProperties.Limit(1, Duration.ofSeconds(10), 1));
+        assertTrue(bulkhead.tryAcquire());
+
+        // When
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> acquire(bulkhead));
+        awaitWaiting(bulkhead, 1);
+        bulkhead.release();
+
+        // Then
+        assertTrue(waiter.get(10, TimeUnit.SECONDS));
+        assertEquals(0, bulkhead.getWaiting());
+        assertEquals(1, bulkhead.getActive());
+    }
+
+    @Test
+    void testTryAcquire_RejectsWhenWaitExpiresOrQueueIsFull() throws Exception {
+        // Given
+        EndpointBulkhead bulkhead = new EndpointBulkhead(new SwiftProperties.Limit(1, Duration.ofSeconds(10), 1));
+        assertTrue(bulkhead.tryAcquire());
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> acquire(bulkhead));
+        awaitWaiting(bulkhead, 1);
+
+        // When another request arrives while one is already waiting
+        long start = System.nanoTime();
+        boolean acquired = bulkhead.tryAcquire();
+
+        // Then it is rejected without waiting
+        assertFalse(acquired);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        bulkhead.release();
+        assertTrue(waiter.get(10, TimeUnit.SECONDS));
+
+        // And a short wait expires
+        EndpointBulkhead full = new EndpointBulkhead(new SwiftProperties.Limit(1, Duration.ofMillis(20), 1));
+        assertTrue(full.tryAcquire());
+        assertFalse(full.tryAcquire());
+        assertEquals(0, full.getWaiting());
+    }
+
+    @Test
+    void testConstructor_RequiresSlot() {
+        assertThrows(IllegalArgumentException.class, () -> new EndpointBulkhead(new SwiftProperties.Limit(0, Duration.ZERO, 0)));
+    }
+
+    private static boolean acquire(EndpointBulkhead bulkhead) {
+        try {
+            return bulkhead.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void awaitWaiting(EndpointBulkhead bulkhead, int waiting) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (bulkhead.getWaiting() < waiting && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(waiting, bulkhead.getWaiting());
+    }
+}
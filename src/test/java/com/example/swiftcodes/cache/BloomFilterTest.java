@@ -0,0 +1,49 @@
+package com.example.swiftcodes.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the BloomFilter class.
+ */
+class BloomFilterTest {
+
+    @Test
+    void testAddedValuesAreAlwaysFound() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(String.format("BANKPLPW%03d", i));
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain(String.format("BANKPLPW%03d", i)));
+        }
+    }
+
+    @Test
+    void testFalsePositiveRateIsNearTheConfiguredOne() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(String.format("AAAA%02dBB%03d", i % 100, i / 100));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(String.format("ZZZZ%02dYY%03d", i % 100, i / 100))) {
+                falsePositives++;
+            }
+        }
+
+        // 1 % of 100 000 lookups, with room for the variance of the hash
+        assertTrue(falsePositives < 2_000, "False positives: " + falsePositives);
+        assertEquals(7, filter.hashCount());
+    }
+
+    @Test
+    void testInvalidFalsePositiveRateIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1));
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.swiftcodes.cache;
+
+import com.example.swiftcodes.config.SwiftProperties;
+import com.example.swiftcodes.dto.BranchDto;
+import com.example.swiftcodes.event.SwiftDataChangedEvent;
+import com.example.swiftcodes.repository.SwiftCursorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for the CountryIndex class.
+ */
+class CountryIndexTest {
+
+    private static final BranchDto AL_HEADQUARTER = new BranchDto("AAISALTRXXX", "Bank", "Address", "AL", true);
+    private static final BranchDto AL_BRANCH = new BranchDto("AAISALTR001", "Bank", "Address", "AL", false);
+    private static final BranchDto PL_HEADQUARTER = new BranchDto("BPKOPLPWXXX", "Bank", "Address", "PL", true);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private SwiftCursorRepository swiftCursorRepository;
+
+    private CountryIndex countryIndex;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        countryIndex = new CountryIndex(jdbcTemplate, swiftCursorRepository, new SwiftProperties());
+    }
+
+    @Test
+    void testOnApplicationReady_LoadsAllCountries() {
+        // Given
+        givenDatabase();
+
+        // When
+        countryIndex.onApplicationReady();
+
+        // Then
+        assertTrue(countryIndex.isLoaded());
+        assertEquals("ALBANIA", countryIndex.findCountryName("AL"));
+        assertEquals(List.of(AL_BRANCH, AL_HEADQUARTER), countryIndex.findByCountry("AL").getSwiftCodes());
+        assertEquals(List.of(), countryIndex.findByCountry("DE").getSwiftCodes());
+        assertNull(countryIndex.findByCountry("XX"));
+    }
+
+    @Test
+    void testOnApplicationReady_DisabledInSnapshotMode() {
+        // Given
+        SwiftProperties properties = new SwiftProperties();
+        properties.getSnapshot().setEnabled(true);
+        countryIndex = new CountryIndex(jdbcTemplate, swiftCursorRepository, properties);
+
+        // When
+        countryIndex.onApplicationReady();
+
+        // Then
+        assertFalse(countryIndex.isLoaded());
+        verifyNoInteractions(jdbcTemplate, swiftCursorRepository);
+    }
+
+    @Test
+    void testFindPageByCountry_StartsAfterCursor() {
+        // Given
+        givenDatabase();
+        countryIndex.onApplicationReady();
+
+        // When / Then
+        assertEquals(List.of(AL_BRANCH), countryIndex.findPageByCountry("AL", null, 1));
+        assertEquals(List.of(AL_HEADQUARTER), countryIndex.findPageByCountry("AL", "AAISALTR001", 5));
+        assertEquals(List.of(AL_HEADQUARTER), countryIndex.findPageByCountry("AL", "AAISALTR002", 5));
+        assertEquals(List.of(), countryIndex.findPageByCountry("AL", "AAISALTRXXX", 5));
+        assertNull(countryIndex.findPageByCountry("XX", null, 5));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testOnDataChanged_ReloadsOnlyCountryOfChangedCode() {
+        // Given the headquarter of Albania was deleted
+        givenDatabase();
+        countryIndex.onApplicationReady();
+        when(jdbcTemplate.query(startsWith("SELECT DISTINCT iso2code"), any(RowMapper.class), eq("AAISALTRXXX")))
+                .thenReturn(List.of());
+        when(jdbcTemplate.query(startsWith("SELECT name FROM country_model"), any(RowMapper.class), eq("AL")))
+                .thenReturn(List.of("ALBANIA"));
+        when(jdbcTemplate.query(startsWith("SELECT swift_code"), any(RowMapper.class), eq("AL")))
+                .thenReturn(List.of(AL_BRANCH));
+
+        // When
+        countryIndex.onDataChanged(SwiftDataChangedEvent.of("AAISALTRXXX"));
+
+        // Then
+        assertEquals(List.of(AL_BRANCH), countryIndex.findByCountry("AL").getSwiftCodes());
+        assertEquals(List.of(PL_HEADQUARTER), countryIndex.findByCountry("PL").getSwiftCodes());
+        verify(jdbcTemplate, never()).query(anyString(), any(RowMapper.class), eq("PL"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testOnDataChanged_ImportReloadsItsCountries() {
+        // Given an import added a code to Poland
+        givenDatabase();
+        countryIndex.onApplicationReady();
+        BranchDto added = new BranchDto("BPKOPLPW001", "Bank", "Address", "PL", false);
+        when(jdbcTemplate.query(startsWith("SELECT name FROM country_model"), any(RowMapper.class), eq("PL")))
+                .thenReturn(List.of("POLAND"));
+        when(jdbcTemplate.query(startsWith("SELECT swift_code"), any(RowMapper.class), eq("PL")))
+                .thenReturn(List.of(added, PL_HEADQUARTER));
+
+        // When
+        countryIndex.onDataChanged(SwiftDataChangedEvent.fullRefresh(Set.of("PL")));
+
+        // Then only Poland is read again
+        assertEquals(List.of(added, PL_HEADQUARTER), countryIndex.findByCountry("PL").getSwiftCodes());
+        verify(swiftCursorRepository, times(1)).forEachRow(anyString(), any(RowCallbackHandler.class));
+        verify(jdbcTemplate, never()).query(anyString(), any(RowMapper.class), eq("AL"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testOnDataChanged_SortsCodesRegardlessOfDatabaseOrder() {
+        // Given the database returns the codes of Poland in another order than the lookups use
+        givenDatabase();
+        countryIndex.onApplicationReady();
+        BranchDto digitBranch = new BranchDto("BPKOPLPW001", "Bank", "Address", "PL", false);
+        BranchDto lowerCaseBranch = new BranchDto("BPKOPLPWabc", "Bank", "Address", "PL", false);
+        when(jdbcTemplate.query(startsWith("SELECT name FROM country_model"), any(RowMapper.class), eq("PL")))
+                .thenReturn(List.of("POLAND"));
+        when(jdbcTemplate.query(startsWith("SELECT swift_code"), any(RowMapper.class), eq("PL")))
+                .thenReturn(List.of(lowerCaseBranch, PL_HEADQUARTER, digitBranch));
+
+        // When
+        countryIndex.onDataChanged(SwiftDataChangedEvent.fullRefresh(Set.of("PL")));
+
+        // Then
+        assertEquals(List.of(digitBranch, PL_HEADQUARTER, lowerCaseBranch), countryIndex.findByCountry("PL").getSwiftCodes());
+        assertEquals(List.of(lowerCaseBranch), countryIndex.findPageByCountry("PL", "BPKOPLPWXXX", 5));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenDatabase() {
+        // Rows arrive in table order
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (BranchDto swiftCode : List.of(PL_HEADQUARTER, AL_HEADQUARTER, AL_BRANCH)) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString("swift_code")).thenReturn(swiftCode.getSwiftCode());
+                when(rs.getString("bank_name")).thenReturn(swiftCode.getBankName());
+                when(rs.getString("address")).thenReturn(swiftCode.getAddress());
+                when(rs.getString("iso2code")).thenReturn(swiftCode.getCountryISO2());
+                when(rs.getBoolean("is_headquarter")).thenReturn(swiftCode.isHeadquarter());
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(swiftCursorRepository).forEachRow(startsWith("SELECT swift_code"), any(RowCallbackHandler.class));
+        when(jdbcTemplate.query(eq("SELECT iso2code, name FROM country_model"), any(RowMapper.class)))
+                .thenReturn(List.of(Map.entry("AL", "ALBANIA"), Map.entry("DE", "GERMANY"), Map.entry("PL", "POLAND")));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.swiftcodes.cache;
+
+import com.example.swiftcodes.event.SwiftDataChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the DatasetVersion class.
+ */
+class DatasetVersionTest {
+
+    @Test
+    void testVersionIncreasesOnEveryChange() {
+        DatasetVersion version = new DatasetVersion();
+        long initial = version.get();
+
+        version.onDataChanged(SwiftDataChangedEvent.of("AAISALTRXXX"));
+        version.onDataChanged(SwiftDataChangedEvent.fullRefresh());
+
+        assertEquals(initial + 2, version.get());
+        assertEquals("\"PL-" + (initial + 2) + "\"", version.etag("pl"));
+    }
+
+    @Test
+    void testDetailsEtagChangesOnlyWithItsBank() {
+        DatasetVersion version = new DatasetVersion();
+        String tag = version.detailsEtag("AAISALTRXXX");
+
+        version.onDataChanged(SwiftDataChangedEvent.of("BBBBALTRXXX"));
+        assertEquals(tag, version.detailsEtag("AAISALTRXXX"));
+
+        version.onDataChanged(SwiftDataChangedEvent.of("AAISALTR001"));
+        String afterBranchChange = version.detailsEtag("AAISALTRXXX");
+        assertNotEquals(tag, afterBranchChange);
+
+        version.onDataChanged(SwiftDataChangedEvent.fullRefresh(Set.of("PL")));
+        assertNotEquals(afterBranchChange, version.detailsEtag("AAISALTRXXX"));
+        assertNotEquals(version.detailsEtag("AAISALTRXXX"), version.detailsEtag("AAISALTR001"));
+    }
+
+    @Test
+    void testMatches() {
+        assertTrue(DatasetVersion.matches("\"42\"", "\"42\"", () -> false));
+        assertTrue(DatasetVersion.matches("\"1\", W/\"42\"", "\"42\"", () -> false));
+        assertFalse(DatasetVersion.matches("\"41\"", "\"42\"", () -> true));
+        assertFalse(DatasetVersion.matches(null, "\"42\"", () -> true));
+    }
+
+    @Test
+    void testMatches_AnyTagOnlyIfResourceExists() {
+        assertTrue(DatasetVersion.matches("*", "\"42\"", () -> true));
+        assertFalse(DatasetVersion.matches("*", "\"42\"", () -> false));
+        assertFalse(DatasetVersion.matches("\"41\", *", "\"42\"", () -> false));
+    }
+}
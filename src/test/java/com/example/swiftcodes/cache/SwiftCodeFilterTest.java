@@ -0,0 +1,180 @@
+package com.example.swiftcodes.cache;
+
+import com.example.swiftcodes.config.SwiftProperties;
+import com.example.swiftcodes.event.SwiftDataChangedEvent;
+import com.example.swiftcodes.event.SwiftImportEvent;
+import com.example.swiftcodes.metrics.SwiftMetrics;
+import com.example.swiftcodes.repository.SwiftCursorRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for the SwiftCodeFilter class.
+ */
+class SwiftCodeFilterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private SwiftCursorRepository swiftCursorRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private SwiftCodeFilter swiftCodeFilter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        swiftCodeFilter = new SwiftCodeFilter(jdbcTemplate, swiftCursorRepository, new SwiftProperties(), new SwiftMetrics(meterRegistry));
+    }
+
+    @AfterEach
+    void tearDown() {
+        swiftCodeFilter.shutdown();
+    }
+
+    @Test
+    void testMightContain_RejectsUnknownCodesAndCountsThem() {
+        // Given
+        givenStoredCodes("AAISALTRXXX", "BPKOPLPWXXX");
+        swiftCodeFilter.onApplicationReady();
+
+        // When / Then
+        assertTrue(swiftCodeFilter.mightContain("AAISALTRXXX"));
+        assertTrue(swiftCodeFilter.mightContain("BPKOPLPWXXX"));
+        assertFalse(swiftCodeFilter.mightContain("UNKNOWN0001"));
+        assertEquals(1, meterRegistry.counter("swift.lookup.filtered").count());
+    }
+
+    @Test
+    void testMightContain_AcceptsEverythingBeforeTheFilterIsBuilt() {
+        assertTrue(swiftCodeFilter.mightContain("UNKNOWN0001"));
+        verifyNoInteractions(jdbcTemplate, swiftCursorRepository);
+    }
+
+    @Test
+    void testOnDataChanged_AddedCodeIsAcceptedWithoutRebuild() {
+        // Given
+        givenStoredCodes("AAISALTRXXX");
+        swiftCodeFilter.onApplicationReady();
+
+        // When
+        swiftCodeFilter.onDataChanged(SwiftDataChangedEvent.of("BPKOPLPWXXX"));
+
+        // Then
+        assertTrue(swiftCodeFilter.mightContain("BPKOPLPWXXX"));
+        verify(swiftCursorRepository, times(1)).forEachRow(anyString(), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void testOnDataChanged_ImportRebuildsTheFilter() {
+        // Given
+        givenStoredCodes("AAISALTRXXX");
+        swiftCodeFilter.onApplicationReady();
+        givenStoredCodes("AAISALTRXXX", "BPKOPLPWXXX");
+
+        // When
+        swiftCodeFilter.onDataChanged(SwiftDataChangedEvent.fullRefresh(Set.of("PL")));
+
+        // Then
+        assertTrue(swiftCodeFilter.mightContain("BPKOPLPWXXX"));
+        assertFalse(swiftCodeFilter.mightContain("UNKNOWN0001"));
+    }
+
+    @Test
+    void testOnImport_CommittedCodeIsFoundWhileImportRuns() {
+        // Given an import has started and committed its first batch
+        givenStoredCodes("AAISALTRXXX");
+        swiftCodeFilter.onApplicationReady();
+        swiftCodeFilter.onImport(SwiftImportEvent.started());
+        givenStoredCodes("AAISALTRXXX", "BPKOPLPWXXX");
+
+        // When a periodic rebuild runs before the import has ended
+        swiftCodeFilter.rebuild();
+
+        // Then the code of the committed batch is still looked up in the database
+        assertTrue(swiftCodeFilter.mightContain("BPKOPLPWXXX"));
+        assertTrue(swiftCodeFilter.mightContain("UNKNOWN0001"));
+
+        // And the filter is in use again once the import has ended
+        swiftCodeFilter.onDataChanged(SwiftDataChangedEvent.fullRefresh(Set.of("PL")));
+        swiftCodeFilter.onImport(SwiftImportEvent.finished());
+        assertTrue(swiftCodeFilter.mightContain("BPKOPLPWXXX"));
+        assertFalse(swiftCodeFilter.mightContain("UNKNOWN0001"));
+    }
+
+    @Test
+    void testOnImport_FilterStaysSuspendedUntilLastImportEnds() {
+        // Given two imports are running
+        givenStoredCodes("AAISALTRXXX");
+        swiftCodeFilter.onApplicationReady();
+        swiftCodeFilter.onImport(SwiftImportEvent.started());
+        swiftCodeFilter.onImport(SwiftImportEvent.started());
+
+        // When the first one ends
+        swiftCodeFilter.onImport(SwiftImportEvent.finished());
+
+        // Then
+        assertTrue(swiftCodeFilter.mightContain("UNKNOWN0001"));
+        swiftCodeFilter.onImport(SwiftImportEvent.finished());
+        assertFalse(swiftCodeFilter.mightContain("UNKNOWN0001"));
+    }
+
+    @Test
+    void testRebuild_DropsDeletedCodes() {
+        // Given
+        givenStoredCodes("AAISALTRXXX", "BPKOPLPWXXX");
+        swiftCodeFilter.onApplicationReady();
+        swiftCodeFilter.onDataChanged(SwiftDataChangedEvent.of("BPKOPLPWXXX"));
+        givenStoredCodes("AAISALTRXXX");
+
+        // When
+        swiftCodeFilter.rebuild();
+
+        // Then
+        assertFalse(swiftCodeFilter.mightContain("BPKOPLPWXXX"));
+    }
+
+    @Test
+    void testOnApplicationReady_DisabledInSnapshotMode() {
+        // Given
+        SwiftProperties properties = new SwiftProperties();
+        properties.getSnapshot().setEnabled(true);
+        swiftCodeFilter = new SwiftCodeFilter(jdbcTemplate, swiftCursorRepository, properties, new SwiftMetrics(meterRegistry));
+
+        // When
+        swiftCodeFilter.onApplicationReady();
+
+        // Then
+        assertTrue(swiftCodeFilter.mightContain("UNKNOWN0001"));
+        verifyNoInteractions(jdbcTemplate, swiftCursorRepository);
+    }
+
+    private void givenStoredCodes(String... swiftCodes) {
+        when(jdbcTemplate.queryForObject("SELECT count(*) FROM swift_model", Long.class)).thenReturn((long) swiftCodes.length);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (String swiftCode : List.of(swiftCodes)) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString("swift_code")).thenReturn(swiftCode);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(swiftCursorRepository).forEachRow(eq("SELECT swift_code FROM swift_model"), any(RowCallbackHandler.class));
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.swiftcodes.cache;
+
+import com.example.swiftcodes.config.SwiftProperties;
+import com.example.swiftcodes.dto.BranchDto;
+import com.example.swiftcodes.dto.SwiftResponseDto;
+import com.example.swiftcodes.event.SwiftDataChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the SwiftDetailsCache class.
+ */
+class SwiftDetailsCacheTest {
+
+    private SwiftDetailsCache cache;
+    private AtomicInteger loads;
+    private Function<String, SwiftResponseDto> loader;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SwiftDetailsCache(new SwiftProperties());
+        loads = new AtomicInteger();
+        loader = code -> {
+            loads.incrementAndGet();
+            return new SwiftResponseDto(code, "Bank", "Address", "AL", "ALBANIA", code.endsWith("XXX"), null);
+        };
+    }
+
+    @Test
+    void testEvictRemovesWholeBank() {
+        // Fill the cache with a headquarter, its branch and an unrelated bank
+        cache.get("AAISALTRXXX", loader);
+        cache.get("AAISALTR001", loader);
+        cache.get("BBBBALTRXXX", loader);
+
+        // Adding or deleting a branch makes the headquarter's branch list stale
+        cache.onDataChanged(SwiftDataChangedEvent.of("AAISALTR002"));
+
+        cache.get("AAISALTRXXX", loader);
+        cache.get("AAISALTR001", loader);
+        cache.get("BBBBALTRXXX", loader);
+
+        assertEquals(5, loads.get()); // Only the unrelated bank stayed cached
+        assertEquals(2, cache.getStats().getInvalidationCount());
+    }
+
+    @Test
+    void testEvictRemovesEncodedResponsesOfBank() {
+        cache.getJson("AAISALTRXXX", loader, details -> new byte[]{1});
+        cache.getJson("BBBBALTRXXX", loader, details -> new byte[]{1});
+
+        cache.onDataChanged(SwiftDataChangedEvent.of("AAISALTR002"));
+
+        assertArrayEquals(new byte[]{2}, cache.getJson("AAISALTRXXX", loader, details -> new byte[]{2}));
+        assertArrayEquals(new byte[]{1}, cache.getJson("BBBBALTRXXX", loader, details -> new byte[]{2}));
+    }
+
+    @Test
+    void testEncodedResponseSharesTheEntry() {
+        AtomicInteger encodings = new AtomicInteger();
+        Function<SwiftResponseDto, byte[]> encoder = details -> {
+            encodings.incrementAndGet();
+            return new byte[]{1};
+        };
+
+        cache.get("AAISALTRXXX", loader);
+        cache.getJson("AAISALTRXXX", loader, encoder);
+        cache.getJson("AAISALTRXXX", loader, encoder);
+
+        // One load and one encoding, kept in a single entry; every lookup is counted once
+        assertEquals(1, loads.get());
+        assertEquals(1, encodings.get());
+        assertEquals(1, cache.getStats().getSize());
+        assertEquals(2, cache.getStats().getHitCount());
+        assertEquals(1, cache.getStats().getMissCount());
+    }
+
+    @Test
+    void testLoadRacingWithInvalidationIsNotKept() throws Exception {
+        // Given a load that reads the old row before a change and finishes after its invalidation
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        Thread lookup = new Thread(() -> cache.get("AAISALTRXXX", code -> {
+            loading.countDown();
+            try {
+                invalidated.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new SwiftResponseDto(code, "Old bank", "Address", "AL", "ALBANIA", true, null);
+        }));
+        lookup.start();
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // When
+        cache.onDataChanged(SwiftDataChangedEvent.of("AAISALTRXXX"));
+        invalidated.countDown();
+        lookup.join(5000);
+
+        // Then the old response is not served to later lookups
+        assertEquals("Bank", cache.get("AAISALTRXXX", loader).getBankName());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testCallersGetCopies() {
+        SwiftResponseDto first = cache.get("AAISALTRXXX", code ->
+                new SwiftResponseDto(code, "Bank", "Address", "AL", "ALBANIA", true,
+                        new ArrayList<>(List.of(new BranchDto("AAISALTR001", "Bank", "Address", "AL", false)))));
+
+        first.setBankName("Changed");
+        first.getBranches().get(0).setAddress("Changed");
+        first.getBranches().clear();
+
+        SwiftResponseDto second = cache.get("AAISALTRXXX", loader);
+        assertEquals("Bank", second.getBankName());
+        assertEquals(List.of(new BranchDto("AAISALTR001", "Bank", "Address", "AL", false)), second.getBranches());
+        assertEquals("Bank", cache.getAll(Set.of("AAISALTRXXX"), codes -> Map.of()).get("AAISALTRXXX").getBankName());
+    }
+
+    @Test
+    void testNotFoundIsNotCached() {
+        assertNull(cache.getJson("UNKNOWN0001", code -> null, details -> new byte[]{1}));
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    void testFullRefreshClearsCache() {
+        cache.get("AAISALTRXXX", loader);
+        cache.get("BBBBALTRXXX", loader);
+
+        cache.onDataChanged(SwiftDataChangedEvent.fullRefresh());
+
+        assertEquals(0, cache.getStats().getSize());
+        assertEquals(2, cache.getStats().getInvalidationCount());
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.swiftcodes.cache;
+
+import com.example.swiftcodes.config.SwiftProperties;
+import com.example.swiftcodes.dto.SwiftSearchResultDto;
+import com.example.swiftcodes.event.SwiftDataChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for the SwiftSearchIndex class.
+ */
+class SwiftSearchIndexTest {
+
+    private static final SwiftSearchResultDto PKO_HEADQUARTER = new SwiftSearchResultDto("BPKOPLPWXXX",
+            "PKO BANK POLSKI S.A.", "PUSTULKI 15", "WARSZAWA", "PL", true);
+    private static final SwiftSearchResultDto PKO_BRANCH = new SwiftSearchResultDto("BPKOPLPWKRK",
+            "PKO BANK POLSKI S.A.", "WIELICKA 72", "KRAKÓW", "PL", false);
+    private static final SwiftSearchResultDto PEKAO = new SwiftSearchResultDto("PKOPPLPWXXX",
+            "BANK POLSKA KASA OPIEKI S.A.", "GRZYBOWSKA 53/57", "WARSZAWA", "PL", true);
+    private static final SwiftSearchResultDto ALBANIAN = new SwiftSearchResultDto("AAISALTRXXX",
+            "UNITED BANK OF ALBANIA", "HYRJA 3 RR. DRITAN HOXHA", "TIRANA", "AL", true);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SwiftSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        searchIndex = new SwiftSearchIndex(jdbcTemplate, new SwiftProperties());
+    }
+
+    @Test
+    void testSearch_HeadquarterBeforeBranch() {
+        // Given
+        givenDatabase();
+        searchIndex.onApplicationReady();
+
+        // When
+        List<SwiftSearchResultDto> results = searchIndex.search("pko", null, 10);
+
+        // Then
+        assertTrue(searchIndex.isLoaded());
+        assertEquals(List.of(PKO_HEADQUARTER, PKO_BRANCH), results);
+    }
+
+    @Test
+    void testSearch_AllWordsMustMatch() {
+        // Given
+        givenDatabase();
+        searchIndex.onApplicationReady();
+
+        // When / Then
+        assertEquals(List.of(PKO_HEADQUARTER, PEKAO), searchIndex.search("bank warszawa", null, 10));
+        assertEquals(List.of(PKO_BRANCH), searchIndex.search("Krakow", null, 10));
+        assertEquals(List.of(PKO_BRANCH), searchIndex.search("wielic", null, 10));
+        assertEquals(List.of(ALBANIAN), searchIndex.search("un ban", null, 10));
+        assertEquals(List.of(), searchIndex.search("bank gdansk", null, 10));
+        assertEquals(List.of(), searchIndex.search("-", null, 10));
+    }
+
+    @Test
+    void testSearch_FiltersByCountryAndLimit() {
+        // Given
+        givenDatabase();
+        searchIndex.onApplicationReady();
+
+        // When / Then
+        assertEquals(List.of(ALBANIAN), searchIndex.search("bank", "al", 10));
+        // The bank name of Pekao starts with the query
+        assertEquals(List.of(PEKAO), searchIndex.search("bank", "PL", 1));
+    }
+
+    @Test
+    void testSearch_DisabledIndexIsNotLoaded() {
+        // Given
+        SwiftProperties properties = new SwiftProperties();
+        properties.getSearch().setEnabled(false);
+        searchIndex = new SwiftSearchIndex(jdbcTemplate, properties);
+
+        // When
+        searchIndex.onApplicationReady();
+
+        // Then
+        assertFalse(searchIndex.isLoaded());
+        assertEquals(List.of(), searchIndex.search("bank", null, 10));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testOnDataChanged_UpdatesOnlyChangedCodes() {
+        // Given the Kraków branch was deleted and a Gdańsk branch was added
+        givenDatabase();
+        searchIndex.onApplicationReady();
+        SwiftSearchResultDto added = new SwiftSearchResultDto("BPKOPLPWGDA",
+                "PKO BANK POLSKI S.A.", "OGARNA 1", "GDAŃSK", "PL", false);
+        when(jdbcTemplate.query(endsWith("WHERE swift_code IN (?, ?)"), any(RowMapper.class), any(), any()))
+                .thenReturn(List.of(added));
+
+        // When
+        searchIndex.onDataChanged(SwiftDataChangedEvent.of("BPKOPLPWKRK", "BPKOPLPWGDA"));
+
+        // Then
+        assertEquals(List.of(), searchIndex.search("krakow", null, 10));
+        assertEquals(List.of(added), searchIndex.search("gdansk", null, 10));
+        assertEquals(List.of(PKO_HEADQUARTER, added), searchIndex.search("pko", null, 10));
+        verify(jdbcTemplate, times(1)).query(eq("SELECT swift_code, bank_name, address, town_name, iso2code, is_headquarter FROM swift_model"),
+                any(RowMapper.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testOnDataChanged_ImportReplacesItsCountries() {
+        // Given an import left a single Albanian code
+        givenDatabase();
+        searchIndex.onApplicationReady();
+        SwiftSearchResultDto renamed = new SwiftSearchResultDto("AAISALTRXXX",
+                "FIRST BANK OF ALBANIA", "HYRJA 3", "DURRES", "AL", true);
+        when(jdbcTemplate.query(endsWith("WHERE iso2code IN (?)"), any(RowMapper.class), eq("AL")))
+                .thenReturn(List.of(renamed));
+
+        // When
+        searchIndex.onDataChanged(SwiftDataChangedEvent.fullRefresh(Set.of("AL")));
+
+        // Then
+        assertEquals(List.of(renamed), searchIndex.search("albania", null, 10));
+        assertEquals(List.of(), searchIndex.search("tirana", null, 10));
+        assertEquals(List.of(PKO_HEADQUARTER, PKO_BRANCH), searchIndex.search("pko", null, 10));
+    }
+
+    @Test
+    void testNormalize_StripsAccentsAndPunctuation() {
+        assertEquals(" GDANSK  UL  OGARNA 1", SwiftSearchIndex.normalize("Gdańsk, ul. Ogarna 1"));
+        assertEquals(" ", SwiftSearchIndex.normalize(null));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenDatabase() {
+        when(jdbcTemplate.query(eq("SELECT swift_code, bank_name, address, town_name, iso2code, is_headquarter FROM swift_model"),
+                any(RowMapper.class)))
+                .thenReturn(List.of(PKO_HEADQUARTER, PKO_BRANCH, PEKAO, ALBANIAN));
+    }
+}
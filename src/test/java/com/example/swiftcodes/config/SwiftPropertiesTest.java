@@ -0,0 +1,40 @@
+package com.example.swiftcodes.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.BindException;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.NestedExceptionUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the SwiftProperties class.
+ */
+class SwiftPropertiesTest {
+
+    @Test
+    void testBind_FetchSize() {
+        // When
+        SwiftProperties properties = bind(Map.of("swift.cursor.fetch-size", "250"));
+
+        // Then
+        assertEquals(250, properties.getCursor().getFetchSize());
+    }
+
+    @Test
+    void testBind_RejectsFetchSizeBelowOne() {
+        // When
+        BindException thrown = assertThrows(BindException.class, () -> bind(Map.of("swift.cursor.fetch-size", "0")));
+
+        // Then the application fails to start instead of dividing by zero in the export
+        assertEquals("swift.cursor.fetch-size", thrown.getProperty().getName().toString());
+        assertInstanceOf(IllegalArgumentException.class, NestedExceptionUtils.getMostSpecificCause(thrown));
+    }
+
+    private static SwiftProperties bind(Map<String, String> values) {
+        return new Binder(new MapConfigurationPropertySource(values)).bind("swift", SwiftProperties.class).get();
+    }
+}
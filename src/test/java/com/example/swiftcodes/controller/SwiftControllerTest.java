@@ -1,20 +1,33 @@
 package com.example.swiftcodes.controller;
 
+import com.example.swiftcodes.cache.DatasetVersion;
+import com.example.swiftcodes.cache.SwiftDetailsCache;
+import com.example.swiftcodes.config.SwiftProperties;
 import com.example.swiftcodes.dto.*;
+import com.example.swiftcodes.event.SwiftDataChangedEvent;
+import com.example.swiftcodes.metrics.SwiftMetrics;
 import com.example.swiftcodes.model.SwiftModel;
-import com.example.swiftcodes.repository.SwiftRepository;
-import com.example.swiftcodes.service.ExcelImportService;
+import com.example.swiftcodes.service.ImportJobService;
 import com.example.swiftcodes.service.SwiftCodeService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -24,13 +37,27 @@ import static org.springframework.http.HttpStatus.*;
 class SwiftControllerTest {
 
     @Mock
-    private SwiftRepository swiftRepository;
+    private SwiftCodeService swiftCodeService;
 
     @Mock
-    private SwiftCodeService swiftCodeService;
+    private ImportJobService importJobService;
 
     @Mock
-    private ExcelImportService excelImportService;
+    private SwiftDetailsCache swiftDetailsCache;
+
+    @Spy
+    private DatasetVersion datasetVersion = new DatasetVersion();
+
+    @Spy
+    private SwiftProperties properties = new SwiftProperties();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private SwiftMetrics metrics = new SwiftMetrics(meterRegistry);
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
 
     @InjectMocks
     private SwiftController swiftController;
@@ -38,50 +65,263 @@ class SwiftControllerTest {
     @Test
     void testGetSwiftDetails_Found() {
         String swiftCode = "ABCDEF12";
-        SwiftResponseDto dto = new SwiftResponseDto(swiftCode, "Test Bank", "address", "US","United States", true, Collections.emptyList());
-        when(swiftRepository.findBySwiftCodeWithCountry(swiftCode)).thenReturn(dto);
+        byte[] json = "{\"swiftCode\":\"ABCDEF12\"}".getBytes(StandardCharsets.UTF_8);
+        when(swiftCodeService.getSwiftDetailsJson(swiftCode)).thenReturn(json);
 
-        ResponseEntity<Object> response = swiftController.getSwiftDetails(swiftCode);
+        ResponseEntity<Object> response = swiftController.getSwiftDetails(swiftCode, null);
 
         assertEquals(OK, response.getStatusCode());
-        assertInstanceOf(SwiftResponseDto.class, response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertSame(json, response.getBody()); // The cached bytes are written as they are
+        assertEquals(datasetVersion.detailsEtag(swiftCode), response.getHeaders().getETag());
+    }
+
+    @Test
+    void testGetSwiftDetails_NotModified() {
+        String etag = datasetVersion.detailsEtag("ABCDEF12");
+
+        ResponseEntity<Object> response = swiftController.getSwiftDetails("ABCDEF12", "\"0\", " + etag);
+
+        assertEquals(NOT_MODIFIED, response.getStatusCode());
+        assertEquals(etag, response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verifyNoInteractions(swiftCodeService); // Neither the cache nor the repository is touched
+    }
+
+    @Test
+    void testGetSwiftDetails_NotModifiedAfterOtherChange() {
+        String etag = datasetVersion.detailsEtag("ABCDEF12");
+        datasetVersion.onDataChanged(SwiftDataChangedEvent.of("ZYXWVU98"));
+
+        ResponseEntity<Object> response = swiftController.getSwiftDetails("ABCDEF12", etag);
+
+        assertEquals(NOT_MODIFIED, response.getStatusCode());
+        verifyNoInteractions(swiftCodeService);
+    }
+
+    @Test
+    void testGetSwiftDetails_ModifiedAfterDataChange() {
+        String etag = datasetVersion.detailsEtag("ABCDEF12");
+        datasetVersion.onDataChanged(SwiftDataChangedEvent.of("ABCDEF12XXX")); // A code of the same bank
+        when(swiftCodeService.getSwiftDetailsJson("ABCDEF12")).thenReturn(new byte[]{'{', '}'});
+
+        ResponseEntity<Object> response = swiftController.getSwiftDetails("ABCDEF12", etag);
+
+        assertEquals(OK, response.getStatusCode());
+        assertNotEquals(etag, response.getHeaders().getETag());
+    }
+
+    @Test
+    void testGetSwiftDetails_TagOfOtherCode() {
+        when(swiftCodeService.getSwiftDetailsJson("XYZ12345")).thenReturn(null);
+
+        ResponseEntity<Object> response = swiftController.getSwiftDetails("XYZ12345", datasetVersion.detailsEtag("ABCDEF12"));
+
+        assertEquals(NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void testGetSwiftDetails_AnyTagOfUnknownCode() {
+        when(swiftCodeService.getSwiftDetailsJson("XYZ12345")).thenReturn(null);
+
+        ResponseEntity<Object> response = swiftController.getSwiftDetails("XYZ12345", "*");
+
+        assertEquals(NOT_FOUND, response.getStatusCode());
     }
 
     @Test
     void testGetSwiftDetails_NotFound() {
         String swiftCode = "XYZ12345";
-        when(swiftRepository.findBySwiftCodeWithCountry(swiftCode)).thenReturn(null);
+        when(swiftCodeService.getSwiftDetailsJson(swiftCode)).thenReturn(null);
 
-        ResponseEntity<Object> response = swiftController.getSwiftDetails(swiftCode);
+        ResponseEntity<Object> response = swiftController.getSwiftDetails(swiftCode, null);
 
         assertEquals(NOT_FOUND, response.getStatusCode());
         assertInstanceOf(MessageResponse.class, response.getBody());
+        assertEquals(1, meterRegistry.get("swift.api.errors").tag("endpoint", "getSwiftDetails").tag("status", "404").counter().count());
+    }
+
+    @Test
+    void testGetSwiftDetails_Error() {
+        String swiftCode = "XYZ12345";
+        when(swiftCodeService.getSwiftDetailsJson(swiftCode)).thenThrow(new RuntimeException("Database error"));
+
+        ResponseEntity<Object> response = swiftController.getSwiftDetails(swiftCode, null);
+
+        assertEquals(INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals(1, meterRegistry.get("swift.api.errors").tag("endpoint", "getSwiftDetails").tag("status", "500").counter().count());
+    }
+
+    @Test
+    void testLookupSwiftCodes() {
+        SwiftResponseDto dto = new SwiftResponseDto("AAISALTRXXX", "Test Bank", "address", "AL", "ALBANIA", true, Collections.emptyList());
+        List<String> swiftCodes = List.of("AAISALTRXXX", "UNKNOWN0001", "AAISALTRXXX");
+        when(swiftCodeService.getSwiftDetailsBulk(swiftCodes)).thenReturn(Map.of("AAISALTRXXX", dto));
+
+        ResponseEntity<Object> response = swiftController.lookupSwiftCodes(new SwiftLookupRequestDto(swiftCodes));
+
+        assertEquals(OK, response.getStatusCode());
+        SwiftLookupResponseDto body = (SwiftLookupResponseDto) response.getBody();
+        assertEquals(List.of(
+                new SwiftLookupResultDto("AAISALTRXXX", true, dto),
+                new SwiftLookupResultDto("UNKNOWN0001", false, null)), body.getResults());
+    }
+
+    @Test
+    void testLookupSwiftCodes_TooManyCodes() {
+        properties.getLookup().setMaxCodes(1);
+        SwiftController controller = new SwiftController(swiftCodeService, importJobService, swiftDetailsCache, datasetVersion, properties, metrics, objectMapper);
+
+        ResponseEntity<Object> response = controller.lookupSwiftCodes(new SwiftLookupRequestDto(List.of("AAISALTRXXX", "AAISALTR001")));
+
+        assertEquals(BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(swiftCodeService);
     }
 
     @Test
     void testGetSwiftCodesByCountry_Found() {
         String countryISO2 = "US";
         String countryName = "United States";
-        when(swiftRepository.findCountryNameByISO2(countryISO2)).thenReturn(countryName);
-        when(swiftRepository.findSwiftCodesByCountryISO2(countryISO2)).thenReturn(List.of(new BranchDto("ABCDEF12", "Bank", "Address",countryISO2,false)));
+        when(swiftCodeService.getSwiftCodesByCountry(countryISO2)).thenReturn(new CountrySwiftResponseDto(countryISO2, countryName,
+                List.of(new BranchDto("ABCDEF12", "Bank", "Address",countryISO2,false))));
 
-        ResponseEntity<Object> response = swiftController.getSwiftCodesByCountry(countryISO2);
+        ResponseEntity<Object> response = swiftController.getSwiftCodesByCountry(countryISO2, null, null, null);
 
         assertEquals(OK, response.getStatusCode());
         assertInstanceOf(CountrySwiftResponseDto.class, response.getBody());
     }
 
+    @Test
+    void testGetSwiftCodesByCountry_NotModified() {
+        ResponseEntity<Object> response = swiftController.getSwiftCodesByCountry("US", 10, null, "W/" + datasetVersion.etag("us"));
+
+        assertEquals(NOT_MODIFIED, response.getStatusCode());
+        verifyNoInteractions(swiftCodeService);
+    }
+
+    @Test
+    void testGetSwiftCodesByCountry_TagOfOtherCountry() {
+        when(swiftCodeService.getSwiftCodesByCountry("XX")).thenReturn(null);
+
+        ResponseEntity<Object> response = swiftController.getSwiftCodesByCountry("XX", null, null, datasetVersion.etag("US"));
+
+        assertEquals(NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void testGetSwiftCodesByCountry_AnyTag() {
+        when(swiftCodeService.getCountryName("US")).thenReturn("United States");
+        when(swiftCodeService.getCountryName("XX")).thenReturn(null);
+        when(swiftCodeService.getSwiftCodesByCountry("XX")).thenReturn(null);
+
+        assertEquals(NOT_MODIFIED, swiftController.getSwiftCodesByCountry("US", null, null, "*").getStatusCode());
+        assertEquals(NOT_FOUND, swiftController.getSwiftCodesByCountry("XX", null, null, "*").getStatusCode());
+    }
+
     @Test
     void testGetSwiftCodesByCountry_NotFound() {
         String countryISO2 = "XX";
-        when(swiftRepository.findCountryNameByISO2(countryISO2)).thenReturn(null);
+        when(swiftCodeService.getSwiftCodesByCountry(countryISO2)).thenReturn(null);
 
-        ResponseEntity<Object> response = swiftController.getSwiftCodesByCountry(countryISO2);
+        ResponseEntity<Object> response = swiftController.getSwiftCodesByCountry(countryISO2, null, null, null);
 
         assertEquals(NOT_FOUND, response.getStatusCode());
         assertInstanceOf(MessageResponse.class, response.getBody());
     }
 
+    @Test
+    void testGetSwiftCodesByCountry_Page() {
+        CountrySwiftPageDto page = new CountrySwiftPageDto("US", "United States",
+                List.of(new BranchDto("ABCDUS33XXX", "Bank", "Address", "US", true)), "ABCDUS33XXX");
+        when(swiftCodeService.getSwiftCodesByCountryPage("US", null, 1)).thenReturn(page);
+
+        ResponseEntity<Object> response = swiftController.getSwiftCodesByCountry("US", 1, null, null);
+
+        assertEquals(OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+    }
+
+    @Test
+    void testGetSwiftCodesByCountry_InvalidLimit() {
+        ResponseEntity<Object> response = swiftController.getSwiftCodesByCountry("US", 0, null, null);
+
+        assertEquals(BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(swiftCodeService);
+    }
+
+    @Test
+    void testSearchSwiftCodes() {
+        SwiftSearchResponseDto results = new SwiftSearchResponseDto("pko", null,
+                List.of(new SwiftSearchResultDto("BPKOPLPWXXX", "PKO BANK POLSKI", "PUSTULKI 15", "WARSZAWA", "PL", true)));
+        when(swiftCodeService.searchSwiftCodes("pko", null, 20)).thenReturn(results);
+
+        ResponseEntity<Object> response = swiftController.searchSwiftCodes("pko", null, null);
+
+        assertEquals(OK, response.getStatusCode());
+        assertEquals(results, response.getBody());
+    }
+
+    @Test
+    void testSearchSwiftCodes_InvalidRequest() {
+        assertEquals(BAD_REQUEST, swiftController.searchSwiftCodes(" ", null, null).getStatusCode());
+        assertEquals(BAD_REQUEST, swiftController.searchSwiftCodes("pko", null, 101).getStatusCode());
+        verifyNoInteractions(swiftCodeService);
+    }
+
+    @Test
+    void testSearchSwiftCodes_IndexNotLoaded() {
+        when(swiftCodeService.searchSwiftCodes("pko", "PL", 5)).thenReturn(null);
+
+        ResponseEntity<Object> response = swiftController.searchSwiftCodes("pko", "PL", 5);
+
+        assertEquals(SERVICE_UNAVAILABLE, response.getStatusCode());
+    }
+
+    @Test
+    void testStreamSwiftCodesByCountry() throws Exception {
+        when(swiftCodeService.getCountryName("US")).thenReturn("United States");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ResponseEntity<StreamingResponseBody> response = swiftController.streamSwiftCodesByCountry("US", null, null);
+        response.getBody().writeTo(out);
+
+        assertEquals(OK, response.getStatusCode());
+        verify(swiftCodeService).writeSwiftCodesByCountry("US", "United States", null, out);
+    }
+
+    @Test
+    void testStreamSwiftCodesByCountry_NotFound() throws Exception {
+        when(swiftCodeService.getCountryName("XX")).thenReturn(null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ResponseEntity<StreamingResponseBody> response = swiftController.streamSwiftCodesByCountry("XX", null, null);
+        response.getBody().writeTo(out);
+
+        assertEquals(NOT_FOUND, response.getStatusCode());
+        assertEquals("{\"message\":\"Country not found.\"}", out.toString());
+    }
+
+    @Test
+    void testStreamSwiftCodesByCountry_AnyTagOfUnknownCountry() {
+        when(swiftCodeService.getCountryName("XX")).thenReturn(null);
+
+        ResponseEntity<StreamingResponseBody> response = swiftController.streamSwiftCodesByCountry("XX", null, "*");
+
+        assertEquals(NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void testExportSwiftCodes() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ResponseEntity<StreamingResponseBody> response = swiftController.exportSwiftCodes();
+        response.getBody().writeTo(out);
+
+        assertEquals(OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        verify(swiftCodeService).writeExport(out);
+    }
+
     @Test
     void testAddSwiftCode_Success() {
         String json = """
@@ -98,7 +338,7 @@ class SwiftControllerTest {
 
         assertEquals(OK, response.getStatusCode());
         assertEquals("SWIFT code added successfully.", response.getBody().getMessage());
-        verify(swiftRepository, times(1)).save(any(SwiftModel.class));
+        verify(swiftCodeService, times(1)).addSwiftCode(any(SwiftModel.class));
     }
 
     @Test
@@ -110,6 +350,20 @@ class SwiftControllerTest {
         assertEquals("Invalid request data.", response.getBody().getMessage());
     }
 
+    @Test
+    void testAddSwiftCode_UnknownProperty() {
+        String json = """
+                {
+                    "swiftCode": "AAAAAAABXXX",
+                    "bankCode": "AAAAAAAB"
+                }
+                """;
+        ResponseEntity<MessageResponse> response = swiftController.addSwiftCode(json);
+
+        assertEquals(BAD_REQUEST, response.getStatusCode());
+        verify(swiftCodeService, never()).addSwiftCode(any(SwiftModel.class));
+    }
+
     @Test
     void testDeleteSwiftCode_Success() {
         String swiftCode = "ABCDEF12";
@@ -135,21 +389,57 @@ class SwiftControllerTest {
     @Test
     void testUploadExcel_Success() throws Exception {
         MockMultipartFile file = new MockMultipartFile("file", "test.xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", new byte[0]);
-        ResponseEntity<MessageResponse> response = swiftController.uploadExcel(file);
-
-        assertEquals(OK, response.getStatusCode());
-        assertEquals("Data uploaded successfully.", response.getBody().getMessage());
-        verify(excelImportService, times(1)).importExcelData(file);
+        ImportJobDto job = new ImportJobDto();
+        job.setJobId("job-1");
+        job.setStatus("QUEUED");
+        when(importJobService.submit(file, false)).thenReturn(job);
+        ResponseEntity<Object> response = swiftController.uploadExcel(file, false);
+
+        assertEquals(ACCEPTED, response.getStatusCode());
+        assertEquals(job, response.getBody());
+        assertEquals("/v1/swift-codes/import/job-1", response.getHeaders().getLocation().toString());
+        verify(importJobService, times(1)).submit(file, false);
     }
 
     @Test
     void testUploadExcel_Failure() throws Exception {
         MockMultipartFile file = new MockMultipartFile("file", "test.xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", new byte[0]);
-        doThrow(new RuntimeException("File error")).when(excelImportService).importExcelData(file);
+        doThrow(new RuntimeException("File error")).when(importJobService).submit(file, false);
 
-        ResponseEntity<MessageResponse> response = swiftController.uploadExcel(file);
+        ResponseEntity<Object> response = swiftController.uploadExcel(file, false);
 
         assertEquals(BAD_REQUEST, response.getStatusCode());
-        assertTrue(response.getBody().getMessage().contains("Error uploading file"));
+        assertTrue(((MessageResponse) response.getBody()).getMessage().contains("Error uploading file"));
+    }
+
+    @Test
+    void testUploadExcel_TooManyImports() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "test.xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", new byte[0]);
+        doThrow(new RejectedExecutionException()).when(importJobService).submit(file, false);
+
+        ResponseEntity<Object> response = swiftController.uploadExcel(file, false);
+
+        assertEquals(TOO_MANY_REQUESTS, response.getStatusCode());
+    }
+
+    @Test
+    void testGetImportJob_NotFound() {
+        when(importJobService.getJob("unknown")).thenReturn(null);
+
+        ResponseEntity<Object> response = swiftController.getImportJob("unknown");
+
+        assertEquals(NOT_FOUND, response.getStatusCode());
+        assertEquals("Import job not found.", ((MessageResponse) response.getBody()).getMessage());
+    }
+
+    @Test
+    void testGetCacheStats() {
+        CacheStatsDto stats = new CacheStatsDto(3, 1, 0, 2, 1);
+        when(swiftDetailsCache.getStats()).thenReturn(stats);
+
+        ResponseEntity<CacheStatsDto> response = swiftController.getCacheStats();
+
+        assertEquals(OK, response.getStatusCode());
+        assertEquals(stats, response.getBody());
     }
 }
@@ -0,0 +1,118 @@
+package com.example.swiftcodes.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the BatchPipeline class.
+ */
+class BatchPipelineTest {
+
+    @Test
+    void testAllBatchesAreWrittenByTheWorkers() {
+        Queue<Integer> written = new ConcurrentLinkedQueue<>();
+        Queue<String> threads = new ConcurrentLinkedQueue<>();
+
+        try (BatchPipeline<Integer> pipeline = new BatchPipeline<>("writer-", 3, 2, batch -> {
+            written.add(batch);
+            threads.add(Thread.currentThread().getName());
+        })) {
+            for (int i = 0; i < 100; i++) {
+                pipeline.submit(i);
+            }
+            pipeline.finish();
+        }
+
+        List<Integer> sorted = new ArrayList<>(written);
+        Collections.sort(sorted);
+        assertEquals(100, sorted.size());
+        assertEquals(99, sorted.get(99));
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("writer-")));
+    }
+
+    @Test
+    void testWithoutWorkersBatchesAreWrittenOnTheCallingThread() {
+        List<String> threads = new ArrayList<>();
+
+        try (BatchPipeline<Integer> pipeline = new BatchPipeline<>("writer-", 0, 2,
+                batch -> threads.add(Thread.currentThread().getName()))) {
+            pipeline.submit(1);
+            pipeline.finish();
+        }
+
+        assertEquals(List.of(Thread.currentThread().getName()), threads);
+    }
+
+    @Test
+    void testWriterFailureIsRethrownToTheProducer() {
+        IllegalStateException failure = new IllegalStateException("Database down");
+
+        try (BatchPipeline<Integer> pipeline = new BatchPipeline<>("writer-", 2, 2, batch -> {
+            throw failure;
+        })) {
+            pipeline.submit(1);
+
+            assertSame(failure, assertThrows(IllegalStateException.class, pipeline::finish));
+        }
+    }
+
+    @Test
+    void testWriterErrorStopsThePipelineWithoutBlockingTheProducer() {
+        OutOfMemoryError failure = new OutOfMemoryError("Java heap space");
+
+        try (BatchPipeline<Integer> pipeline = new BatchPipeline<>("writer-", 1, 1, batch -> {
+            throw failure;
+        })) {
+            // More batches than the queue holds: the producer must still get past the failed writer
+            CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 20; i++) {
+                    pipeline.submit(i);
+                }
+                pipeline.finish();
+            });
+
+            ExecutionException thrown = assertThrows(ExecutionException.class, () -> producer.get(5, TimeUnit.SECONDS));
+            IllegalStateException wrapped = assertInstanceOf(IllegalStateException.class, thrown.getCause());
+            assertSame(failure, wrapped.getCause());
+        }
+    }
+
+    @Test
+    void testProducerWaitsWhileTheQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch writing = new CountDownLatch(1);
+
+        try (BatchPipeline<Integer> pipeline = new BatchPipeline<>("writer-", 1, 1, batch -> {
+            writing.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        })) {
+            // One batch is being written and one waits in the queue
+            pipeline.submit(1);
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+            pipeline.submit(2);
+
+            CompletableFuture<Void> third = CompletableFuture.runAsync(() -> pipeline.submit(3));
+            Thread.sleep(100);
+            assertFalse(third.isDone());
+
+            release.countDown();
+            third.get(5, TimeUnit.SECONDS);
+            pipeline.finish();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.swiftcodes.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the CopyRowWriter class.
+ */
+class CopyRowWriterTest {
+
+    @Test
+    void testWriteRowEscapesTextFormat() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (CopyRowWriter writer = new CopyRowWriter(out)) {
+            writer.writeRow(1L, "UL. \"PROSTA\"\t18\\A", null, true);
+            writer.writeRow(2L, "LINE 1\r\nLINE 2", "ŁÓDŹ", false);
+        }
+
+        // Tabs, line breaks and backslashes are escaped, null is \N and text is UTF-8
+        assertEquals("1\tUL. \"PROSTA\"\\t18\\\\A\t\\N\tt\n"
+                + "2\tLINE 1\\r\\nLINE 2\tŁÓDŹ\tf\n", out.toString(StandardCharsets.UTF_8));
+    }
+}
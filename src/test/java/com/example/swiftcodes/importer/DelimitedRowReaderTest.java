@@ -0,0 +1,82 @@
+package com.example.swiftcodes.importer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the DelimitedRowReader class.
+ */
+class DelimitedRowReaderTest {
+
+    private static final String HEADER = "COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE\n";
+
+    private final DelimitedRowReader reader = new DelimitedRowReader();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testReadCsvWithQuotedFields() throws Exception {
+        List<ImportRow> rows = read(',', "﻿" + HEADER
+                + "AL,AAISALTRXXX,BIC11,\"UNITED BANK OF ALBANIA SH.A\",\"HYRJA 3, TIRANA\",TIRANA,ALBANIA,Europe/Tirane\r\n"
+                + "PL,BREXPLPW001,BIC11,\"M \"\"BANK\"\"\",\"LINE 1\nLINE 2\",LODZ,POLAND,Europe/Warsaw");
+
+        // The byte order mark and the header line are skipped, quoted fields keep delimiters, quotes and line breaks
+        assertEquals(2, rows.size());
+        assertEquals(new ImportRow("AL", "AAISALTRXXX", "UNITED BANK OF ALBANIA SH.A", "HYRJA 3, TIRANA", "TIRANA",
+                "ALBANIA", "Europe/Tirane"), rows.get(0));
+        assertEquals("M \"BANK\"", rows.get(1).getBankName());
+        assertEquals("LINE 1\nLINE 2", rows.get(1).getAddress());
+        assertEquals("Europe/Warsaw", rows.get(1).getTimeZone());
+    }
+
+    @Test
+    void testReadTsvSkipsRowsWithoutSwiftCodeAndKeepsEmptyFieldsNull() throws Exception {
+        List<ImportRow> rows = read('\t', HEADER.replace(',', '\t')
+                + "PL\tBREXPLPWXXX\tBIC11\tMBANK\t\tWARSZAWA\tPOLAND\tEurope/Warsaw\n"
+                + "PL\t\tBIC11\tEMPTY\t\t\tPOLAND\tEurope/Warsaw\n"
+                + "\n"
+                + "PL\tBREXPLPW001\tBIC11\tMBANK\tADDRESS\tŁÓDŹ\tPOLAND\tEurope/Warsaw\n");
+
+        assertEquals(2, rows.size());
+        assertNull(rows.get(0).getAddress());
+        assertEquals("ŁÓDŹ", rows.get(1).getTownName());
+    }
+
+    @Test
+    void testReadLongFieldsAcrossBufferBoundaries() throws Exception {
+        String address = "A".repeat(100_000);
+        StringBuilder content = new StringBuilder(HEADER);
+        for (int i = 0; i < 3; i++) {
+            content.append("PL,BREXPLPW00").append(i).append(",BIC11,MBANK,\"").append(address).append("\",LODZ,POLAND,Europe/Warsaw\n");
+        }
+
+        List<ImportRow> rows = read(',', content.toString());
+
+        assertEquals(3, rows.size());
+        assertEquals(address, rows.get(2).getAddress());
+        assertEquals("BREXPLPW002", rows.get(2).getSwiftCode());
+    }
+
+    @Test
+    void testReadUnterminatedQuoteFails() {
+        assertThrows(IOException.class, () -> read(',', HEADER + "PL,BREXPLPWXXX,BIC11,\"MBANK\n"));
+    }
+
+    private List<ImportRow> read(char delimiter, String content) throws IOException {
+        Path file = dir.resolve("rows.txt");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        List<ImportRow> rows = new ArrayList<>();
+        reader.read(file, delimiter, rows::add);
+        return rows;
+    }
+}
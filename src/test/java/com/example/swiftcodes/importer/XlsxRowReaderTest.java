@@ -0,0 +1,72 @@
+package com.example.swiftcodes.importer;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the XlsxRowReader class.
+ */
+class XlsxRowReaderTest {
+
+    private final XlsxRowReader reader = new XlsxRowReader();
+
+    @Test
+    void testReadTestWorkbook() throws Exception {
+        List<ImportRow> rows = new ArrayList<>();
+
+        reader.read(Path.of("src/test/resources/test.xlsx"), rows::add);
+
+        // The header row is skipped, the single data row is parsed column by column
+        assertEquals(1, rows.size());
+        ImportRow row = rows.get(0);
+        assertEquals("AL", row.getCountryIso2Code());
+        assertEquals("AAISALTRXXX", row.getSwiftCode());
+        assertEquals("UNITED BANK OF ALBANIA SH.A", row.getBankName());
+        assertEquals("HYRJA 3 RR. DRITAN HOXHA ND. 11 TIRANA, TIRANA, 1023", row.getAddress());
+        assertEquals("TIRANA", row.getTownName());
+        assertEquals("ALBANIA", row.getCountryName());
+        assertEquals("Europe/Tirane", row.getTimeZone());
+        assertTrue(row.toSwift().isHeadquarter());
+    }
+
+    @Test
+    void testReadSkipsRowsWithoutSwiftCodeAndKeepsMissingCellsNull(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("rows.xlsx");
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet();
+            writeRow(sheet, 0, "COUNTRY ISO2 CODE", "SWIFT CODE", "CODE TYPE", "NAME", "ADDRESS", "TOWN NAME", "COUNTRY NAME", "TIME ZONE");
+            writeRow(sheet, 1, "PL", "BREXPLPWXXX", "BIC11", "MBANK", null, "WARSZAWA", "POLAND", "Europe/Warsaw");
+            writeRow(sheet, 2, "PL", null, "BIC11", "EMPTY", "", "", "POLAND", "Europe/Warsaw");
+            writeRow(sheet, 4, "PL", "BREXPLPW001", "BIC11", "MBANK", "ADDRESS", "LODZ", "POLAND", "Europe/Warsaw");
+            workbook.write(out);
+        }
+        List<ImportRow> rows = new ArrayList<>();
+
+        reader.read(file, rows::add);
+
+        assertEquals(2, rows.size());
+        assertNull(rows.get(0).getAddress());
+        assertEquals("BREXPLPW001", rows.get(1).getSwiftCode());
+        assertFalse(rows.get(1).toSwift().isHeadquarter());
+    }
+
+    private static void writeRow(Sheet sheet, int index, String... values) {
+        Row row = sheet.createRow(index);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                row.createCell(i).setCellValue(values[i]);
+            }
+        }
+    }
+}
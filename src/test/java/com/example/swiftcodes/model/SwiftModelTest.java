@@ -79,4 +79,18 @@ class SwiftModelTest {
                 "townName=New York, iso2Code=US, isHeadquarter=true)";
         assertEquals(expectedToString, swiftModel.toString());
     }
-}
\ No newline at end of file
+
+    @Test
+     void testBankCodeIsDerivedFromSwiftCode() {
+        // The bank code is set by the constructor and kept in sync by the setter
+        SwiftModel swiftModel = new SwiftModel("AAISALTRXXX", "Bank ABC", "123 Bank St.", "Tirana", "AL", true);
+        assertEquals("AAISALTR", swiftModel.getBankCode());
+
+        swiftModel.setSwiftCode("BREXPLPW001");
+        assertEquals("BREXPLPW", swiftModel.getBankCode());
+
+        // Codes shorter than a bank code are kept as they are
+        assertEquals("SWIFT", SwiftModel.bankCodeOf("SWIFT"));
+        assertNull(new SwiftModel().getBankCode());
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.swiftcodes.repository;
+
+import com.example.swiftcodes.config.SwiftProperties;
+import com.example.swiftcodes.dto.BranchDto;
+import com.example.swiftcodes.dto.ImportSummaryDto;
+import com.example.swiftcodes.dto.SwiftResponseDto;
+import com.example.swiftcodes.importer.DelimitedRowReader;
+import com.example.swiftcodes.importer.ImportFormat;
+import com.example.swiftcodes.importer.ImportProgress;
+import com.example.swiftcodes.importer.XlsxRowReader;
+import com.example.swiftcodes.metrics.SwiftMetrics;
+import com.example.swiftcodes.service.ExcelImportService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the repository queries and the import SQL against the H2 storage of the {@code embedded} profile,
+ * kept in memory instead of in a file.
+ */
+@DataJpaTest
+@ActiveProfiles("embedded")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "swift.storage.path=mem:swift")
+@EnableConfigurationProperties(SwiftProperties.class)
+@Import({ExcelImportService.class, XlsxRowReader.class, DelimitedRowReader.class, SwiftMetrics.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Imports commit their own batches
+class EmbeddedStorageTest {
+
+    private static final String HEADER = "COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE\n";
+    private static final String PKO_HEADQUARTER = "PL,BPKOPLPWXXX,BIC11,PKO BANK POLSKI,PUSTULKI 15,WARSZAWA,POLAND,Europe/Warsaw\n";
+
+    @Autowired
+    private SwiftRepository swiftRepository;
+
+    @Autowired
+    private ExcelImportService excelImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path tempDir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jdbcTemplate.execute("DELETE FROM swift_model");
+        jdbcTemplate.execute("DELETE FROM country_model");
+        importCsv(HEADER + PKO_HEADQUARTER
+                + "PL,BPKOPLPWKRK,BIC11,PKO BANK POLSKI,WIELICKA 72,KRAKOW,POLAND,Europe/Warsaw\n"
+                + "PL,BREXPLPWXXX,BIC11,MBANK,PROSTA 18,WARSZAWA,POLAND,Europe/Warsaw\n"
+                + "AL,AAISALTRXXX,BIC11,UNITED BANK OF ALBANIA,HYRJA 3,TIRANA,ALBANIA,Europe/Tirane\n");
+    }
+
+    @Test
+    void testImport_ExistingRowsAreSkipped() throws Exception {
+        // When the same headquarter is imported again with one new code
+        ImportSummaryDto summary = importCsv(HEADER + PKO_HEADQUARTER
+                + "PL,BPKOPLPWGDA,BIC11,PKO BANK POLSKI,OGARNA 1,GDANSK,POLAND,Europe/Warsaw\n");
+
+        // Then
+        assertEquals(1, summary.getSwiftCodesInserted());
+        assertEquals(1, summary.getSwiftCodesSkipped());
+        assertEquals(0, summary.getCountriesInserted());
+        assertEquals(1, summary.getCountriesSkipped());
+        assertEquals(5, swiftRepository.count());
+    }
+
+    @Test
+    void testFindBySwiftCodeWithBranches_HeadquarterWithItsBranches() {
+        List<SwiftResponseDto> headquarter = swiftRepository.findBySwiftCodeWithBranches("BPKOPLPWXXX");
+
+        assertEquals(List.of("BPKOPLPWKRK", "BPKOPLPWXXX"),
+                headquarter.stream().map(SwiftResponseDto::getSwiftCode).sorted().toList());
+        assertEquals("POLAND", headquarter.get(0).getCountryName());
+        assertEquals(1, swiftRepository.findBySwiftCodeWithBranches("BPKOPLPWKRK").size());
+        assertEquals(List.of(), swiftRepository.findBySwiftCodeWithBranches("UNKNOWN0001"));
+    }
+
+    @Test
+    void testFindBranchesBySwiftPrefix_UsesBankCode() {
+        List<BranchDto> branches = swiftRepository.findBranchesBySwiftPrefix("BPKOPLPWXXX");
+
+        assertEquals(List.of(new BranchDto("BPKOPLPWKRK", "PKO BANK POLSKI", "WIELICKA 72", "PL", false)), branches);
+    }
+
+    @Test
+    void testFindSwiftCodesByCountryISO2After_PagesInCodeOrder() {
+        assertEquals(List.of("BPKOPLPWKRK", "BPKOPLPWXXX"), swiftRepository.findSwiftCodesByCountryISO2After("PL", "", Limit.of(2))
+                .stream().map(BranchDto::getSwiftCode).toList());
+        assertEquals(List.of("BREXPLPWXXX"), swiftRepository.findSwiftCodesByCountryISO2After("PL", "BPKOPLPWXXX", Limit.of(2))
+                .stream().map(BranchDto::getSwiftCode).toList());
+        assertEquals("ALBANIA", swiftRepository.findCountryNameByISO2("AL"));
+    }
+
+    @Test
+    void testImportDelta_UpdatesAndDeletesRows() throws Exception {
+        // When the file no longer has mBank and Albania, and PKO Kraków moved
+        ImportSummaryDto summary = excelImportService.importDelta(csv(HEADER + PKO_HEADQUARTER
+                + "PL,BPKOPLPWKRK,BIC11,PKO BANK POLSKI,RYNEK 1,KRAKOW,POLAND,Europe/Warsaw\n"), ImportFormat.CSV, new ImportProgress());
+
+        // Then
+        assertEquals(1, summary.getSwiftCodesUpdated());
+        assertEquals(2, summary.getSwiftCodesDeleted());
+        assertEquals(1, summary.getSwiftCodesUnchanged());
+        assertEquals("RYNEK 1", swiftRepository.findBySwiftCodeWithCountry("BPKOPLPWKRK").getAddress());
+        assertEquals(2, swiftRepository.count());
+    }
+
+    private ImportSummaryDto importCsv(String content) throws Exception {
+        return excelImportService.importData(csv(content), ImportFormat.CSV, new ImportProgress());
+    }
+
+    private Path csv(String content) throws Exception {
+        Path file = Files.createTempFile(tempDir, "swift", ".csv");
+        Files.writeString(file, content);
+        return file;
+    }
+}
@@ -0,0 +1,513 @@
+package com.example.swiftcodes.service;
+
+import com.example.swiftcodes.config.SwiftProperties;
+import com.example.swiftcodes.dto.ImportSummaryDto;
+import com.example.swiftcodes.event.SwiftDataChangedEvent;
+import com.example.swiftcodes.event.SwiftImportEvent;
+import com.example.swiftcodes.importer.DelimitedRowReader;
+import com.example.swiftcodes.importer.ImportFormat;
+import com.example.swiftcodes.importer.ImportProgress;
+import com.example.swiftcodes.importer.XlsxRowReader;
+import com.example.swiftcodes.metrics.SwiftMetrics;
+import com.example.swiftcodes.model.CountryModel;
+import com.example.swiftcodes.model.SwiftModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.SQLStateSQLExceptionTranslator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for the ExcelImportService class.
+ */
+class ExcelImportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private CopyManager copyManager;
+
+    @Mock
+    private CopyIn copyIn;
+
+    private ExcelImportService excelImportService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Copies of the rows sent in each batch, keyed by table (the service reuses its batch buffers)
+    private final Map<String, List<Object>> writtenRows = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        SwiftProperties properties = new SwiftProperties();
+        properties.getImporter().setBatchSize(2);
+        excelImportService = new ExcelImportService(jdbcTemplate, new XlsxRowReader(), new DelimitedRowReader(), properties, eventPublisher,
+                new SwiftMetrics(meterRegistry));
+
+        // Every row is inserted, except SWIFT codes ending with "999" and the country "DE" which already exist
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), ArgumentMatchers.<ParameterizedPreparedStatementSetter<Object>>any()))
+                .thenAnswer(invocation -> {
+                    String sql = invocation.getArgument(0);
+                    Collection<?> rows = invocation.getArgument(1);
+                    // Inserted rows by table, updated rows by statement and table, deleted rows by statement
+                    String key = sql.startsWith("INSERT") ? sql.split(" ")[2]
+                            : sql.startsWith("UPDATE") ? "UPDATE " + sql.split(" ")[1] : sql.split(" ")[0];
+                    synchronized (writtenRows) {
+                        writtenRows.computeIfAbsent(key, table -> new ArrayList<>()).addAll(rows);
+                    }
+                    return new int[][]{rows.stream().mapToInt(row -> isExisting(row) ? 0 : 1).toArray()};
+                });
+    }
+
+    @Test
+    void testImportExcelData() throws Exception {
+        Path file = Path.of("src/test/resources/test.xlsx");
+
+        ImportSummaryDto summary = excelImportService.importExcelData(file);
+
+        assertEquals(new ImportSummaryDto(1, 1, 0, 1, 0, 0, 0, 0, 0), summary);
+        List<CountryModel> countries = writtenRows("country_model");
+        assertEquals(List.of(new CountryModel("AL", "ALBANIA", "Europe/Tirane")), countries);
+        List<SwiftModel> swifts = writtenRows("swift_model");
+        assertEquals(List.of(new SwiftModel("AAISALTRXXX", "UNITED BANK OF ALBANIA SH.A",
+                "HYRJA 3 RR. DRITAN HOXHA ND. 11 TIRANA, TIRANA, 1023", "TIRANA", "AL", true)), swifts);
+        verify(eventPublisher).publishEvent(argThat((Object event) ->
+                event instanceof SwiftDataChangedEvent changed && changed.isFullRefresh()
+                        && changed.getCountryISO2Codes().equals(Set.of("AL"))));
+    }
+
+    @Test
+    void testImportExcelData_BatchesRowsAndDeduplicatesCountries(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("rows.xlsx");
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet();
+            writeRow(sheet, 0, "COUNTRY ISO2 CODE", "SWIFT CODE");
+            writeRow(sheet, 1, "PL", "BREXPLPWXXX");
+            writeRow(sheet, 2, "PL", "BREXPLPW001");
+            writeRow(sheet, 3, "DE", "DEUTDEFFXXX");
+            writeRow(sheet, 4, "PL", "BREXPLPW999");
+            writeRow(sheet, 5, "DE", "DEUTDEFF001");
+            workbook.write(out);
+        }
+
+        ImportProgress progress = new ImportProgress();
+        ImportSummaryDto summary = excelImportService.importExcelData(file, progress);
+
+        // Five SWIFT rows in batches of two: 2 + 2 + 1, with each country sent only once
+        assertEquals(new ImportSummaryDto(5, 1, 1, 4, 1, 0, 0, 0, 0), summary);
+        assertEquals(5, progress.getRowsParsed());
+        assertEquals(5, progress.getRowsWritten());
+        assertEquals(3, meterRegistry.get("swift.import.batch").timer().count());
+        assertEquals(5, meterRegistry.get("swift.import.rows").counter().count());
+        verify(jdbcTemplate, times(3)).batchUpdate(startsWith("INSERT INTO swift_model"), anyCollection(), eq(2),
+                ArgumentMatchers.<ParameterizedPreparedStatementSetter<SwiftModel>>any());
+        List<CountryModel> countries = writtenRows("country_model");
+        assertEquals(List.of("PL", "DE"), countries.stream().map(CountryModel::getIso2Code).toList());
+    }
+
+    @Test
+    void testImportData_ParallelWritersProduceTheSameSummary(@TempDir Path dir) throws Exception {
+        // Given
+        SwiftProperties properties = new SwiftProperties();
+        properties.getImporter().setBatchSize(2);
+        properties.getImporter().setWriterThreads(3);
+        properties.getImporter().setPipelineDepth(1);
+        excelImportService = new ExcelImportService(jdbcTemplate, new XlsxRowReader(), new DelimitedRowReader(), properties, eventPublisher,
+                new SwiftMetrics(meterRegistry));
+        StringBuilder csv = new StringBuilder("COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE\n");
+        for (int i = 0; i < 50; i++) {
+            csv.append(i % 2 == 0 ? "PL" : "DE").append(",BREXPLPW").append(String.format("%03d", i)).append(",BIC11,MBANK,,,X,Y\n");
+        }
+        Path file = Files.writeString(dir.resolve("rows.csv"), csv);
+
+        // When
+        ImportProgress progress = new ImportProgress();
+        ImportSummaryDto summary = excelImportService.importData(file, ImportFormat.CSV, progress);
+
+        // Then 25 batches are spread over the writers; codes ending with "999" do not occur, DE already exists
+        assertEquals(new ImportSummaryDto(50, 1, 1, 50, 0, 0, 0, 0, 0), summary);
+        assertEquals(50, progress.getRowsWritten());
+        assertEquals(50, writtenRows("swift_model").size());
+        verify(eventPublisher).publishEvent(any(SwiftDataChangedEvent.class));
+    }
+
+    @Test
+    void testImportData_CountriesCommittedBeforeTheirBatchFails(@TempDir Path dir) throws Exception {
+        // Given two writers, and the writer of the first batch, which carries the new country PL, fails
+        SwiftProperties properties = new SwiftProperties();
+        properties.getImporter().setBatchSize(2);
+        properties.getImporter().setWriterThreads(2);
+        excelImportService = new ExcelImportService(jdbcTemplate, new XlsxRowReader(), new DelimitedRowReader(), properties, eventPublisher,
+                new SwiftMetrics(meterRegistry));
+        List<String> countryThreads = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO country_model"), anyCollection(), anyInt(),
+                ArgumentMatchers.<ParameterizedPreparedStatementSetter<CountryModel>>any()))
+                .thenAnswer(invocation -> {
+                    countryThreads.add(Thread.currentThread().getName());
+                    Collection<CountryModel> countries = invocation.getArgument(1);
+                    writtenRows.computeIfAbsent("country_model", table -> new ArrayList<>()).addAll(countries);
+                    return new int[][]{countries.stream().mapToInt(country -> 1).toArray()};
+                });
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO swift_model"), anyCollection(), anyInt(),
+                ArgumentMatchers.<ParameterizedPreparedStatementSetter<SwiftModel>>any()))
+                .thenThrow(new DataIntegrityViolationException("Value too long"));
+        Path file = Files.writeString(dir.resolve("rows.csv"), """
+                COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE
+                PL,BREXPLPWXXX,BIC11,MBANK,,WARSZAWA,POLAND,Europe/Warsaw
+                PL,BREXPLPW001,BIC11,MBANK,,LODZ,POLAND,Europe/Warsaw
+                """);
+
+        // When
+        assertThrows(DataIntegrityViolationException.class,
+                () -> excelImportService.importData(file, ImportFormat.CSV, new ImportProgress()));
+
+        // Then the country was inserted on its own by the parsing thread, before the batch was handed to a writer
+        assertEquals(List.of(new CountryModel("PL", "POLAND", "Europe/Warsaw")), writtenRows("country_model"));
+        assertEquals(List.of(Thread.currentThread().getName()), countryThreads);
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO country_model"), anyCollection(), anyInt(),
+                ArgumentMatchers.<ParameterizedPreparedStatementSetter<CountryModel>>any());
+        inOrder.verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO swift_model"), anyCollection(), anyInt(),
+                ArgumentMatchers.<ParameterizedPreparedStatementSetter<SwiftModel>>any());
+        // Caches of the new country are refreshed even though no SWIFT code was written
+        verify(eventPublisher).publishEvent(any(SwiftDataChangedEvent.class));
+    }
+
+    @Test
+    void testImportData_CsvUsesTheSamePersistence(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("rows.csv");
+        Files.writeString(file, """
+                COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE
+                PL,BREXPLPWXXX,BIC11,MBANK,"UL. PROSTA 18, WARSZAWA",WARSZAWA,POLAND,Europe/Warsaw
+                PL,BREXPLPW999,BIC11,MBANK,,LODZ,POLAND,Europe/Warsaw
+                """);
+
+        ImportSummaryDto summary = excelImportService.importData(file, ImportFormat.CSV, new ImportProgress());
+
+        assertEquals(new ImportSummaryDto(2, 1, 0, 1, 1, 0, 0, 0, 0), summary);
+        List<SwiftModel> swifts = writtenRows("swift_model");
+        assertEquals(new SwiftModel("BREXPLPWXXX", "MBANK", "UL. PROSTA 18, WARSZAWA", "WARSZAWA", "PL", true), swifts.get(0));
+        // The import is announced before its first row is written and ends after its data change
+        InOrder inOrder = inOrder(eventPublisher, jdbcTemplate);
+        inOrder.verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof SwiftImportEvent started && started.isStarted()));
+        inOrder.verify(jdbcTemplate, atLeastOnce()).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+        inOrder.verify(eventPublisher).publishEvent(any(SwiftDataChangedEvent.class));
+        inOrder.verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof SwiftImportEvent finished && !finished.isStarted()));
+    }
+
+    @Test
+    void testImportData_CopyModeLoadsStagingTableAndMerges(@TempDir Path dir) throws Exception {
+        // Given
+        Connection connection = givenCopyConnection();
+        ByteArrayOutputStream copied = new ByteArrayOutputStream();
+        doAnswer(invocation -> {
+            copied.write(invocation.<byte[]>getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+            return null;
+        }).when(copyIn).writeToCopy(any(byte[].class), anyInt(), anyInt());
+        when(statement.executeUpdate(startsWith("INSERT INTO country_model"))).thenReturn(1);
+        when(statement.executeUpdate(startsWith("INSERT INTO swift_model"))).thenReturn(1);
+        Path file = Files.writeString(dir.resolve("rows.csv"), """
+                COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE
+                PL,BREXPLPWXXX,BIC11,MBANK,"UL. PROSTA 18, WARSZAWA",WARSZAWA,POLAND,Europe/Warsaw
+                PL,BREXPLPWXXX,BIC11,MBANK,,LODZ,POLAND,Europe/Warsaw
+                """);
+
+        ImportProgress progress = new ImportProgress();
+
+        // When
+        ImportSummaryDto summary = excelImportService.importData(file, ImportFormat.CSV, progress);
+
+        // Then the rows are copied as they are parsed, and merged with one statement per table in one transaction
+        assertEquals(new ImportSummaryDto(2, 1, 0, 1, 1, 0, 0, 0, 0), summary);
+        assertEquals(2, progress.getRowsWritten());
+        assertEquals(0, meterRegistry.get("swift.import.batch").timer().count()); // A single transaction, not a batch
+        assertEquals(2, meterRegistry.get("swift.import.rows").counter().count());
+        assertEquals("""
+                1\tBREXPLPWXXX\tBREXPLPW\tMBANK\tUL. PROSTA 18, WARSZAWA\tWARSZAWA\tPL\tt\tPOLAND\tEurope/Warsaw
+                2\tBREXPLPWXXX\tBREXPLPW\tMBANK\t\\N\tLODZ\tPL\tt\tPOLAND\tEurope/Warsaw
+                """, copied.toString(StandardCharsets.UTF_8));
+        InOrder inOrder = inOrder(connection, statement, copyManager);
+        inOrder.verify(connection).setAutoCommit(false);
+        inOrder.verify(statement).execute(startsWith("CREATE TEMPORARY TABLE swift_import_staging"));
+        inOrder.verify(copyManager).copyIn(startsWith("COPY swift_import_staging"));
+        inOrder.verify(statement).executeUpdate(startsWith("INSERT INTO country_model"));
+        inOrder.verify(statement).executeUpdate(startsWith("INSERT INTO swift_model"));
+        inOrder.verify(connection).commit();
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyCollection(), anyInt(),
+                ArgumentMatchers.<ParameterizedPreparedStatementSetter<Object>>any());
+        verify(eventPublisher).publishEvent(any(SwiftDataChangedEvent.class));
+    }
+
+    @Test
+    void testImportData_CopyModeRollsBackFailedMerge(@TempDir Path dir) throws Exception {
+        // Given
+        Connection connection = givenCopyConnection();
+        when(statement.executeUpdate(startsWith("INSERT INTO swift_model"))).thenThrow(new SQLException("Value too long", "22001"));
+        Path file = Files.writeString(dir.resolve("rows.csv"), """
+                COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE
+                PL,BREXPLPWXXX,BIC11,MBANK,,WARSZAWA,POLAND,Europe/Warsaw
+                """);
+
+        ImportProgress progress = new ImportProgress();
+
+        // When / Then the failure is translated like any other JDBC error, and nothing of the file is kept
+        DataAccessException error = assertThrows(DataIntegrityViolationException.class,
+                () -> excelImportService.importData(file, ImportFormat.CSV, progress));
+        assertEquals("Value too long", error.getMostSpecificCause().getMessage());
+        assertEquals(1, progress.getRowsParsed());
+        assertEquals(0, progress.getRowsWritten());
+        verify(connection).rollback();
+        verify(connection, never()).commit();
+        verify(connection).setAutoCommit(true);
+        verify(eventPublisher, never()).publishEvent(any(SwiftDataChangedEvent.class));
+    }
+
+    @Test
+    void testImportData_CopyModeFallsBackToBatchesOnOtherDatabases(@TempDir Path dir) throws Exception {
+        // Given a database without COPY
+        Connection connection = givenCopyConnection();
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(false);
+        Path file = Files.writeString(dir.resolve("rows.csv"), """
+                COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE
+                PL,BREXPLPWXXX,BIC11,MBANK,,WARSZAWA,POLAND,Europe/Warsaw
+                """);
+
+        // When
+        ImportSummaryDto summary = excelImportService.importData(file, ImportFormat.CSV, new ImportProgress());
+
+        // Then
+        assertEquals(new ImportSummaryDto(1, 1, 0, 1, 0, 0, 0, 0, 0), summary);
+        assertEquals(1, writtenRows("swift_model").size());
+        verify(connection, never()).createStatement();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Connection givenCopyConnection() throws Exception {
+        SwiftProperties properties = new SwiftProperties();
+        properties.getImporter().setCopyEnabled(true);
+        excelImportService = new ExcelImportService(jdbcTemplate, new XlsxRowReader(), new DelimitedRowReader(), properties, eventPublisher,
+                new SwiftMetrics(meterRegistry));
+
+        Connection connection = mock(Connection.class);
+        PGConnection pgConnection = mock(PGConnection.class);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(true);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        when(copyManager.copyIn(anyString())).thenReturn(copyIn);
+        when(copyIn.isActive()).thenReturn(true);
+        // Like the real template, SQL exceptions of the callback are translated into DataAccessExceptions
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenAnswer(invocation -> {
+            try {
+                return invocation.<ConnectionCallback<?>>getArgument(0).doInConnection(connection);
+            } catch (SQLException e) {
+                throw new SQLStateSQLExceptionTranslator().translate("ConnectionCallback", null, e);
+            }
+        });
+        return connection;
+    }
+
+    @Test
+    void testImportExcelData_InvalidFile(@TempDir Path dir) throws Exception {
+        Path file = Files.createFile(dir.resolve("test.xlsx"));
+
+        assertThrows(Exception.class, () -> excelImportService.importExcelData(file));
+        verifyNoInteractions(jdbcTemplate);
+        verify(eventPublisher, never()).publishEvent(any(SwiftDataChangedEvent.class));
+    }
+
+    @Test
+    void testImportDelta_WritesOnlyChangedRows(@TempDir Path dir) throws Exception {
+        // Given: one unchanged, one changed and one withdrawn code are stored
+        givenStoredRows(
+                new SwiftModel("BREXPLPWXXX", "MBANK", "UL. PROSTA 18, WARSZAWA", "WARSZAWA", "PL", true),
+                new SwiftModel("BREXPLPW001", "MBANK", "UL. STARA 1", "LODZ", "PL", false),
+                new SwiftModel("BREXPLPW002", "MBANK", "UL. KROTKA 2", "GDANSK", "PL", false));
+        Path file = dir.resolve("rows.csv");
+        Files.writeString(file, """
+                COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE
+                PL,BREXPLPWXXX,BIC11,MBANK,"UL. PROSTA 18, WARSZAWA",WARSZAWA,POLAND,Europe/Warsaw
+                PL,BREXPLPW001,BIC11,MBANK,UL. NOWA 5,LODZ,POLAND,Europe/Warsaw
+                PL,BREXPLPW003,BIC11,MBANK,UL. DLUGA 3,KRAKOW,POLAND,Europe/Warsaw
+                PL,BREXPLPW003,BIC11,MBANK,UL. DLUGA 3,KRAKOW,POLAND,Europe/Warsaw
+                """);
+
+        // When
+        ImportProgress progress = new ImportProgress();
+        ImportSummaryDto summary = excelImportService.importDelta(file, ImportFormat.CSV, progress);
+
+        // Then only the new, the changed and the withdrawn codes are written
+        assertEquals(new ImportSummaryDto(4, 1, 0, 1, 1, 1, 1, 1, 0), summary);
+        assertEquals(4, progress.getRowsWritten());
+        List<SwiftModel> inserted = writtenRows("swift_model");
+        assertEquals(List.of("BREXPLPW003"), inserted.stream().map(SwiftModel::getSwiftCode).toList());
+        List<SwiftModel> updated = writtenRows("UPDATE swift_model");
+        assertEquals(List.of(new SwiftModel("BREXPLPW001", "MBANK", "UL. NOWA 5", "LODZ", "PL", false)), updated);
+        assertEquals(List.of("BREXPLPW002"), writtenRows("DELETE"));
+        verify(eventPublisher).publishEvent(argThat((Object event) ->
+                event instanceof SwiftDataChangedEvent changed && changed.getCountryISO2Codes().equals(Set.of("PL"))));
+    }
+
+    @Test
+    void testImportDelta_UnchangedFileWritesNothing(@TempDir Path dir) throws Exception {
+        // Given
+        givenStoredRows(new SwiftModel("BREXPLPWXXX", "MBANK", "UL. PROSTA 18, WARSZAWA", "WARSZAWA", "PL", true));
+        Path file = dir.resolve("rows.csv");
+        Files.writeString(file, """
+                COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE
+                PL,BREXPLPWXXX,BIC11,MBANK,"UL. PROSTA 18, WARSZAWA",WARSZAWA,POLAND,Europe/Warsaw
+                """);
+
+        // When
+        ImportSummaryDto summary = excelImportService.importDelta(file, ImportFormat.CSV, new ImportProgress());
+
+        // Then cached data stays valid
+        assertEquals(1, summary.getSwiftCodesUnchanged());
+        assertTrue(writtenRows("swift_model").isEmpty());
+        assertTrue(writtenRows("UPDATE swift_model").isEmpty());
+        verify(eventPublisher, never()).publishEvent(any(SwiftDataChangedEvent.class));
+    }
+
+    @Test
+    void testImportDelta_UpdatesChangedCountries(@TempDir Path dir) throws Exception {
+        // Given: the stored name of Poland differs from the file
+        givenStoredRows(
+                new SwiftModel("BREXPLPWXXX", "MBANK", "UL. PROSTA 18, WARSZAWA", "WARSZAWA", "PL", true),
+                new SwiftModel("AAISALTRXXX", "UNITED BANK OF ALBANIA", "TIRANA", "TIRANA", "AL", true));
+        givenStoredCountries(
+                new CountryModel("PL", "POLSKA", "Europe/Warsaw"),
+                new CountryModel("AL", "ALBANIA", "Europe/Tirane"));
+        Path file = dir.resolve("rows.csv");
+        Files.writeString(file, """
+                COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE
+                PL,BREXPLPWXXX,BIC11,MBANK,"UL. PROSTA 18, WARSZAWA",WARSZAWA,POLAND,Europe/Warsaw
+                AL,AAISALTRXXX,BIC11,UNITED BANK OF ALBANIA,TIRANA,TIRANA,ALBANIA,Europe/Tirane
+                """);
+
+        // When
+        ImportSummaryDto summary = excelImportService.importDelta(file, ImportFormat.CSV, new ImportProgress());
+
+        // Then only Poland is written, and its cached data is refreshed
+        assertEquals(new ImportSummaryDto(2, 0, 1, 0, 0, 0, 0, 2, 1), summary);
+        assertEquals(List.of(new CountryModel("PL", "POLAND", "Europe/Warsaw")), writtenRows("UPDATE country_model"));
+        assertTrue(writtenRows("country_model").isEmpty());
+        assertTrue(writtenRows("UPDATE swift_model").isEmpty());
+        verify(eventPublisher).publishEvent(argThat((Object event) ->
+                event instanceof SwiftDataChangedEvent changed && changed.getCountryISO2Codes().equals(Set.of("PL"))));
+    }
+
+    @Test
+    void testImportDelta_EmptyFileDeletesNothing(@TempDir Path dir) throws Exception {
+        // Given
+        givenStoredRows(new SwiftModel("BREXPLPWXXX", "MBANK", "UL. PROSTA 18, WARSZAWA", "WARSZAWA", "PL", true));
+        Path file = dir.resolve("rows.csv");
+        Files.writeString(file, "COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE\n");
+
+        // When
+        ImportSummaryDto summary = excelImportService.importDelta(file, ImportFormat.CSV, new ImportProgress());
+
+        // Then
+        assertEquals(0, summary.getSwiftCodesDeleted());
+        assertTrue(writtenRows("DELETE").isEmpty());
+    }
+
+    private void givenStoredRows(SwiftModel... rows) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (SwiftModel row : rows) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString("swift_code")).thenReturn(row.getSwiftCode());
+                when(rs.getString("bank_name")).thenReturn(row.getBankName());
+                when(rs.getString("address")).thenReturn(row.getAddress());
+                when(rs.getString("town_name")).thenReturn(row.getTownName());
+                when(rs.getString("iso2code")).thenReturn(row.getIso2Code());
+                when(rs.getBoolean("is_headquarter")).thenReturn(row.isHeadquarter());
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT swift_code"), any(RowCallbackHandler.class));
+    }
+
+    private void givenStoredCountries(CountryModel... countries) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (CountryModel country : countries) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString("iso2code")).thenReturn(country.getIso2Code());
+                when(rs.getString("name")).thenReturn(country.getName());
+                when(rs.getString("time_zone")).thenReturn(country.getTimeZone());
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT iso2code, name, time_zone"), any(RowCallbackHandler.class));
+    }
+
+    private static boolean isExisting(Object row) {
+        if (row instanceof String) {
+            // Deleted SWIFT codes are always found
+            return false;
+        }
+        if (row instanceof SwiftModel swift) {
+            return swift.getSwiftCode().endsWith("999");
+        }
+        return ((CountryModel) row).getIso2Code().equals("DE");
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> writtenRows(String table) {
+        return (List<T>) writtenRows.getOrDefault(table, List.of());
+    }
+
+    private static void writeRow(Sheet sheet, int index, String... values) {
+        Row row = sheet.createRow(index);
+        for (int i = 0; i < values.length; i++) {
+            row.createCell(i).setCellValue(values[i]);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.swiftcodes.service;
+
+import com.example.swiftcodes.config.SwiftProperties;
+import com.example.swiftcodes.dto.ImportJobDto;
+import com.example.swiftcodes.dto.ImportSummaryDto;
+import com.example.swiftcodes.importer.ImportFormat;
+import com.example.swiftcodes.importer.ImportProgress;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for the ImportJobService class.
+ */
+class ImportJobServiceTest {
+
+    @Mock
+    private ExcelImportService excelImportService;
+
+    private ImportJobService importJobService;
+
+    private final MockMultipartFile file = new MockMultipartFile("file", "test.xlsx",
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", new byte[]{1});
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        SwiftProperties properties = new SwiftProperties();
+        properties.getImporter().setMaxConcurrentJobs(1);
+        properties.getImporter().setQueueCapacity(1);
+        importJobService = new ImportJobService(excelImportService, properties, new MockEnvironment());
+    }
+
+    @AfterEach
+    void tearDown() {
+        importJobService.shutdown();
+    }
+
+    @Test
+    void testSubmit_CompletesWithSummaryAndProgress() throws Exception {
+        // Given
+        ImportSummaryDto summary = new ImportSummaryDto(2, 1, 0, 2, 0, 0, 0, 0, 0);
+        when(excelImportService.importData(any(Path.class), any(ImportFormat.class), any(ImportProgress.class))).thenAnswer(invocation -> {
+            ImportProgress progress = invocation.getArgument(2);
+            progress.rowParsed();
+            progress.rowParsed();
+            progress.rowsWritten(2);
+            return summary;
+        });
+
+        // When
+        ImportJobDto submitted = importJobService.submit(file);
+        ImportJobDto finished = awaitFinished(submitted.getJobId());
+
+        // Then
+        assertEquals("COMPLETED", finished.getStatus());
+        assertEquals("test.xlsx", finished.getFileName());
+        assertEquals(2, finished.getRowsParsed());
+        assertEquals(2, finished.getRowsWritten());
+        assertEquals(summary, finished.getSummary());
+        assertNotNull(finished.getFinishedAt());
+    }
+
+    @Test
+    void testSubmit_FailureIsReported() throws Exception {
+        // Given
+        when(excelImportService.importData(any(Path.class), any(ImportFormat.class), any(ImportProgress.class)))
+                .thenThrow(new IOException("Broken file"));
+
+        // When
+        ImportJobDto finished = awaitFinished(importJobService.submit(file).getJobId());
+
+        // Then
+        assertEquals("FAILED", finished.getStatus());
+        assertEquals("Broken file", finished.getError());
+    }
+
+    @Test
+    void testSubmit_RejectedWhenQueueIsFull() throws Exception {
+        // Given one running and one waiting import
+        CountDownLatch release = new CountDownLatch(1);
+        when(excelImportService.importData(any(Path.class), any(ImportFormat.class), any(ImportProgress.class))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new ImportSummaryDto();
+        });
+        importJobService.submit(file);
+        importJobService.submit(file);
+
+        // When / Then
+        assertThrows(RejectedExecutionException.class, () -> importJobService.submit(file));
+        release.countDown();
+    }
+
+    @Test
+    void testSubmit_FormatFollowsFileExtension() throws Exception {
+        // Given
+        MockMultipartFile csv = new MockMultipartFile("file", "codes.CSV", "text/csv", new byte[]{1});
+        when(excelImportService.importData(any(Path.class), any(ImportFormat.class), any(ImportProgress.class)))
+                .thenReturn(new ImportSummaryDto());
+
+        // When
+        awaitFinished(importJobService.submit(csv).getJobId());
+
+        // Then
+        verify(excelImportService).importData(any(Path.class), eq(ImportFormat.CSV), any(ImportProgress.class));
+    }
+
+    @Test
+    void testSubmit_DeltaRunsDeltaImport() throws Exception {
+        // Given
+        ImportSummaryDto summary = new ImportSummaryDto(2, 0, 1, 0, 0, 1, 3, 1, 0);
+        when(excelImportService.importDelta(any(Path.class), any(ImportFormat.class), any(ImportProgress.class)))
+                .thenReturn(summary);
+
+        // When
+        ImportJobDto finished = awaitFinished(importJobService.submit(file, true).getJobId());
+
+        // Then
+        assertEquals(summary, finished.getSummary());
+        verify(excelImportService, never()).importData(any(Path.class), any(ImportFormat.class), any(ImportProgress.class));
+    }
+
+    @Test
+    void testSubmit_VirtualThreadModeKeepsWorkerNames() throws Exception {
+        // Given: on Java 21+ the workers are virtual threads, on older versions the mode falls back to platform threads
+        importJobService.shutdown();
+        importJobService = new ImportJobService(excelImportService, new SwiftProperties(),
+                new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true"));
+        String[] workerName = new String[1];
+        when(excelImportService.importData(any(Path.class), any(ImportFormat.class), any(ImportProgress.class))).thenAnswer(invocation -> {
+            workerName[0] = Thread.currentThread().getName();
+            return new ImportSummaryDto();
+        });
+
+        // When
+        ImportJobDto finished = awaitFinished(importJobService.submit(file).getJobId());
+
+        // Then
+        assertEquals("COMPLETED", finished.getStatus());
+        assertTrue(workerName[0].startsWith("swift-import-"));
+    }
+
+    @Test
+    void testGetJob_RetentionStartsWhenJobFinishes() throws Exception {
+        // Given a retention shorter than the time the jobs wait and run
+        importJobService.shutdown();
+        SwiftProperties properties = new SwiftProperties();
+        properties.getImporter().setMaxConcurrentJobs(1);
+        properties.getImporter().setJobRetention(Duration.ofMillis(1));
+        importJobService = new ImportJobService(excelImportService, properties, new MockEnvironment());
+        CountDownLatch release = new CountDownLatch(1);
+        when(excelImportService.importData(any(Path.class), any(ImportFormat.class), any(ImportProgress.class))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new ImportSummaryDto();
+        });
+        String running = importJobService.submit(file).getJobId();
+        String queued = importJobService.submit(file).getJobId();
+
+        // When
+        Thread.sleep(50);
+
+        // Then the live jobs are still visible, and expire once they have finished
+        assertEquals("RUNNING", importJobService.getJob(running).getStatus());
+        assertEquals("QUEUED", importJobService.getJob(queued).getStatus());
+        release.countDown();
+        for (int i = 0; i < 500 && importJobService.getJob(queued) != null; i++) {
+            Thread.sleep(10);
+        }
+        assertNull(importJobService.getJob(running));
+        assertNull(importJobService.getJob(queued));
+    }
+
+    @Test
+    void testShutdown_RemovesFilesOfWaitingJobs() throws Exception {
+        // Given one running and one waiting import
+        Path tempDir = Path.of(System.getProperty("java.io.tmpdir"));
+        Set<Path> before = importFiles(tempDir);
+        when(excelImportService.importData(any(Path.class), any(ImportFormat.class), any(ImportProgress.class))).thenAnswer(invocation -> {
+            new CountDownLatch(1).await(5, TimeUnit.SECONDS);
+            return new ImportSummaryDto();
+        });
+        String running = importJobService.submit(file).getJobId();
+        String queued = importJobService.submit(file).getJobId();
+
+        // When
+        importJobService.shutdown();
+
+        // Then the waiting job is failed, and neither job leaves its file behind
+        assertEquals("FAILED", importJobService.getJob(queued).getStatus());
+        assertEquals("FAILED", awaitFinished(running).getStatus());
+        for (int i = 0; i < 500 && !before.equals(importFiles(tempDir)); i++) {
+            Thread.sleep(10); // The running job removes its file right after it is marked as failed
+        }
+        assertEquals(before, importFiles(tempDir));
+    }
+
+    @Test
+    void testGetJob_Unknown() {
+        assertNull(importJobService.getJob("unknown"));
+    }
+
+    private static Set<Path> importFiles(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> path.getFileName().toString().startsWith("swift-import-")).collect(Collectors.toSet());
+        }
+    }
+
+    private ImportJobDto awaitFinished(String jobId) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            ImportJobDto job = importJobService.getJob(jobId);
+            if ("COMPLETED".equals(job.getStatus()) || "FAILED".equals(job.getStatus())) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        return fail("Import job " + jobId + " did not finish");
+    }
+}
@@ -1,11 +1,35 @@
 package com.example.swiftcodes.service;
 
+import com.example.swiftcodes.cache.CountryIndex;
+import com.example.swiftcodes.cache.SwiftCodeFilter;
+import com.example.swiftcodes.cache.SwiftDetailsCache;
+import com.example.swiftcodes.cache.SwiftSearchIndex;
+import com.example.swiftcodes.config.SwiftProperties;
+import com.example.swiftcodes.dto.BranchDto;
+import com.example.swiftcodes.dto.CountrySwiftPageDto;
+import com.example.swiftcodes.dto.CountrySwiftResponseDto;
+import com.example.swiftcodes.dto.SwiftResponseDto;
+import com.example.swiftcodes.dto.SwiftSearchResponseDto;
+import com.example.swiftcodes.dto.SwiftSearchResultDto;
+import com.example.swiftcodes.event.SwiftDataChangedEvent;
+import com.example.swiftcodes.model.SwiftModel;
+import com.example.swiftcodes.repository.SwiftCursorRepository;
 import com.example.swiftcodes.repository.SwiftRepository;
+import com.example.swiftcodes.snapshot.SwiftSnapshot;
+import com.example.swiftcodes.snapshot.SwiftSnapshotHolder;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -15,12 +39,36 @@ import static org.junit.jupiter.api.Assertions.*;
     @Mock
     private SwiftRepository swiftRepository;
 
-    @InjectMocks
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private SwiftSnapshotHolder swiftSnapshotHolder;
+
+    @Mock
+    private SwiftCursorRepository swiftCursorRepository;
+
+    @Mock
+    private CountryIndex countryIndex;
+
+    @Mock
+    private SwiftSearchIndex swiftSearchIndex;
+
+    @Mock
+    private SwiftCodeFilter swiftCodeFilter;
+
+    private SwiftDetailsCache swiftDetailsCache;
+
     private SwiftCodeService swiftCodeService;
 
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(swiftCodeFilter.mightContain(anyString())).thenReturn(true);
+        swiftDetailsCache = new SwiftDetailsCache(new SwiftProperties());
+        swiftCodeService = new SwiftCodeService(swiftRepository, swiftDetailsCache, swiftSnapshotHolder,
+                swiftCursorRepository, countryIndex, swiftSearchIndex, swiftCodeFilter,
+                new ObjectMapper(), eventPublisher, new SwiftProperties());
     }
 
     @Test
@@ -34,6 +82,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
         // Then
         verify(swiftRepository, times(1)).deleteById(swiftCode); // Verify deleteById is called once
+        verify(eventPublisher, times(1)).publishEvent(any(SwiftDataChangedEvent.class)); // Cached data is invalidated
         assertTrue(result); // Assert that the result is true
     }
 
@@ -48,6 +97,361 @@ import static org.junit.jupiter.api.Assertions.*;
 
         // Then
         verify(swiftRepository, times(0)).deleteById(swiftCode); // Verify deleteById is not called
+        verify(eventPublisher, never()).publishEvent(any());
         assertFalse(result); // Assert that the result is false
     }
-}
\ No newline at end of file
+
+    @Test
+     void testGetSwiftDetails_HeadquarterWithBranches() {
+        // Given
+        String swiftCode = "AAISALTRXXX";
+        SwiftResponseDto dto = new SwiftResponseDto(swiftCode, "Bank", "Address", "AL", "ALBANIA", true, null);
+        SwiftResponseDto branchRow = new SwiftResponseDto("AAISALTR001", "Bank", "Branch address", "AL", "ALBANIA", false, null);
+        when(swiftRepository.findBySwiftCodeWithBranches(swiftCode)).thenReturn(List.of(branchRow, dto));
+
+        // When
+        SwiftResponseDto result = swiftCodeService.getSwiftDetails(swiftCode);
+
+        // Then
+        assertEquals(swiftCode, result.getSwiftCode());
+        assertEquals(List.of(new BranchDto("AAISALTR001", "Bank", "Branch address", "AL", false)), result.getBranches());
+        verify(swiftRepository, times(1)).findBySwiftCodeWithBranches(swiftCode); // One round trip for the headquarter and its branches
+        verifyNoMoreInteractions(swiftRepository);
+    }
+
+    @Test
+     void testGetSwiftDetailsJson_CachesEncodedResponse() throws Exception {
+        // Given
+        String swiftCode = "AAISALTR001";
+        SwiftResponseDto dto = new SwiftResponseDto(swiftCode, "Bank", "Address", "AL", "ALBANIA", false, null);
+        when(swiftRepository.findBySwiftCodeWithBranches(swiftCode)).thenReturn(List.of(dto));
+
+        // When
+        byte[] first = swiftCodeService.getSwiftDetailsJson(swiftCode);
+        byte[] second = swiftCodeService.getSwiftDetailsJson(swiftCode);
+
+        // Then
+        assertSame(first, second); // The second lookup neither loads nor serializes the response
+        verify(swiftRepository, times(1)).findBySwiftCodeWithBranches(swiftCode);
+        assertEquals(swiftCode, new ObjectMapper().readValue(first, SwiftResponseDto.class).getSwiftCode());
+        assertNull(swiftCodeService.getSwiftDetailsJson("UNKNOWN0001"));
+    }
+
+    @Test
+     void testGetSwiftDetails_BranchHasNoBranchList() {
+        // Given
+        String swiftCode = "AAISALTR001";
+        SwiftResponseDto dto = new SwiftResponseDto(swiftCode, "Bank", "Address", "AL", "ALBANIA", false, null);
+        when(swiftRepository.findBySwiftCodeWithBranches(swiftCode)).thenReturn(List.of(dto));
+
+        // When
+        SwiftResponseDto result = swiftCodeService.getSwiftDetails(swiftCode);
+
+        // Then
+        assertNull(result.getBranches());
+        verify(swiftRepository, times(1)).findBySwiftCodeWithBranches(swiftCode);
+        verifyNoMoreInteractions(swiftRepository);
+    }
+
+    @Test
+     void testGetSwiftDetails_SecondLookupServedFromCache() {
+        // Given
+        String swiftCode = "AAISALTR001";
+        SwiftResponseDto dto = new SwiftResponseDto(swiftCode, "Bank", "Address", "AL", "ALBANIA", false, null);
+        when(swiftRepository.findBySwiftCodeWithBranches(swiftCode)).thenReturn(List.of(dto));
+
+        // When
+        swiftCodeService.getSwiftDetails(swiftCode);
+        SwiftResponseDto result = swiftCodeService.getSwiftDetails(swiftCode);
+
+        // Then
+        assertEquals(dto, result);
+        verify(swiftRepository, times(1)).findBySwiftCodeWithBranches(swiftCode); // Only the first call hits the database
+        assertEquals(1, swiftDetailsCache.getStats().getHitCount());
+        assertEquals(1, swiftDetailsCache.getStats().getMissCount());
+    }
+
+    @Test
+     void testGetSwiftDetails_NotFoundIsNotCached() {
+        // Given
+        String swiftCode = "SWIFT999";
+        when(swiftRepository.findBySwiftCodeWithBranches(swiftCode)).thenReturn(List.of());
+
+        // When
+        swiftCodeService.getSwiftDetails(swiftCode);
+        SwiftResponseDto result = swiftCodeService.getSwiftDetails(swiftCode);
+
+        // Then
+        assertNull(result);
+        verify(swiftRepository, times(2)).findBySwiftCodeWithBranches(swiftCode);
+    }
+
+    @Test
+     void testGetSwiftDetails_RejectedByFilter() {
+        // Given
+        String swiftCode = "SWIFT999";
+        when(swiftCodeFilter.mightContain(swiftCode)).thenReturn(false);
+
+        // When
+        SwiftResponseDto result = swiftCodeService.getSwiftDetails(swiftCode);
+        byte[] json = swiftCodeService.getSwiftDetailsJson(swiftCode);
+
+        // Then the database is not queried
+        assertNull(result);
+        assertNull(json);
+        verifyNoInteractions(swiftRepository);
+    }
+
+    @Test
+     void testGetSwiftDetailsBulk_FilteredCodesAreNotQueried() {
+        // Given
+        SwiftResponseDto albania = new SwiftResponseDto("AAISALTR001", "Bank", "Address", "AL", "ALBANIA", false, null);
+        when(swiftCodeFilter.mightContain("UNKNOWN0001")).thenReturn(false);
+        when(swiftRepository.findAllBySwiftCodesWithCountry(List.of("AAISALTR001"))).thenReturn(List.of(albania));
+
+        // When
+        Map<String, SwiftResponseDto> result = swiftCodeService.getSwiftDetailsBulk(List.of("AAISALTR001", "UNKNOWN0001"));
+
+        // Then
+        assertEquals(Map.of("AAISALTR001", albania), result);
+        verify(swiftRepository).findAllBySwiftCodesWithCountry(List.of("AAISALTR001"));
+    }
+
+    @Test
+     void testGetSwiftDetailsBulk_GroupsBranchesOfAllHeadquarters() {
+        // Given
+        SwiftResponseDto albania = new SwiftResponseDto("AAISALTRXXX", "Bank", "Address", "AL", "ALBANIA", true, null);
+        SwiftResponseDto poland = new SwiftResponseDto("BREXPLPWXXX", "mBank", "Address", "PL", "POLAND", true, null);
+        SwiftResponseDto branch = new SwiftResponseDto("BREXPLPW001", "mBank", "Address", "PL", "POLAND", false, null);
+        BranchDto albaniaHq = new BranchDto("AAISALTRXXX", "Bank", "Address", "AL", true);
+        BranchDto polandHq = new BranchDto("BREXPLPWXXX", "mBank", "Address", "PL", true);
+        BranchDto polandBranch = new BranchDto("BREXPLPW001", "mBank", "Address", "PL", false);
+        when(swiftRepository.findAllBySwiftCodesWithCountry(anyCollection())).thenReturn(List.of(albania, poland, branch));
+        when(swiftRepository.findAllByBankCodes(anyCollection())).thenReturn(List.of(albaniaHq, polandHq, polandBranch));
+
+        // When
+        Map<String, SwiftResponseDto> result = swiftCodeService.getSwiftDetailsBulk(
+                List.of("AAISALTRXXX", "BREXPLPWXXX", "BREXPLPW001", "UNKNOWN0001"));
+
+        // Then
+        assertEquals(3, result.size());
+        assertEquals(List.of(), result.get("AAISALTRXXX").getBranches());
+        assertEquals(List.of(polandBranch), result.get("BREXPLPWXXX").getBranches());
+        assertNull(result.get("BREXPLPW001").getBranches());
+        verify(swiftRepository, times(1)).findAllBySwiftCodesWithCountry(anyCollection());
+        verify(swiftRepository, times(1)).findAllByBankCodes(Set.of("AAISALTR", "BREXPLPW"));
+        verify(swiftRepository, never()).findBySwiftCodeWithBranches(any());
+    }
+
+    @Test
+     void testGetSwiftDetailsBulk_OnlyMissingCodesAreLoaded() {
+        // Given
+        String swiftCode = "AAISALTR001";
+        SwiftResponseDto dto = new SwiftResponseDto(swiftCode, "Bank", "Address", "AL", "ALBANIA", false, null);
+        when(swiftRepository.findBySwiftCodeWithBranches(swiftCode)).thenReturn(List.of(dto));
+        swiftCodeService.getSwiftDetails(swiftCode);
+
+        // When
+        Map<String, SwiftResponseDto> result = swiftCodeService.getSwiftDetailsBulk(List.of(swiftCode));
+
+        // Then
+        assertEquals(dto, result.get(swiftCode));
+        verify(swiftRepository, never()).findAllBySwiftCodesWithCountry(anyCollection());
+    }
+
+    @Test
+     void testGetSwiftCodesByCountry_Found() {
+        // Given
+        List<BranchDto> swiftCodes = List.of(new BranchDto("AAISALTRXXX", "Bank", "Address", "AL", true));
+        when(swiftRepository.findCountryNameByISO2("AL")).thenReturn("ALBANIA");
+        when(swiftRepository.findSwiftCodesByCountryISO2("AL")).thenReturn(swiftCodes);
+
+        // When
+        CountrySwiftResponseDto result = swiftCodeService.getSwiftCodesByCountry("AL");
+
+        // Then
+        assertEquals(new CountrySwiftResponseDto("AL", "ALBANIA", swiftCodes), result);
+    }
+
+    @Test
+     void testGetSwiftCodesByCountry_ServedFromCountryIndex() {
+        // Given
+        CountrySwiftResponseDto country = new CountrySwiftResponseDto("AL", "ALBANIA",
+                List.of(new BranchDto("AAISALTRXXX", "Bank", "Address", "AL", true)));
+        when(countryIndex.isLoaded()).thenReturn(true);
+        when(countryIndex.findByCountry("AL")).thenReturn(country);
+
+        // When
+        CountrySwiftResponseDto result = swiftCodeService.getSwiftCodesByCountry("AL");
+
+        // Then the database is not queried
+        assertEquals(country, result);
+        verifyNoInteractions(swiftRepository);
+    }
+
+    @Test
+     void testSearchSwiftCodes_ServedFromSearchIndex() {
+        // Given
+        List<SwiftSearchResultDto> results = List.of(
+                new SwiftSearchResultDto("BPKOPLPWXXX", "PKO BANK POLSKI", "PUSTULKI 15", "WARSZAWA", "PL", true));
+        when(swiftSearchIndex.isLoaded()).thenReturn(true);
+        when(swiftSearchIndex.search("pko", "PL", 10)).thenReturn(results);
+
+        // When
+        SwiftSearchResponseDto result = swiftCodeService.searchSwiftCodes("pko", "PL", 10);
+
+        // Then
+        assertEquals(new SwiftSearchResponseDto("pko", "PL", results), result);
+        verifyNoInteractions(swiftRepository);
+    }
+
+    @Test
+     void testSearchSwiftCodes_IndexNotLoaded() {
+        // Given
+        when(swiftSearchIndex.isLoaded()).thenReturn(false);
+
+        // When / Then
+        assertNull(swiftCodeService.searchSwiftCodes("pko", null, 10));
+        verify(swiftSearchIndex, never()).search(anyString(), any(), anyInt());
+    }
+
+    @Test
+     void testGetSwiftCodesByCountry_NotFound() {
+        // Given
+        when(swiftRepository.findCountryNameByISO2("XX")).thenReturn(null);
+
+        // When
+        CountrySwiftResponseDto result = swiftCodeService.getSwiftCodesByCountry("XX");
+
+        // Then
+        assertNull(result);
+        verify(swiftRepository, never()).findSwiftCodesByCountryISO2(any());
+    }
+
+    @Test
+     void testGetSwiftCodesByCountryPage_HasNextPage() {
+        // Given
+        List<BranchDto> swiftCodes = List.of(
+                new BranchDto("AAISALTR001", "Bank", "Address", "AL", false),
+                new BranchDto("AAISALTRXXX", "Bank", "Address", "AL", true),
+                new BranchDto("BBBBALTRXXX", "Bank", "Address", "AL", true));
+        when(swiftRepository.findCountryNameByISO2("AL")).thenReturn("ALBANIA");
+        when(swiftRepository.findSwiftCodesByCountryISO2After("AL", "", Limit.of(3))).thenReturn(swiftCodes);
+
+        // When
+        CountrySwiftPageDto result = swiftCodeService.getSwiftCodesByCountryPage("AL", null, 2);
+
+        // Then one row more than the limit tells that another page exists
+        assertEquals(swiftCodes.subList(0, 2), result.getSwiftCodes());
+        assertEquals("AAISALTRXXX", result.getNextCursor());
+    }
+
+    @Test
+     void testGetSwiftCodesByCountryPage_LastPage() {
+        // Given
+        List<BranchDto> swiftCodes = List.of(new BranchDto("BBBBALTRXXX", "Bank", "Address", "AL", true));
+        when(swiftRepository.findCountryNameByISO2("AL")).thenReturn("ALBANIA");
+        when(swiftRepository.findSwiftCodesByCountryISO2After("AL", "AAISALTRXXX", Limit.of(3))).thenReturn(swiftCodes);
+
+        // When
+        CountrySwiftPageDto result = swiftCodeService.getSwiftCodesByCountryPage("AL", "AAISALTRXXX", 2);
+
+        // Then
+        assertEquals(swiftCodes, result.getSwiftCodes());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+     void testWriteSwiftCodesByCountry_StreamsCursorRows() throws Exception {
+        // Given
+        BranchDto swiftCode = new BranchDto("AAISALTRXXX", "Bank", "Address", "AL", true);
+        doAnswer(invocation -> {
+            Consumer<BranchDto> consumer = invocation.getArgument(2);
+            consumer.accept(swiftCode);
+            return null;
+        }).when(swiftCursorRepository).forEachByCountry(eq("AL"), isNull(), any());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        swiftCodeService.writeSwiftCodesByCountry("AL", "ALBANIA", null, out);
+
+        // Then the output has the format of the non-streamed listing
+        CountrySwiftResponseDto result = new ObjectMapper().readValue(out.toByteArray(), CountrySwiftResponseDto.class);
+        assertEquals(new CountrySwiftResponseDto("AL", "ALBANIA", List.of(swiftCode)), result);
+    }
+
+    @Test
+     void testWriteExport_OneObjectPerLine() throws Exception {
+        // Given
+        SwiftResponseDto headquarter = new SwiftResponseDto("AAISALTRXXX", "Bank", "Address", "AL", "ALBANIA", true, null);
+        SwiftResponseDto branch = new SwiftResponseDto("AAISALTR001", "Bank", "Address", "AL", "ALBANIA", false, null);
+        doAnswer(invocation -> {
+            Consumer<SwiftResponseDto> consumer = invocation.getArgument(0);
+            consumer.accept(headquarter);
+            consumer.accept(branch);
+            return null;
+        }).when(swiftCursorRepository).forEachWithCountry(any());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        swiftCodeService.writeExport(out);
+
+        // Then
+        String[] lines = out.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(out.toString().endsWith("\n"));
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertEquals(headquarter, objectMapper.readValue(lines[0], SwiftResponseDto.class));
+        assertEquals(branch, objectMapper.readValue(lines[1], SwiftResponseDto.class));
+    }
+
+    @Test
+     void testSnapshotModeDoesNotQueryDatabase() {
+        // Given
+        SwiftSnapshot snapshot = SwiftSnapshot.of(List.of(
+                new BranchDto("AAISALTRXXX", "Bank", "Address", "AL", true),
+                new BranchDto("AAISALTR001", "Bank", "Branch address", "AL", false)), Map.of("AL", "ALBANIA"));
+        when(swiftSnapshotHolder.get()).thenReturn(snapshot);
+
+        // When
+        SwiftResponseDto details = swiftCodeService.getSwiftDetails("AAISALTRXXX");
+        Map<String, SwiftResponseDto> bulk = swiftCodeService.getSwiftDetailsBulk(List.of("AAISALTR001", "UNKNOWN0001"));
+        CountrySwiftResponseDto country = swiftCodeService.getSwiftCodesByCountry("AL");
+
+        // Then
+        assertEquals(1, details.getBranches().size());
+        assertEquals(Set.of("AAISALTR001"), bulk.keySet());
+        assertEquals(2, country.getSwiftCodes().size());
+        verifyNoInteractions(swiftRepository);
+    }
+
+    @Test
+     void testWriteSwiftCodesByCountry_SnapshotModeAfterCursor() throws Exception {
+        // Given
+        BranchDto branch = new BranchDto("AAISALTR001", "Bank", "Branch address", "AL", false);
+        BranchDto headquarter = new BranchDto("AAISALTRXXX", "Bank", "Address", "AL", true);
+        when(swiftSnapshotHolder.get()).thenReturn(SwiftSnapshot.of(List.of(headquarter, branch), Map.of("AL", "ALBANIA")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When the stream starts after a code, with no limit on the remaining codes
+        swiftCodeService.writeSwiftCodesByCountry("AL", "ALBANIA", "AAISALTR001", out);
+
+        // Then
+        CountrySwiftResponseDto result = new ObjectMapper().readValue(out.toByteArray(), CountrySwiftResponseDto.class);
+        assertEquals(new CountrySwiftResponseDto("AL", "ALBANIA", List.of(headquarter)), result);
+        verifyNoInteractions(swiftCursorRepository);
+    }
+
+    @Test
+     void testAddSwiftCode_PublishesChange() {
+        // Given
+        SwiftModel swiftModel = new SwiftModel("AAISALTR002", "Bank", "Address", "Tirana", "AL", false);
+
+        // When
+        swiftCodeService.addSwiftCode(swiftModel);
+
+        // Then
+        verify(swiftRepository, times(1)).save(swiftModel);
+        verify(eventPublisher, times(1)).publishEvent(any(SwiftDataChangedEvent.class));
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.swiftcodes.snapshot;
+
+import com.example.swiftcodes.dto.BranchDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the SwiftRecordStore class.
+ */
+class SwiftRecordStoreTest {
+
+    private static final BranchDto HEADQUARTER = new BranchDto("BREXPLPWXXX", "MBANK", "UL. PROSTA 18", "PL", true);
+    private static final BranchDto BRANCH = new BranchDto("BREXPLPW001", "MBANK", "ŁÓDŹ", "PL", false);
+    private static final BranchDto OTHER_BANK = new BranchDto("AAISALTRXXX", "UNITED BANK OF ALBANIA", "TIRANA", "AL", true);
+
+    @Test
+    void testBuild_SortsByCodeAndKeepsLastDuplicate() {
+        // Given
+        SwiftRecordStore.Builder builder = new SwiftRecordStore.Builder();
+        add(builder, HEADQUARTER);
+        add(builder, new BranchDto("BREXPLPW001", "MBANK", "OLD ADDRESS", "PL", false));
+        add(builder, OTHER_BANK);
+        add(builder, BRANCH);
+
+        // When
+        SwiftRecordStore store = builder.build();
+
+        // Then
+        assertEquals(3, store.size());
+        assertEquals(List.of(OTHER_BANK, BRANCH, HEADQUARTER), List.of(store.branch(0), store.branch(1), store.branch(2)));
+        assertEquals(2, store.find("BREXPLPWXXX"));
+        assertEquals(-1, store.find("BREXPLPW002"));
+        assertEquals(-1, store.find("BREXPLPWXXXX"));
+        assertEquals("PL", store.countryISO2(1));
+        assertTrue(store.isHeadquarter(2));
+        assertFalse(store.isHeadquarter(1));
+        assertTrue(store.offHeapBytes() > 0);
+    }
+
+    @Test
+    void testBuild_NullFieldsAndCodesOfOtherLengths() {
+        // Given a code longer than the 11-byte slot widens the slot of every record
+        BranchDto shortCode = new BranchDto("BREXPLPW", null, null, null, true);
+        BranchDto longCode = new BranchDto("BREXPLPWXXX-LONG", "MBANK", "", "PL", false);
+        SwiftRecordStore.Builder builder = new SwiftRecordStore.Builder();
+        add(builder, HEADQUARTER);
+        add(builder, longCode);
+        add(builder, shortCode);
+
+        // When
+        SwiftRecordStore store = builder.build();
+
+        // Then
+        assertEquals(List.of(shortCode, HEADQUARTER, longCode), List.of(store.branch(0), store.branch(1), store.branch(2)));
+        assertEquals(1, store.find("BREXPLPWXXX"));
+        assertNull(store.countryISO2(0));
+        assertArrayEquals(new int[]{0, 3}, store.prefixRange("BREXPLPW"));
+        assertArrayEquals(new int[]{3, 3}, store.prefixRange("ZZZZZZZZ"));
+    }
+
+    @Test
+    void testCountryBranches_PagesInCodeOrder() {
+        // Given
+        SwiftRecordStore store = build(HEADQUARTER, OTHER_BANK, BRANCH);
+
+        // When / Then
+        assertEquals(List.of(BRANCH, HEADQUARTER), store.countryBranches("PL", null, Integer.MAX_VALUE));
+        assertEquals(List.of(BRANCH), store.countryBranches("PL", null, 1));
+        assertEquals(List.of(HEADQUARTER), store.countryBranches("PL", "BREXPLPW005", 10));
+        assertEquals(List.of(), store.countryBranches("PL", "BREXPLPWXXX", 10));
+        assertEquals(List.of(), store.countryBranches("DE", null, 10));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.countryBranches("PL", null, 10).get(2));
+    }
+
+    @Test
+    void testAdd_CopiesRecordsOfAnotherStore() {
+        // Given
+        SwiftRecordStore store = build(HEADQUARTER, BRANCH, OTHER_BANK);
+        SwiftRecordStore.Builder builder = new SwiftRecordStore.Builder();
+        BranchDto added = new BranchDto("BREXPLPW003", "MBANK", null, "DE", false);
+        add(builder, added);
+
+        // When
+        for (int row = 0; row < store.size(); row++) {
+            builder.add(store, row);
+        }
+        SwiftRecordStore copy = builder.build();
+
+        // Then
+        assertEquals(List.of(OTHER_BANK, BRANCH, added, HEADQUARTER),
+                List.of(copy.branch(0), copy.branch(1), copy.branch(2), copy.branch(3)));
+        assertEquals(List.of(added), copy.countryBranches("DE", null, 10));
+    }
+
+    @Test
+    void testBuild_ManyRecordsSpanSeveralAddressPages() {
+        // Given about 2 MB of addresses, more than the first address pages
+        List<BranchDto> codes = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            codes.add(new BranchDto(String.format("BANK%02dPW%03d", i % 97, i % 1000), "BANK " + (i % 97),
+                    "STREET ".repeat(14) + i, i % 2 == 0 ? "PL" : "DE", false));
+        }
+
+        // When
+        SwiftRecordStore store = build(codes.toArray(BranchDto[]::new));
+
+        // Then
+        assertEquals(20_000, store.size());
+        for (int i = 19_000; i < 20_000; i++) {
+            BranchDto code = codes.get(i);
+            assertEquals(code, store.branch(store.find(code.getSwiftCode())));
+        }
+        assertEquals(10_000, store.countryBranches("PL", null, Integer.MAX_VALUE).size());
+    }
+
+    private static SwiftRecordStore build(BranchDto... codes) {
+        SwiftRecordStore.Builder builder = new SwiftRecordStore.Builder();
+        for (BranchDto code : codes) {
+            add(builder, code);
+        }
+        return builder.build();
+    }
+
+    private static void add(SwiftRecordStore.Builder builder, BranchDto code) {
+        builder.add(code.getSwiftCode(), code.getBankName(), code.getAddress(), code.getCountryISO2(), code.isHeadquarter());
+    }
+}
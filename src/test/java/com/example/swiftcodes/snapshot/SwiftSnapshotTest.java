@@ -0,0 +1,156 @@
+package com.example.swiftcodes.snapshot;
+
+import com.example.swiftcodes.dto.BranchDto;
+import com.example.swiftcodes.dto.CountrySwiftResponseDto;
+import com.example.swiftcodes.dto.SwiftResponseDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the SwiftSnapshot class.
+ */
+class SwiftSnapshotTest {
+
+    private static final BranchDto HEADQUARTER = new BranchDto("BREXPLPWXXX", "MBANK", "WARSZAWA", "PL", true);
+    private static final BranchDto BRANCH = new BranchDto("BREXPLPW001", "MBANK", "LODZ", "PL", false);
+    private static final BranchDto OTHER_BANK = new BranchDto("AAISALTRXXX", "UNITED BANK OF ALBANIA", "TIRANA", "AL", true);
+    private static final BranchDto UNKNOWN_COUNTRY = new BranchDto("BREXPLPW002", "MBANK", "BERLIN", "XX", false);
+
+    private final SwiftSnapshot snapshot = SwiftSnapshot.of(List.of(HEADQUARTER, BRANCH, OTHER_BANK, UNKNOWN_COUNTRY),
+            Map.of("PL", "POLAND", "AL", "ALBANIA", "DE", "GERMANY"));
+
+    @Test
+    void testFindHeadquarterWithBranches() {
+        SwiftResponseDto result = snapshot.findSwiftDetails("BREXPLPWXXX");
+
+        // Codes of an unknown country are excluded, as with the JOIN of the database query
+        assertEquals(new SwiftResponseDto("BREXPLPWXXX", "MBANK", "WARSZAWA", "PL", "POLAND", true, List.of(BRANCH)), result);
+    }
+
+    @Test
+    void testFindBranchWithoutBranchList() {
+        SwiftResponseDto result = snapshot.findSwiftDetails("BREXPLPW001");
+
+        assertEquals("POLAND", result.getCountryName());
+        assertNull(result.getBranches());
+    }
+
+    @Test
+    void testFindUnknownCodes() {
+        assertNull(snapshot.findSwiftDetails("NOPENOPEXXX"));
+        assertNull(snapshot.findSwiftDetails("BREXPLPW002"));
+    }
+
+    @Test
+    void testFindByCountry() {
+        CountrySwiftResponseDto poland = snapshot.findByCountry("PL");
+
+        // Codes are sorted by SWIFT code
+        assertEquals(List.of(BRANCH, HEADQUARTER), poland.getSwiftCodes());
+        assertEquals(List.of(), snapshot.findByCountry("DE").getSwiftCodes());
+        assertNull(snapshot.findByCountry("XX"));
+    }
+
+    @Test
+    void testFindPageByCountry() {
+        assertEquals(List.of(BRANCH), snapshot.findPageByCountry("PL", null, 1));
+        assertEquals(List.of(HEADQUARTER), snapshot.findPageByCountry("PL", "BREXPLPW001", 1));
+        // The cursor does not have to be an existing code
+        assertEquals(List.of(HEADQUARTER), snapshot.findPageByCountry("PL", "BREXPLPW005", 10));
+        assertEquals(List.of(), snapshot.findPageByCountry("PL", "BREXPLPWXXX", 10));
+        assertEquals(List.of(), snapshot.findPageByCountry("DE", null, 10));
+        // The streamed listing reads the rest of the country without a limit
+        assertEquals(List.of(HEADQUARTER), snapshot.findPageByCountry("PL", "BREXPLPW001", Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testWithChangesLeavesOriginalUntouched() {
+        BranchDto newBranch = new BranchDto("BREXPLPW003", "MBANK", "KRAKOW", "PL", false);
+
+        SwiftSnapshot changed = snapshot.withChanges(List.of(newBranch), List.of("BREXPLPW001"));
+
+        assertEquals(List.of(newBranch), changed.findSwiftDetails("BREXPLPWXXX").getBranches());
+        assertNull(changed.findSwiftDetails("BREXPLPW001"));
+        assertEquals(List.of(BRANCH), snapshot.findSwiftDetails("BREXPLPWXXX").getBranches());
+        assertEquals(4, snapshot.size());
+        assertEquals(4, changed.size());
+    }
+
+    @Test
+    void testWithChangesMergesOverlayIntoCountryListing() {
+        // Given
+        BranchDto movedBranch = new BranchDto("BREXPLPW001", "MBANK", "TIRANA", "AL", false);
+        BranchDto newBranch = new BranchDto("BREXPLPW000", "MBANK", "GDANSK", "PL", false);
+
+        // When
+        SwiftSnapshot changed = snapshot.withChanges(List.of(movedBranch, newBranch), List.of());
+
+        // Then
+        assertEquals(List.of(newBranch, HEADQUARTER), changed.findByCountry("PL").getSwiftCodes());
+        assertEquals(List.of(OTHER_BANK, movedBranch), changed.findByCountry("AL").getSwiftCodes());
+        assertEquals(List.of(HEADQUARTER), changed.findPageByCountry("PL", "BREXPLPW000", 10));
+        assertEquals(List.of(newBranch), changed.findPageByCountry("PL", null, 1));
+        assertEquals(List.of(newBranch, movedBranch), changed.findSwiftDetails("BREXPLPWXXX").getBranches());
+        assertEquals("ALBANIA", changed.findSwiftDetails("BREXPLPW001").getCountryName());
+        assertEquals(5, changed.size());
+        assertEquals(2, changed.pendingChanges());
+    }
+
+    @Test
+    void testWithChangesRemovesAndRestoresCode() {
+        // Given
+        SwiftSnapshot removed = snapshot.withChanges(List.of(), List.of("BREXPLPWXXX"));
+
+        // When
+        SwiftSnapshot restored = removed.withChanges(List.of(HEADQUARTER), List.of());
+
+        // Then
+        assertNull(removed.findSwiftDetails("BREXPLPWXXX"));
+        assertEquals(List.of(BRANCH), removed.findByCountry("PL").getSwiftCodes());
+        assertEquals(3, removed.size());
+        assertEquals(snapshot.findSwiftDetails("BREXPLPWXXX"), restored.findSwiftDetails("BREXPLPWXXX"));
+        assertEquals(4, restored.size());
+    }
+
+    @Test
+    void testCompactKeepsContent() {
+        // Given
+        BranchDto newBranch = new BranchDto("BREXPLPW003", "MBANK", "KRAKOW", "PL", false);
+        BranchDto newBank = new BranchDto("BPKOPLPWXXX", "PKO BP", "WARSZAWA", "PL", true);
+        SwiftSnapshot changed = snapshot.withChanges(List.of(newBranch, newBank), List.of("AAISALTRXXX"));
+
+        // When
+        SwiftSnapshot compacted = changed.compact();
+
+        // Then
+        assertEquals(0, compacted.pendingChanges());
+        assertFalse(compacted.sharesRecordsWith(changed));
+        assertEquals(changed.size(), compacted.size());
+        assertEquals(changed.findByCountry("PL"), compacted.findByCountry("PL"));
+        assertEquals(changed.findByCountry("AL"), compacted.findByCountry("AL"));
+        assertEquals(changed.findSwiftDetails("BREXPLPWXXX"), compacted.findSwiftDetails("BREXPLPWXXX"));
+        assertEquals(changed.findSwiftDetails("BPKOPLPWXXX"), compacted.findSwiftDetails("BPKOPLPWXXX"));
+    }
+
+    @Test
+    void testWithChangesBetweenKeepsOnlyLaterChanges() {
+        // Given
+        BranchDto newBranch = new BranchDto("BREXPLPW003", "MBANK", "KRAKOW", "PL", false);
+        BranchDto laterBranch = new BranchDto("BREXPLPW004", "MBANK", "POZNAN", "PL", false);
+        SwiftSnapshot compactedFrom = snapshot.withChanges(List.of(newBranch), List.of());
+        SwiftSnapshot compacted = compactedFrom.compact();
+        SwiftSnapshot latest = compactedFrom.withChanges(List.of(laterBranch), List.of("BREXPLPW001"));
+
+        // When
+        SwiftSnapshot result = compacted.withChangesBetween(compactedFrom, latest);
+
+        // Then
+        assertEquals(2, result.pendingChanges());
+        assertEquals(latest.findByCountry("PL"), result.findByCountry("PL"));
+        assertEquals(latest.size(), result.size());
+    }
+}